@@ -0,0 +1,65 @@
+package frc.robot;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import frc.robot.statemachines.DriveState;
+
+/**
+ * Stubbed drivetrain snapshots for benchmarks.
+ *
+ * <p>Benchmarks run without a drivetrain, so anything that reads {@link DriveState} is fed a fixed
+ * pair of samples instead, each published as the odometry thread would and latched as a loop
+ * would. Both the current and previous snapshot are set, so code that differences them sees a
+ * robot moving at a steady speed.
+ */
+public final class BenchmarkDriveStates {
+
+  private static boolean halInitialized = false;
+
+  private BenchmarkDriveStates() {}
+
+  /** Loads the HAL so benchmarks can use code that reads the FPGA clock or NetworkTables. */
+  public static synchronized void initializeHal() {
+    if (halInitialized) return;
+    HAL.initialize(500, 0);
+    halInitialized = true;
+  }
+
+  /**
+   * Creates a drivetrain snapshot.
+   *
+   * @param timestamp Drivetrain timestamp (seconds)
+   * @param pose Robot pose on the field
+   * @param speeds Robot-relative speeds
+   */
+  public static SwerveDriveState snapshot(double timestamp, Pose2d pose, ChassisSpeeds speeds) {
+    SwerveDriveState state = new SwerveDriveState();
+    state.Timestamp = timestamp;
+    state.Pose = pose;
+    state.Speeds = speeds;
+    state.OdometryPeriod = 0.004;
+    return state;
+  }
+
+  /**
+   * Publishes two snapshots one loop apart to {@link DriveState}, with the robot driving at the
+   * given robot-relative speeds and arriving at the given pose.
+   */
+  public static void publish(double timestamp, Pose2d pose, ChassisSpeeds speeds) {
+    double dt = 0.02;
+    Pose2d previous =
+        new Pose2d(
+            pose.getX() - speeds.vxMetersPerSecond * dt,
+            pose.getY() - speeds.vyMetersPerSecond * dt,
+            pose.getRotation().minus(new Rotation2d(speeds.omegaRadiansPerSecond * dt)));
+
+    DriveState driveState = DriveState.getInstance();
+    driveState.publishOdometry(snapshot(timestamp - dt, previous, speeds));
+    driveState.latchLoopSnapshot();
+    driveState.publishOdometry(snapshot(timestamp, pose, speeds));
+    driveState.latchLoopSnapshot();
+  }
+}
@@ -0,0 +1,60 @@
+package frc.robot;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Time the odometry thread spends in {@link Telemetry#telemeterize} per sample: publishing
+ * everything on every sample, against logging and handing off to the decimated publisher.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TelemetryBenchmark {
+
+  private Telemetry direct;
+  private Telemetry decimated;
+  private SwerveDriveState state;
+
+  @Setup
+  public void setup() {
+    BenchmarkDriveStates.initializeHal();
+    direct = new Telemetry(4.5);
+    decimated = new Telemetry(4.5, 50);
+
+    state =
+        BenchmarkDriveStates.snapshot(
+            1.0, new Pose2d(4.0, 3.0, Rotation2d.fromDegrees(30)), new ChassisSpeeds(1, 0.5, 0.2));
+    state.ModuleStates = new SwerveModuleState[4];
+    state.ModuleTargets = new SwerveModuleState[4];
+    state.ModulePositions = new SwerveModulePosition[4];
+    for (int i = 0; i < 4; i++) {
+      Rotation2d angle = Rotation2d.fromDegrees(45 + 90 * i);
+      state.ModuleStates[i] = new SwerveModuleState(1.1, angle);
+      state.ModuleTargets[i] = new SwerveModuleState(1.2, angle);
+      state.ModulePositions[i] = new SwerveModulePosition(10.0 + i, angle);
+    }
+  }
+
+  @Benchmark
+  public void telemeterizeDirect() {
+    direct.telemeterize(state);
+  }
+
+  @Benchmark
+  public void telemeterizeDecimated() {
+    decimated.telemeterize(state);
+  }
+}
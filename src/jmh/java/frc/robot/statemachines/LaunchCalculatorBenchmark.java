@@ -0,0 +1,50 @@
+package frc.robot.statemachines;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import frc.robot.BenchmarkDriveStates;
+import frc.robot.Constants.FieldConstants;
+import frc.robot.statemachines.LaunchState.LaunchType;
+import frc.robot.statemachines.LaunchState.SolverType;
+import frc.robot.subsystems.shooter.LaunchRequest;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Shoot-on-the-move launch request for the blue hub while driving, per builder type and solver.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LaunchCalculatorBenchmark {
+
+  @Param({"PARABOLIC", "MAPPED"})
+  public LaunchType launchType;
+
+  @Param({"TABLE", "ITERATIVE"})
+  public SolverType solverType;
+
+  private LaunchCalculator calculator;
+  private final LaunchRequest request = new LaunchRequest();
+
+  @Setup
+  public void setup() {
+    BenchmarkDriveStates.initializeHal();
+    BenchmarkDriveStates.publish(
+        10.0, new Pose2d(2.5, 5.0, Rotation2d.fromDegrees(-20)), new ChassisSpeeds(1.5, -0.8, 0.5));
+    calculator = LaunchCalculator.getInstance();
+  }
+
+  @Benchmark
+  public LaunchRequest refreshRequest() {
+    return calculator.refreshRequest(FieldConstants.BLUE_HUB, launchType, solverType, request);
+  }
+}
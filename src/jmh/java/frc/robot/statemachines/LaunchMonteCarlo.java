@@ -0,0 +1,325 @@
+package frc.robot.statemachines;
+
+import static edu.wpi.first.units.Units.Meters;
+import static edu.wpi.first.units.Units.Rotations;
+
+import edu.wpi.first.math.geometry.Pose3d;
+import frc.robot.BenchmarkDriveStates;
+import frc.robot.Constants.FieldConstants;
+import frc.robot.statemachines.LaunchState.LaunchType;
+import frc.robot.statemachines.LaunchState.SolverType;
+import frc.robot.subsystems.shooter.BallFlight;
+import frc.robot.subsystems.shooter.LaunchRequest;
+import frc.robot.subsystems.shooter.ShooterConstants;
+import frc.robot.subsystems.shooter.ShotMap;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Estimates the chance a shot scores from each spot on the field, for both {@link LaunchType}s.
+ *
+ * <p>For every cell of a grid around the blue hub, samples robot states with noise on what {@link
+ * LaunchCalculator} is told (pose, heading, velocity) and on how well the robot follows its answer
+ * (heading, hood, flywheel). Each sample's request comes from {@link
+ * LaunchCalculator#computeRequest}, the same code the robot runs, and the ball is flown from where
+ * the robot really is with quadratic air drag. It scores if it comes down through the hub opening
+ * without hitting the wall on the way in. Cells are spread over the common fork-join pool.
+ *
+ * <p>Mapped shots are turned into a launch angle and speed with {@link BallFlight}, the model the
+ * map's time of flight tables come from, at the map's launch speed ratio. Parabolic shots use the
+ * conventions of {@link frc.robot.subsystems.shooter.ParabolicLaunchSolver}: {@link
+ * ShooterConstants#ROTATIONS_PER_LAUNCH_DEGREE} of hood per degree from vertical, and a flywheel
+ * surface speed {@code sqrt(2)} times the exit speed. Each heatmap also reports how many cells a
+ * noise-free shot scores from. If that is low, the model and the launch type disagree and the noisy
+ * numbers mean little.
+ *
+ * <p>Prints a heatmap of the percentage scored per cell for each launch type. Run with {@code
+ * ./gradlew simulateLaunchMaps --args="[shotmap.json] [samples per cell] [robot speed m/s]
+ * [out.csv]"}.
+ */
+public final class LaunchMonteCarlo {
+
+  private static final String DEFAULT_SHOT_MAP = "src/main/deploy/shotmap.json";
+  private static final int DEFAULT_SAMPLES = 5000;
+  private static final long SEED = 2026;
+
+  // Grid, in field meters, on the blue side of the field
+  private static final double CELL_SIZE = 0.5;
+  private static final double MIN_X = 0.25;
+  private static final double MAX_X = 7.0;
+  private static final double MIN_Y = 0.25;
+  private static final double MAX_Y = 7.8;
+  // Cells this close to the hub center are inside or against it
+  private static final double MIN_DISTANCE = 1.0;
+
+  // Noise, one standard deviation
+  private static final double POSE_NOISE = 0.05; // meters, each axis
+  private static final double HEADING_NOISE = Math.toRadians(1.0);
+  private static final double AIM_NOISE = Math.toRadians(1.5);
+  private static final double VELOCITY_NOISE = 0.1; // meters per second, each axis
+  private static final double FLYWHEEL_NOISE = 1.0; // rotations per second
+  private static final double HOOD_NOISE = 0.05; // rotations
+
+  private static final double BALL_RADIUS = BallFlight.BALL_RADIUS;
+  private static final double LAUNCH_HEIGHT = ShooterConstants.SHOOTER_HEIGHT.in(Meters);
+  private static final double RIM_HEIGHT = ShooterConstants.HUB_HEIGHT.in(Meters);
+  private static final double OPENING_RADIUS = ShooterConstants.FROM_HUB_CENTER_TO_WALL.in(Meters);
+  private static final double HOOD_ROTATIONS_PER_DEGREE =
+      ShooterConstants.ROTATIONS_PER_LAUNCH_DEGREE.in(Rotations);
+
+  private final Pose3d target = FieldConstants.BLUE_HUB;
+  private final ShotMapStore.Snapshot shots;
+  private final int samples;
+  private final double robotSpeed;
+
+  private final int columns = (int) Math.round((MAX_X - MIN_X) / CELL_SIZE) + 1;
+  private final int rows = (int) Math.round((MAX_Y - MIN_Y) / CELL_SIZE) + 1;
+
+  private LaunchMonteCarlo(ShotMapStore.Snapshot shots, int samples, double robotSpeed) {
+    this.shots = shots;
+    this.samples = samples;
+    this.robotSpeed = robotSpeed;
+  }
+
+  public static void main(String[] args) throws IOException {
+    File file = new File(args.length > 0 ? args[0] : DEFAULT_SHOT_MAP);
+    int samples = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SAMPLES;
+    double robotSpeed = args.length > 2 ? Double.parseDouble(args[2]) : 0.0;
+
+    BenchmarkDriveStates.initializeHal();
+    LaunchMonteCarlo simulation =
+        new LaunchMonteCarlo(new ShotMapStore.Snapshot(ShotMap.load(file)), samples, robotSpeed);
+
+    System.out.printf(
+        "Shot map %s, %d samples per cell, robot at %.1f m/s, %d threads%n",
+        simulation.shots.shotMap.getVersion(),
+        samples,
+        robotSpeed,
+        Runtime.getRuntime().availableProcessors());
+
+    PrintWriter csv = null;
+    if (args.length > 3) {
+      csv = new PrintWriter(args[3], "UTF-8");
+      csv.println("launch_type,x_m,y_m,hit_probability,nominal_hit");
+    }
+
+    for (LaunchType type : LaunchType.values()) {
+      long start = System.nanoTime();
+      double[][] cells = simulation.simulate(type);
+      double seconds = (System.nanoTime() - start) / 1e9;
+      simulation.print(type, cells, seconds);
+      if (csv != null) simulation.write(csv, type, cells);
+    }
+
+    if (csv != null) {
+      csv.close();
+      System.out.println("Wrote " + args[3]);
+    }
+  }
+
+  /** {hit probability, nominal hit} for each cell, NaN for cells too close to the hub. */
+  private double[][] simulate(LaunchType type) {
+    double[][] cells = new double[rows * columns][];
+    IntStream.range(0, cells.length)
+        .parallel()
+        .forEach(cell -> cells[cell] = simulateCell(type, cell));
+    return cells;
+  }
+
+  private double[] simulateCell(LaunchType type, int cell) {
+    double x = MIN_X + (cell % columns) * CELL_SIZE;
+    double y = MIN_Y + (cell / columns) * CELL_SIZE;
+    if (Math.hypot(target.getX() - x, target.getY() - y) < MIN_DISTANCE) {
+      return new double[] {Double.NaN, Double.NaN};
+    }
+
+    // Seeded by cell so results don't depend on how the pool splits the work
+    SplittableRandom random = new SplittableRandom(SEED * 31 + cell);
+    LaunchRequest request = new LaunchRequest();
+    double[] solution = new double[ShootOnTheMoveTable.SOLUTION_LENGTH];
+
+    boolean nominal = shoot(type, x, y, 0, 0, null, request, solution);
+    int hits = 0;
+    for (int sample = 0; sample < samples; sample++) {
+      double direction = 2 * Math.PI * random.nextDouble();
+      double vx = robotSpeed * Math.cos(direction);
+      double vy = robotSpeed * Math.sin(direction);
+      if (shoot(type, x, y, vx, vy, random, request, solution)) hits++;
+    }
+    return new double[] {(double) hits / samples, nominal ? 1 : 0};
+  }
+
+  /**
+   * Computes a request from a noisy view of the robot, then flies the ball from the real robot.
+   *
+   * @param vx Field relative X velocity (m/s)
+   * @param vy Field relative Y velocity (m/s)
+   * @param random Noise source, or null for a noise-free shot
+   * @return whether the shot scores
+   */
+  private boolean shoot(
+      LaunchType type,
+      double x,
+      double y,
+      double vx,
+      double vy,
+      SplittableRandom random,
+      LaunchRequest request,
+      double[] solution) {
+    // Facing the hub, as it would be while aiming
+    double heading = Math.atan2(target.getY() - y, target.getX() - x);
+
+    double headingError = noise(random, HEADING_NOISE);
+    double estimatedHeading = heading + headingError;
+    double estimatedVx = vx + noise(random, VELOCITY_NOISE);
+    double estimatedVy = vy + noise(random, VELOCITY_NOISE);
+    double cos = Math.cos(estimatedHeading);
+    double sin = Math.sin(estimatedHeading);
+    LaunchCalculator.computeRequest(
+        target,
+        type,
+        SolverType.TABLE,
+        shots,
+        x + noise(random, POSE_NOISE),
+        y + noise(random, POSE_NOISE),
+        estimatedHeading,
+        estimatedVx * cos + estimatedVy * sin,
+        estimatedVy * cos - estimatedVx * sin,
+        0,
+        estimatedVx,
+        estimatedVy,
+        estimatedHeading,
+        solution,
+        request);
+
+    // The drivetrain turns its estimated heading to the request, so it is off by the estimate's
+    // error as well as by how closely it tracks
+    double launchHeading = request.getTargetRobotAngle() - headingError + noise(random, AIM_NOISE);
+    double hood = request.getHoodRotations() + noise(random, HOOD_NOISE);
+    double flywheel = request.getFlywheelRotationsPerSecond() + noise(random, FLYWHEEL_NOISE);
+
+    double elevation;
+    double speed;
+    if (type == LaunchType.MAPPED) {
+      elevation = BallFlight.launchElevation(hood);
+      speed = shots.shotMap.getLaunchSpeedRatio() * BallFlight.surfaceSpeed(flywheel);
+    } else {
+      elevation = Math.toRadians(90 - hood / HOOD_ROTATIONS_PER_DEGREE);
+      speed = BallFlight.surfaceSpeed(flywheel) / Math.sqrt(2);
+    }
+    double horizontal = speed * Math.cos(elevation);
+    return flies(
+        x + vx * LaunchCalculator.phaseDelay,
+        y + vy * LaunchCalculator.phaseDelay,
+        vx + horizontal * Math.cos(launchHeading),
+        vy + horizontal * Math.sin(launchHeading),
+        speed * Math.sin(elevation));
+  }
+
+  /**
+   * Flies a ball with {@link BallFlight#step}.
+   *
+   * @return whether it comes down through the hub opening without hitting the wall first
+   */
+  private boolean flies(double x, double y, double vx, double vy, double vz) {
+    double hubX = target.getX();
+    double hubY = target.getY();
+    double[] ball = new double[BallFlight.STATE_LENGTH];
+    double[] next = new double[BallFlight.STATE_LENGTH];
+    ball[BallFlight.X] = x;
+    ball[BallFlight.Y] = y;
+    ball[BallFlight.Z] = LAUNCH_HEIGHT;
+    ball[BallFlight.VX] = vx;
+    ball[BallFlight.VY] = vy;
+    ball[BallFlight.VZ] = vz;
+    double radius = Math.hypot(x - hubX, y - hubY);
+
+    for (double t = 0; t < BallFlight.MAX_FLIGHT_TIME; t += BallFlight.TIME_STEP) {
+      BallFlight.step(ball, next);
+      double z = ball[BallFlight.Z];
+      double nextZ = next[BallFlight.Z];
+      double nextRadius = Math.hypot(next[BallFlight.X] - hubX, next[BallFlight.Y] - hubY);
+
+      // Crossing into the hub below the rim is a wall hit
+      if (radius > OPENING_RADIUS && nextRadius <= OPENING_RADIUS && nextZ < RIM_HEIGHT) {
+        return false;
+      }
+      // Coming down through the rim height: in if clear of the edge, out otherwise
+      if (z >= RIM_HEIGHT && nextZ < RIM_HEIGHT) {
+        double fraction = (z - RIM_HEIGHT) / (z - nextZ);
+        double crossX = ball[BallFlight.X] + fraction * (next[BallFlight.X] - ball[BallFlight.X]);
+        double crossY = ball[BallFlight.Y] + fraction * (next[BallFlight.Y] - ball[BallFlight.Y]);
+        return Math.hypot(crossX - hubX, crossY - hubY) <= OPENING_RADIUS - BALL_RADIUS;
+      }
+      if (nextZ < 0) return false;
+
+      double[] swap = ball;
+      ball = next;
+      next = swap;
+      radius = nextRadius;
+    }
+    return false;
+  }
+
+  private static double noise(SplittableRandom random, double standardDeviation) {
+    return random == null ? 0 : standardDeviation * random.nextGaussian();
+  }
+
+  private void print(LaunchType type, double[][] cells, double seconds) {
+    System.out.printf("%n%s: percent scored, blue hub at H%n", type);
+    double total = 0;
+    int counted = 0;
+    int nominal = 0;
+    for (int row = rows - 1; row >= 0; row--) {
+      StringBuilder line =
+          new StringBuilder(String.format(Locale.ROOT, "%5.2f |", MIN_Y + row * CELL_SIZE));
+      for (int column = 0; column < columns; column++) {
+        double[] cell = cells[row * columns + column];
+        if (Double.isNaN(cell[0])) {
+          boolean hub =
+              Math.abs(MIN_X + column * CELL_SIZE - target.getX()) < CELL_SIZE / 2
+                  && Math.abs(MIN_Y + row * CELL_SIZE - target.getY()) < CELL_SIZE / 2;
+          line.append(hub ? "   H" : "   .");
+          continue;
+        }
+        line.append(String.format(Locale.ROOT, "%4.0f", 100 * cell[0]));
+        total += cell[0];
+        counted++;
+        if (cell[1] > 0) nominal++;
+      }
+      System.out.println(line);
+    }
+
+    StringBuilder axis = new StringBuilder("   x   ");
+    for (int column = 0; column < columns; column += 2) {
+      axis.append(String.format(Locale.ROOT, "%4.1f    ", MIN_X + column * CELL_SIZE));
+    }
+    System.out.println(axis);
+
+    long trajectories = (long) counted * (samples + 1);
+    System.out.printf(
+        "Mean %.1f%% scored; noise-free shot scores from %d of %d cells%n",
+        100 * total / counted, nominal, counted);
+    System.out.printf(
+        "%d trajectories in %.2f s (%.0f per second)%n",
+        trajectories, seconds, trajectories / seconds);
+  }
+
+  private void write(PrintWriter csv, LaunchType type, double[][] cells) {
+    for (int cell = 0; cell < cells.length; cell++) {
+      if (Double.isNaN(cells[cell][0])) continue;
+      csv.printf(
+          Locale.ROOT,
+          "%s,%.2f,%.2f,%.4f,%d%n",
+          type,
+          MIN_X + (cell % columns) * CELL_SIZE,
+          MIN_Y + (cell / columns) * CELL_SIZE,
+          cells[cell][0],
+          cells[cell][1] > 0 ? 1 : 0);
+    }
+  }
+}
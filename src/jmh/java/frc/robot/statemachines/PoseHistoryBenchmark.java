@@ -0,0 +1,76 @@
+package frc.robot.statemachines;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.interpolation.TimeInterpolatableBuffer;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Past-pose lookups against a full two seconds of 250 Hz odometry: {@link PoseHistory} against the
+ * {@link TimeInterpolatableBuffer} of poses that backs the drivetrain's {@code samplePoseAt}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PoseHistoryBenchmark {
+
+  private static final double PERIOD = 0.004;
+  private static final int SAMPLES = 500;
+  private static final int QUERIES = 1024;
+
+  private PoseHistory history;
+  private TimeInterpolatableBuffer<Pose2d> poseBuffer;
+  private final double[] queries = new double[QUERIES];
+  private final double[] out = new double[PoseHistory.SAMPLE_LENGTH];
+  private int query = 0;
+  private double nextTime;
+
+  @Setup
+  public void setup() {
+    history = new PoseHistory(SAMPLES);
+    poseBuffer = TimeInterpolatableBuffer.createBuffer(SAMPLES * PERIOD);
+
+    for (int i = 0; i < SAMPLES; i++) {
+      double t = i * PERIOD;
+      double heading = 0.8 * t;
+      double x = 2.0 + 1.5 * Math.cos(heading);
+      double y = 4.0 + 1.5 * Math.sin(heading);
+      history.add(t, x, y, heading, 1.2, 0.0, 0.8);
+      poseBuffer.addSample(t, new Pose2d(x, y, new Rotation2d(heading)));
+    }
+    nextTime = SAMPLES * PERIOD;
+
+    // Vision frames are typically 20-100 ms old
+    Random random = new Random(12);
+    for (int i = 0; i < QUERIES; i++) {
+      queries[i] = nextTime - 0.02 - 0.08 * random.nextDouble();
+    }
+  }
+
+  @Benchmark
+  public double poseHistorySample() {
+    history.sample(queries[query++ & (QUERIES - 1)], out);
+    return out[PoseHistory.X];
+  }
+
+  @Benchmark
+  public Optional<Pose2d> poseBufferSample() {
+    return poseBuffer.getSample(queries[query++ & (QUERIES - 1)]);
+  }
+
+  /** One odometry-thread write into a full history. */
+  @Benchmark
+  public void poseHistoryAdd() {
+    history.add(nextTime, 1.0, 2.0, 0.5, 1.2, 0.0, 0.8);
+    nextTime += PERIOD;
+  }
+}
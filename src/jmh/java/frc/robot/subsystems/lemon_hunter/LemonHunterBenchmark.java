@@ -0,0 +1,59 @@
+package frc.robot.subsystems.lemon_hunter;
+
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import frc.robot.BenchmarkDriveStates;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Lemon clustering and overlap detection for a sparse and a crowded field. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LemonHunterBenchmark {
+
+  @Param({"10", "40"})
+  public int lemonCount;
+
+  private LemonHunterSubsystem lemonHunter;
+  private final List<Pose3d> lemons = new ArrayList<>();
+
+  @Setup
+  public void setup() {
+    BenchmarkDriveStates.initializeHal();
+    lemonHunter = new LemonHunterSubsystem();
+
+    // Lemons piled in a few groups across the neutral zone
+    Random random = new Random(2026);
+    lemons.clear();
+    for (int i = 0; i < lemonCount; i++) {
+      int pile = i % 3;
+      lemons.add(
+          new Pose3d(
+              7.0 + pile * 0.8 + random.nextGaussian() * 0.3,
+              3.0 + pile * 1.0 + random.nextGaussian() * 0.3,
+              0.075,
+              Rotation3d.kZero));
+    }
+  }
+
+  @Benchmark
+  public List<Pose3d> findLargestCluster() {
+    return lemonHunter.findLargestCluster(lemons, 0.5);
+  }
+
+  @Benchmark
+  public List<int[]> detectOverlaps() {
+    return lemonHunter.detectOverlaps(lemons, 0.15);
+  }
+}
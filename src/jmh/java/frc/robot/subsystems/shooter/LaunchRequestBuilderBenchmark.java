@@ -0,0 +1,67 @@
+package frc.robot.subsystems.shooter;
+
+import static edu.wpi.first.units.Units.Meters;
+
+import frc.robot.BenchmarkDriveStates;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of filling a launch request at close, mid and long range, per builder, and of the parabolic
+ * solver alone with and without its memo table.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LaunchRequestBuilderBenchmark {
+
+  @Param({"2.0", "4.0", "5.5"})
+  public double distance;
+
+  private final double angularVelocity = 0.3;
+  private final double angle = Math.toRadians(15);
+
+  private ParabolicLaunchRequestBuilder parabolic;
+  private MappedLaunchRequestBuilder mapped;
+  private ParabolicLaunchSolver solver;
+  private final LaunchRequest request = new LaunchRequest();
+
+  @Setup
+  public void setup() {
+    BenchmarkDriveStates.initializeHal();
+    parabolic = ParabolicLaunchRequestBuilder.getInstance();
+    mapped = MappedLaunchRequestBuilder.getInstance();
+    solver =
+        new ParabolicLaunchSolver(
+            ShooterConstants.HUB_HEIGHT.in(Meters), ShooterConstants.OPTIMAL_HUB_ENTRY_SLOPE, true);
+  }
+
+  @Benchmark
+  public LaunchRequest parabolic() {
+    return parabolic.updateLaunchRequest(
+        ShotMap.BUILT_IN, false, distance, angularVelocity, angle, distance, request);
+  }
+
+  @Benchmark
+  public boolean parabolicSolveExact() {
+    return solver.solveExact(distance, request);
+  }
+
+  @Benchmark
+  public boolean parabolicSolveMemoized() {
+    return solver.solve(distance, request);
+  }
+
+  @Benchmark
+  public LaunchRequest mapped() {
+    return mapped.updateLaunchRequest(
+        ShotMap.BUILT_IN, false, distance, angularVelocity, angle, distance, request);
+  }
+}
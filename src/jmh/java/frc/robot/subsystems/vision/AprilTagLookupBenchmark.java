@@ -0,0 +1,69 @@
+package frc.robot.subsystems.vision;
+
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-tag lookups done while evaluating a result: the tag pose and distance from the layout
+ * against {@link AprilTagTable}, and the camera transform inverted per result against cached.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AprilTagLookupBenchmark {
+
+  private final Pose3d robot = new Pose3d(4.0, 3.0, 0.2, Rotation3d.kZero);
+
+  private AprilTagTable table;
+  private int[] ids;
+  private String cameraName;
+  private Transform3d cachedCameraToRobot;
+
+  @Setup
+  public void setup() {
+    table = new AprilTagTable(VisionConstants.FIELD_LAYOUT);
+    ids = VisionConstants.FIELD_LAYOUT.getTags().stream().mapToInt(tag -> tag.ID).toArray();
+    cameraName = VisionConstants.cameraTransformMap.keySet().iterator().next();
+    cachedCameraToRobot = VisionConstants.cameraTransformMap.get(cameraName).inverse();
+  }
+
+  @Benchmark
+  public double layoutDistance() {
+    double total = 0;
+    for (int id : ids) {
+      var pose = VisionConstants.FIELD_LAYOUT.getTagPose(id);
+      if (pose.isPresent()) {
+        total += pose.get().getTranslation().getDistance(robot.getTranslation());
+      }
+    }
+    return total;
+  }
+
+  @Benchmark
+  public double tableDistance() {
+    double total = 0;
+    for (int id : ids) {
+      if (table.has(id)) total += table.distance(id, robot.getX(), robot.getY(), robot.getZ());
+    }
+    return total;
+  }
+
+  @Benchmark
+  public Transform3d cameraTransformPerResult() {
+    return VisionConstants.cameraTransformMap.get(cameraName).inverse();
+  }
+
+  @Benchmark
+  public Transform3d cameraTransformCached() {
+    return cachedCameraToRobot;
+  }
+}
@@ -0,0 +1,59 @@
+package frc.robot.subsystems.vision;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Clustering cost for one vision cycle. 3 estimates is a normal cycle, 30 a busy one, and 300 the
+ * backlog that arrives after a loop overrun.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VisionClusteringBenchmark {
+
+  @Param({"3", "30", "300"})
+  public int estimateCount;
+
+  private final VisionEstimateBuffer estimates =
+      new VisionEstimateBuffer(VisionConstants.MAX_ESTIMATES_PER_CYCLE);
+  private final VisionClusterer clusterer =
+      new VisionClusterer(VisionConstants.MAX_ESTIMATES_PER_CYCLE);
+  private final VisionClusterBuffer clusters =
+      new VisionClusterBuffer(VisionConstants.MAX_ESTIMATES_PER_CYCLE);
+
+  @Setup
+  public void setup() {
+    // Estimates scattered around a few true poses, as several cameras seeing the robot would give
+    Random random = new Random(2026);
+    estimates.size = 0;
+    for (int i = 0; i < estimateCount; i++) {
+      int pose = i % 4;
+      estimates.add(
+          3.0 + pose * 2.5 + random.nextGaussian() * 0.1,
+          4.0 + pose * 0.5 + random.nextGaussian() * 0.1,
+          random.nextGaussian() * 0.05,
+          10.0 + i * 0.001,
+          i % 4,
+          2,
+          0.2,
+          0.4,
+          3.0,
+          0.05);
+    }
+  }
+
+  @Benchmark
+  public VisionClusterBuffer cluster() {
+    clusterer.cluster(estimates, 0.5, Math.toRadians(15), clusters);
+    return clusters;
+  }
+}
@@ -0,0 +1,111 @@
+package frc.robot.subsystems.vision;
+
+import edu.wpi.first.apriltag.AprilTag;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import frc.robot.BenchmarkDriveStates;
+import frc.robot.statemachines.DriveState;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.photonvision.targeting.MultiTargetPNPResult;
+import org.photonvision.targeting.PhotonPipelineResult;
+import org.photonvision.targeting.PnpResult;
+
+/**
+ * One full vision cycle through {@link VisionSubsystem#replayCycle}: evaluation, jump detection,
+ * clustering and submission, with every camera reporting a multi-tag result of the same robot pose.
+ * The submitted estimates are drained from {@link DriveState} each invocation, as the drivetrain
+ * would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VisionEvaluationBenchmark {
+
+  private static final double CYCLE_TIME = 100.0;
+
+  // Results from each camera per cycle; more than one models a backlog after a slow loop
+  @Param({"1", "4"})
+  public int resultsPerCamera;
+
+  private final Pose2d robotPose = new Pose2d(4.0, 3.0, Rotation2d.fromDegrees(30));
+  private final ChassisSpeeds robotSpeeds = new ChassisSpeeds(1.0, 0.5, 0.2);
+
+  private VisionSubsystem vision;
+  private final DriveState driveState = DriveState.getInstance();
+  private final List<PhotonPipelineResult> results = new ArrayList<>();
+  private final VisionSubsystem.VisionMeasurement[] drained =
+      VisionSubsystem.VisionMeasurement.buffer(VisionConstants.VISION_QUEUE_CAPACITY);
+  private int[] resultCameras;
+
+  @Setup
+  public void setup() {
+    BenchmarkDriveStates.initializeHal();
+    vision = new VisionSubsystem(true);
+
+    // Fill the pose history so jump detection interpolates instead of falling back
+    for (int i = 50; i >= 0; i--) {
+      double time = CYCLE_TIME - i * 0.02;
+      BenchmarkDriveStates.publish(time, robotPose, robotSpeeds);
+      vision.replayCycle(time, 0, true, List.of(), new int[0]);
+    }
+    drain(null);
+
+    List<Short> tags = new ArrayList<>();
+    for (AprilTag tag : VisionConstants.FIELD_LAYOUT.getTags()) {
+      if (tags.size() < 3) tags.add((short) tag.ID);
+    }
+
+    Pose3d robot = new Pose3d(robotPose);
+    resultCameras = new int[vision.cameraCount() * resultsPerCamera];
+    for (int camera = 0; camera < vision.cameraCount(); camera++) {
+      Transform3d robotToCamera = VisionConstants.cameraTransformMap.get(vision.cameraName(camera));
+      Pose3d cameraPose = robot.transformBy(robotToCamera);
+      Transform3d fieldToCamera =
+          new Transform3d(cameraPose.getTranslation(), cameraPose.getRotation());
+
+      for (int k = 0; k < resultsPerCamera; k++) {
+        long captureMicros = (long) ((CYCLE_TIME - 0.05 + k * 0.01) * 1e6);
+        PnpResult pnp = new PnpResult(fieldToCamera, fieldToCamera, 0.05, 0.1, 0.2);
+        PhotonPipelineResult result =
+            new PhotonPipelineResult(
+                k,
+                captureMicros,
+                captureMicros + 5000,
+                0,
+                List.of(),
+                Optional.of(new MultiTargetPNPResult(pnp, tags)));
+        result.setReceiveTimestampMicros(captureMicros + 10000);
+        resultCameras[results.size()] = camera;
+        results.add(result);
+      }
+    }
+  }
+
+  @Benchmark
+  public void cycle(Blackhole blackhole) {
+    vision.replayCycle(CYCLE_TIME, 0, true, results, resultCameras);
+    drain(blackhole);
+  }
+
+  private void drain(Blackhole blackhole) {
+    for (int tier = 1; tier <= 3; tier++) {
+      int count = driveState.drainVisionEstimates(tier, drained);
+      if (blackhole != null) blackhole.consume(count);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package frc.robot.subsystems.vision;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Fusing one cluster with each {@link VisionClusterFuser} mode. The cluster holds tight multi-tag
+ * estimates plus one single-tag estimate that passed the cluster gates 0.3 m off, which is the
+ * case the robust modes are for and makes them iterate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VisionFusionBenchmark {
+
+  @Param({"3", "10", "20"})
+  public int clusterSize;
+
+  // VisionClusterFuser.MEAN, HUBER, TUKEY
+  @Param({"0", "1", "2"})
+  public int fusionMode;
+
+  private final VisionEstimateBuffer estimates = new VisionEstimateBuffer(64);
+  private final VisionClusterBuffer clusters = new VisionClusterBuffer(64);
+  private final VisionClusterFuser fuser = new VisionClusterFuser(64);
+
+  @Setup
+  public void setup() {
+    Random random = new Random(2026);
+    estimates.size = 0;
+    clusters.clear();
+    for (int i = 0; i < clusterSize; i++) {
+      boolean outlier = i == clusterSize - 1;
+      estimates.add(
+          4.0 + (outlier ? 0.3 : random.nextGaussian() * 0.02),
+          3.0 + (outlier ? 0.1 : random.nextGaussian() * 0.02),
+          0.5 + (outlier ? 0.1 : random.nextGaussian() * 0.01),
+          10.0 + i * 0.001,
+          i % 4,
+          outlier ? 1 : 3,
+          outlier ? 0.05 : 0.03,
+          outlier ? 0.3 : 0.1,
+          3.0,
+          0.05);
+      if (i == 0) clusters.startCluster(i, i % 4);
+      else clusters.addMember(i, i % 4);
+    }
+
+    fuser.configure(
+        fusionMode,
+        VisionConstants.ROBUST_MAX_ITERATIONS,
+        VisionConstants.ROBUST_CONVERGENCE_TOLERANCE,
+        VisionConstants.HUBER_THRESHOLD,
+        VisionConstants.TUKEY_CUTOFF,
+        VisionConstants.TRUST_SCALING_FACTOR);
+  }
+
+  @Benchmark
+  public double fuse() {
+    fuser.fuse(estimates, clusters, 0);
+    return clusters.fusedX[0];
+  }
+}
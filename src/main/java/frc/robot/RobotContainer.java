@@ -4,13 +4,12 @@
 
 package frc.robot;
 
-import static edu.wpi.first.units.Units.RadiansPerSecond;
-
 import com.ctre.phoenix6.SignalLogger;
 import com.ctre.phoenix6.swerve.SwerveRequest;
 import com.pathplanner.lib.auto.AutoBuilder;
 import com.pathplanner.lib.auto.NamedCommands;
 import edu.wpi.first.epilogue.Logged;
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
@@ -21,6 +20,7 @@ import edu.wpi.first.wpilibj2.command.button.RobotModeTriggers;
 import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine.Direction;
 import frc.robot.statemachines.DriveState;
 import frc.robot.statemachines.LaunchState;
+import frc.robot.statemachines.ShotMapStore;
 import frc.robot.subsystems.drive.DriveConstants;
 import frc.robot.subsystems.drive.DrivePreferences;
 import frc.robot.subsystems.drive.DrivetrainSubsystem;
@@ -35,7 +35,8 @@ import frc.robot.subsystems.vision.VisionSubsystem;
 
 @Logged
 public class RobotContainer {
-  private final Telemetry logger = new Telemetry(DriveConstants.MAX_DRIVE_SPEED);
+  private final Telemetry logger =
+      new Telemetry(DriveConstants.MAX_DRIVE_SPEED, DriveConstants.TELEMETRY_PUBLISH_FREQUENCY);
 
   private final CommandXboxController driverJoystick = new CommandXboxController(0);
 
@@ -66,19 +67,22 @@ public class RobotContainer {
   private final DriveState driveState = DriveState.getInstance();
   private final LaunchState launchState = LaunchState.getInstance();
 
+  @Logged(name = "Shot Map")
+  private final ShotMapStore shotMapStore = ShotMapStore.getInstance();
+
   private final Command driveAndLaunchCommand =
-      drivetrain
-          .applyRequest(() -> getDriveAndLaunchRequest())
+      launchState
+          .subscribedWhile(drivetrain.applyRequest(() -> getDriveAndLaunchRequest()))
           // .alongWith(shooter.spinFlywheelCommand());
           .alongWith(shooter.spinFlywheelRanged())
           .withName("Drive and Launch");
 
   private final Command autonShootCommand =
-      drivetrain
-          .applyRequest(() -> getDriveAndLaunchRequest())
+      launchState
+          .subscribedWhile(drivetrain.applyRequest(() -> getDriveAndLaunchRequest()))
           // .alongWith(shooter.spinFlywheelCommand());
           .alongWith(shooter.spinFlywheelRanged())
-          .alongWith(new WaitCommand(0.5).andThen(indexer.startFullIndexingNoPID()));
+          .alongWith(new WaitCommand(0.5).andThen(feedWhileLaunchFeasible()));
 
   private final Command stopShotCommand =
       indexer
@@ -179,10 +183,17 @@ public class RobotContainer {
     SmartDashboard.putData(shooter.decreaseFlywheelCommand());
     SmartDashboard.putData(shooter.increaseHoodCommand());
     SmartDashboard.putData(shooter.decreaseHoodCommand());
+    SmartDashboard.putData(shooter.captureShotsCommand());
+    SmartDashboard.putData(shooter.markShotCommand(true));
+    SmartDashboard.putData(shooter.markShotCommand(false));
     SmartDashboard.putData(drivetrain.wheelRadiusCharacterization());
 
     driverJoystick.a().whileTrue(indexer.startFullIndexingNoPID());
 
+    // Mark the last captured shot made or missed
+    operatorJoystick.povUp().onTrue(shooter.markShotCommand(true));
+    operatorJoystick.povDown().onTrue(shooter.markShotCommand(false));
+
     driverJoystick.b().onTrue(intake.testRollerNoPID()).onFalse(intake.stopRollerNoPID());
 
     driverJoystick.x().onTrue(intake.startRollerNoPID()).onFalse(intake.stopRollerNoPID());
@@ -219,7 +230,7 @@ public class RobotContainer {
 
     operatorJoystick
         .rightTrigger()
-        .whileTrue(indexer.startFullIndexingNoPID().withName("Lock Wheels and Index"));
+        .whileTrue(feedWhileLaunchFeasible().withName("Lock Wheels and Index"));
 
     operatorJoystick
         .leftTrigger()
@@ -283,6 +294,7 @@ public class RobotContainer {
         "Shooter/SysIdReverseQuasistatic", shooter.sysIdQuasistatic(Direction.kReverse));
     SmartDashboard.putData("Shooter/SysIdForwardDynamic", shooter.sysIdDynamic(Direction.kForward));
     SmartDashboard.putData("Shooter/SysIdReverseDynamic", shooter.sysIdDynamic(Direction.kReverse));
+    SmartDashboard.putData("Shooter/Reload Shot Map", shotMapStore.reloadCommand());
     SmartDashboard.putData("Start Logger", Commands.runOnce(SignalLogger::start));
     SmartDashboard.putData("Stop Logger", Commands.runOnce(SignalLogger::stop));
   }
@@ -291,18 +303,27 @@ public class RobotContainer {
     return autoChooser.getSelected();
   }
 
+  /**
+   * Runs the indexer into the shooter, pausing whenever the shooter is holding its targets through
+   * an infeasible ranged shot so no ball is launched on it.
+   */
+  private Command feedWhileLaunchFeasible() {
+    return Commands.repeatingSequence(
+        Commands.waitUntil(shooter::isLaunchFeasible),
+        indexer.startFullIndexingNoPID().onlyWhile(shooter::isLaunchFeasible));
+  }
+
   private SwerveRequest.FieldCentric getDriveAndLaunchRequest() {
     LaunchRequest launchRequest = launchState.getLaunchRequest();
     double rotationalRate =
-        launchRequest.getTargetRobotAngularVelocity().in(RadiansPerSecond)
+        launchRequest.getTargetRobotAngularVelocity()
             + DrivePreferences.autoAim_kP.getValue()
-                * launchRequest
-                    .getTargetRobotAngle()
-                    .minus(driveState.getCurrentDriveStats().Pose.getRotation())
-                    .getRadians()
+                * MathUtil.angleModulus(
+                    launchRequest.getTargetRobotAngle()
+                        - driveState.getCurrentSnapshot().getHeading())
             + DrivePreferences.autoAim_kD.getValue()
-                * (launchRequest.getTargetRobotAngularVelocity().in(RadiansPerSecond)
-                    - driveState.getFieldVelocity().omegaRadiansPerSecond);
+                * (launchRequest.getTargetRobotAngularVelocity()
+                    - driveState.getCurrentSnapshot().getOmega());
     return DriveConstants.DEFAULT_DRIVE_REQUEST
         .withVelocityX(
             -1
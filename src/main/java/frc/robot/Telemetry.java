@@ -13,27 +13,82 @@ import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.networktables.StringPublisher;
 import edu.wpi.first.networktables.StructArrayPublisher;
 import edu.wpi.first.networktables.StructPublisher;
+import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.smartdashboard.Mechanism2d;
 import edu.wpi.first.wpilibj.smartdashboard.MechanismLigament2d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj.util.Color;
 import edu.wpi.first.wpilibj.util.Color8Bit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Telemetry {
   private final double MaxSpeed;
 
+  /*
+   * Decimated mode: the odometry thread writes the hoot log and copies the state into a slot of a
+   * triple buffer; a notifier publishes the newest slot to NetworkTables at a lower rate.
+   */
+  private static final int SLOT_INDEX_MASK = 0b11;
+  private static final int SLOT_FRESH = 0b100;
+
+  private final boolean m_decimated;
+  private final SwerveDriveState[] m_slots = new SwerveDriveState[3];
+  /* Slot being filled (odometry thread only) and slot being published (notifier only) */
+  private int m_backSlot = 0;
+  private int m_frontSlot = 1;
+  /* Slot handed between the two threads, with SLOT_FRESH set when it holds an unpublished state */
+  private final AtomicInteger m_exchange = new AtomicInteger(2);
+  private final Notifier m_publisher;
+
   /**
-   * Construct a telemetry object, with the specified max speed of the robot
+   * Construct a telemetry object, with the specified max speed of the robot. Everything is
+   * published on the odometry thread for every state.
    *
    * @param maxSpeed Maximum speed in meters per second
    */
   public Telemetry(double maxSpeed) {
+    this(maxSpeed, 0);
+  }
+
+  /**
+   * Construct a telemetry object that publishes to NetworkTables at a lower rate than odometry.
+   *
+   * <p>The hoot log is still written for every state on the odometry thread. NetworkTables, the
+   * Field2d pose and the module Mechanism2ds are published from a separate notifier with the newest
+   * state, so the odometry thread only pays for a copy.
+   *
+   * @param maxSpeed Maximum speed in meters per second
+   * @param publishFrequency NetworkTables publish rate in Hz, or 0 to publish every state on the
+   *     odometry thread
+   */
+  public Telemetry(double maxSpeed, double publishFrequency) {
     MaxSpeed = maxSpeed;
 
     /* Set up the module state Mechanism2d telemetry */
     for (int i = 0; i < 4; ++i) {
       SmartDashboard.putData("Module " + i, m_moduleMechanisms[i]);
     }
+
+    m_decimated = publishFrequency > 0;
+    if (m_decimated) {
+      for (int i = 0; i < m_slots.length; ++i) {
+        m_slots[i] = new SwerveDriveState();
+        m_slots[i].Speeds = new ChassisSpeeds();
+        m_slots[i].ModuleStates = new SwerveModuleState[4];
+        m_slots[i].ModuleTargets = new SwerveModuleState[4];
+        m_slots[i].ModulePositions = new SwerveModulePosition[4];
+        for (int j = 0; j < 4; ++j) {
+          m_slots[i].ModuleStates[j] = new SwerveModuleState();
+          m_slots[i].ModuleTargets[j] = new SwerveModuleState();
+          m_slots[i].ModulePositions[j] = new SwerveModulePosition();
+        }
+      }
+      m_publisher = new Notifier(this::publishLatest);
+      m_publisher.setName("Drive Telemetry");
+      m_publisher.startPeriodic(1.0 / publishFrequency);
+    } else {
+      m_publisher = null;
+    }
   }
 
   /* What to publish over networktables for telemetry */
@@ -103,16 +158,44 @@ public class Telemetry {
 
   /** Accept the swerve drive state and telemeterize it to SmartDashboard and SignalLogger. */
   public void telemeterize(SwerveDriveState state) {
-    /* Telemeterize the swerve drive state */
-    drivePose.set(state.Pose);
-    driveSpeeds.set(state.Speeds);
-    driveModuleStates.set(state.ModuleStates);
-    driveModuleTargets.set(state.ModuleTargets);
-    driveModulePositions.set(state.ModulePositions);
-    driveTimestamp.set(state.Timestamp);
-    driveOdometryFrequency.set(1.0 / state.OdometryPeriod);
+    log(state);
+    if (m_decimated) {
+      handOff(state);
+    } else {
+      publish(state);
+    }
+  }
+
+  /** Copy the state into the back slot and swap it into the exchange. Odometry thread only. */
+  private void handOff(SwerveDriveState state) {
+    SwerveDriveState slot = m_slots[m_backSlot];
+    slot.Pose = state.Pose;
+    slot.Speeds.vxMetersPerSecond = state.Speeds.vxMetersPerSecond;
+    slot.Speeds.vyMetersPerSecond = state.Speeds.vyMetersPerSecond;
+    slot.Speeds.omegaRadiansPerSecond = state.Speeds.omegaRadiansPerSecond;
+    for (int i = 0; i < 4; ++i) {
+      slot.ModuleStates[i].speedMetersPerSecond = state.ModuleStates[i].speedMetersPerSecond;
+      slot.ModuleStates[i].angle = state.ModuleStates[i].angle;
+      slot.ModuleTargets[i].speedMetersPerSecond = state.ModuleTargets[i].speedMetersPerSecond;
+      slot.ModuleTargets[i].angle = state.ModuleTargets[i].angle;
+      slot.ModulePositions[i].distanceMeters = state.ModulePositions[i].distanceMeters;
+      slot.ModulePositions[i].angle = state.ModulePositions[i].angle;
+    }
+    slot.Timestamp = state.Timestamp;
+    slot.OdometryPeriod = state.OdometryPeriod;
 
-    /* Also write to log file */
+    m_backSlot = m_exchange.getAndSet(m_backSlot | SLOT_FRESH) & SLOT_INDEX_MASK;
+  }
+
+  /** Publish the newest handed-off state, if there is one. Runs on the publisher notifier. */
+  private void publishLatest() {
+    if ((m_exchange.get() & SLOT_FRESH) == 0) return;
+    m_frontSlot = m_exchange.getAndSet(m_frontSlot) & SLOT_INDEX_MASK;
+    publish(m_slots[m_frontSlot]);
+  }
+
+  /** Write the state to the hoot log. */
+  private void log(SwerveDriveState state) {
     SignalLogger.writeStruct("DriveState/Pose", Pose2d.struct, state.Pose);
     SignalLogger.writeStruct("DriveState/Speeds", ChassisSpeeds.struct, state.Speeds);
     SignalLogger.writeStructArray(
@@ -122,6 +205,18 @@ public class Telemetry {
     SignalLogger.writeStructArray(
         "DriveState/ModulePositions", SwerveModulePosition.struct, state.ModulePositions);
     SignalLogger.writeDouble("DriveState/OdometryPeriod", state.OdometryPeriod, "seconds");
+  }
+
+  /** Publish the state to NetworkTables, the Field2d pose and the module Mechanism2ds. */
+  private void publish(SwerveDriveState state) {
+    /* Telemeterize the swerve drive state */
+    drivePose.set(state.Pose);
+    driveSpeeds.set(state.Speeds);
+    driveModuleStates.set(state.ModuleStates);
+    driveModuleTargets.set(state.ModuleTargets);
+    driveModulePositions.set(state.ModulePositions);
+    driveTimestamp.set(state.Timestamp);
+    driveOdometryFrequency.set(1.0 / state.OdometryPeriod);
 
     /* Telemeterize the pose to a Field2d */
     fieldTypePub.set("Field2d");
@@ -4,9 +4,6 @@
 
 package frc.robot.commands;
 
-import static edu.wpi.first.units.Units.RadiansPerSecond;
-
-import edu.wpi.first.units.measure.AngularVelocity;
 import edu.wpi.first.wpilibj2.command.Command;
 import frc.robot.statemachines.LaunchState;
 import frc.robot.subsystems.drive.DriveConstants;
@@ -33,14 +30,16 @@ public class DriveAndLaunch extends Command {
 
   // Called when the command is initially scheduled.
   @Override
-  public void initialize() {}
+  public void initialize() {
+    LaunchState.getInstance().subscribe();
+  }
 
   // Called every time the scheduler runs while the command is scheduled.
   @Override
   public void execute() {
     LaunchRequest launchRequest = LaunchState.getInstance().getLaunchRequest();
 
-    AngularVelocity turnVelocity = launchRequest.getTargetRobotAngularVelocity();
+    double turnVelocity = launchRequest.getTargetRobotAngularVelocity();
 
     drivetrain.applyRequest(
         () ->
@@ -55,15 +54,15 @@ public class DriveAndLaunch extends Command {
                         * Math.copySign(
                             Math.pow(ySupplier.getAsDouble(), 2), ySupplier.getAsDouble())
                         * DriveConstants.MAX_DRIVE_SPEED) // Drive left with negative X (left)
-                .withRotationalRate(
-                    turnVelocity.in(
-                        RadiansPerSecond)) // Drive counterclockwise with negative X (left)
+                .withRotationalRate(turnVelocity) // Drive counterclockwise with negative X (left)
                 .withDeadband(DriveConstants.MAX_DRIVE_SPEED * 0.1));
   }
 
   // Called once the command ends or is interrupted.
   @Override
-  public void end(boolean interrupted) {}
+  public void end(boolean interrupted) {
+    LaunchState.getInstance().unsubscribe();
+  }
 
   // Returns true when the command should end.
   @Override
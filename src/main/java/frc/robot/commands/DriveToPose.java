@@ -4,6 +4,7 @@ import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.wpilibj2.command.Command;
 import frc.robot.statemachines.DriveState;
+import frc.robot.statemachines.DriveStateSnapshot;
 import frc.robot.subsystems.drive.DriveConstants;
 import frc.robot.subsystems.drive.DrivetrainSubsystem;
 
@@ -32,17 +33,14 @@ public class DriveToPose extends Command {
   // Called every time the scheduler runs while the command is scheduled.
   @Override
   public void execute() {
+    DriveStateSnapshot driveStats = driveState.getCurrentSnapshot();
     drivetrain.setControl(
         DriveConstants.AUTO_DRIVE_REQUEST
-            .withVelocityX(
-                xControl.calculate(
-                    driveState.getCurrentDriveStats().Pose.getX(), targetPose.getX()))
-            .withVelocityY(
-                yControl.calculate(
-                    driveState.getCurrentDriveStats().Pose.getY(), targetPose.getY()))
+            .withVelocityX(xControl.calculate(driveStats.getX(), targetPose.getX()))
+            .withVelocityY(yControl.calculate(driveStats.getY(), targetPose.getY()))
             .withRotationalRate(
                 rotControl.calculate(
-                    driveState.getCurrentDriveStats().Pose.getRotation().getDegrees(),
+                    Math.toDegrees(driveStats.getHeading()),
                     targetPose.getRotation().getDegrees())));
   }
 
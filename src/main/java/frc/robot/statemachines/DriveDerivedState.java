@@ -0,0 +1,98 @@
+package frc.robot.statemachines;
+
+import edu.wpi.first.math.MathUtil;
+
+/**
+ * Values derived from the drive state latched each loop: field-relative velocity, speed,
+ * acceleration and heading rate.
+ *
+ * <p>These are computed once, when {@link DriveState#latchLoopSnapshot()} latches a new snapshot,
+ * and read through primitive getters, so any number of consumers can use them each loop without
+ * allocating or repeating the math. Main thread only, like the snapshots they come from.
+ *
+ * <p>Accelerations and heading rate are differences between this loop's and the previous loop's
+ * snapshots. If no new odometry sample arrived between loops, the last values are held.
+ */
+public final class DriveDerivedState {
+
+  private boolean valid = false;
+
+  // Field-relative velocity (m/s) and its magnitude
+  private double fieldVx;
+  private double fieldVy;
+  private double speed;
+
+  // Field-relative acceleration (m/s^2) and its magnitude
+  private double fieldAx;
+  private double fieldAy;
+  private double acceleration;
+
+  // Rate of change of the field heading, and of the measured angular velocity
+  private double headingRate;
+  private double angularAcceleration;
+
+  /** Recomputes every value from this loop's and the previous loop's snapshots. */
+  void update(DriveStateSnapshot current, DriveStateSnapshot previous) {
+    valid = current.isValid();
+    if (!valid) return;
+
+    fieldVx = current.getFieldVx();
+    fieldVy = current.getFieldVy();
+    speed = Math.hypot(fieldVx, fieldVy);
+
+    if (!previous.isValid()) return;
+    double dt = current.getTimestamp() - previous.getTimestamp();
+    if (dt <= 0) return;
+
+    fieldAx = (fieldVx - previous.getFieldVx()) / dt;
+    fieldAy = (fieldVy - previous.getFieldVy()) / dt;
+    acceleration = Math.hypot(fieldAx, fieldAy);
+    headingRate = MathUtil.angleModulus(current.getHeading() - previous.getHeading()) / dt;
+    angularAcceleration = (current.getOmega() - previous.getOmega()) / dt;
+  }
+
+  /** Whether a snapshot has been latched yet. */
+  public boolean isValid() {
+    return valid;
+  }
+
+  /** Field-relative X velocity (m/s). */
+  public double getFieldVx() {
+    return fieldVx;
+  }
+
+  /** Field-relative Y velocity (m/s). */
+  public double getFieldVy() {
+    return fieldVy;
+  }
+
+  /** Translational speed (m/s). */
+  public double getSpeed() {
+    return speed;
+  }
+
+  /** Field-relative X acceleration (m/s^2). */
+  public double getFieldAx() {
+    return fieldAx;
+  }
+
+  /** Field-relative Y acceleration (m/s^2). */
+  public double getFieldAy() {
+    return fieldAy;
+  }
+
+  /** Translational acceleration magnitude (m/s^2). */
+  public double getAcceleration() {
+    return acceleration;
+  }
+
+  /** Rate of change of the field heading between loops, including pose corrections (rad/s). */
+  public double getHeadingRate() {
+    return headingRate;
+  }
+
+  /** Rate of change of the measured angular velocity (rad/s^2). */
+  public double getAngularAcceleration() {
+    return angularAcceleration;
+  }
+}
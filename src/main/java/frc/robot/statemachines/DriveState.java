@@ -1,28 +1,45 @@
 package frc.robot.statemachines;
 
 import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
-import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.RobotController;
+import frc.robot.subsystems.vision.VisionConstants;
+import frc.robot.subsystems.vision.VisionLatencyStats;
 import frc.robot.subsystems.vision.VisionSubsystem.VisionMeasurement;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class DriveState {
 
   private static DriveState single_instance = null;
 
-  private HashMap<Integer, ConcurrentLinkedQueue<VisionMeasurement>> concurrentQueueMap;
+  // About two seconds of odometry at 250 Hz
+  private static final int POSE_HISTORY_SAMPLES = 500;
 
-  private SwerveDriveState previousDriveStats = new SwerveDriveState();
-  private SwerveDriveState currentDriveStats = new SwerveDriveState();
+  // Vision estimates waiting for the drivetrain, indexed by cameras-used tier (1-3)
+  private final MpscRingBuffer<VisionMeasurement>[] visionQueues;
 
+  // Latest odometry sample, written by the odometry thread at full rate
+  private final DriveStateBuffer odometryBuffer = new DriveStateBuffer();
+
+  // Every odometry sample in the last couple of seconds, also written by the odometry thread
+  private final PoseHistory poseHistory = new PoseHistory(POSE_HISTORY_SAMPLES);
+
+  // Samples latched at the start of this and the previous main loop; main thread only
+  private DriveStateSnapshot previousSnapshot = new DriveStateSnapshot();
+  private DriveStateSnapshot currentSnapshot = new DriveStateSnapshot();
+  private final DriveDerivedState derivedState = new DriveDerivedState();
+
+  // Vision latency from frame capture to the pose estimator, per camera
+  private final VisionLatencyStats visionLatencyStats =
+      new VisionLatencyStats(VisionConstants.cameraTransformMap.size());
+
+  @SuppressWarnings("unchecked")
   private DriveState() {
-    concurrentQueueMap = new HashMap<Integer, ConcurrentLinkedQueue<VisionMeasurement>>();
-    concurrentQueueMap.put(1, new ConcurrentLinkedQueue<VisionMeasurement>());
-    concurrentQueueMap.put(2, new ConcurrentLinkedQueue<VisionMeasurement>());
-    concurrentQueueMap.put(3, new ConcurrentLinkedQueue<VisionMeasurement>());
+    visionQueues = new MpscRingBuffer[4];
+    for (int tier = 1; tier <= 3; tier++) {
+      visionQueues[tier] =
+          new MpscRingBuffer<>(VisionConstants.VISION_QUEUE_CAPACITY, VisionMeasurement::new);
+    }
   }
 
   public static synchronized DriveState getInstance() {
@@ -35,47 +52,144 @@ public class DriveState {
     return DriverStation.isDSAttached() ? DriverStation.getAlliance().get() : Alliance.Blue;
   }
 
-  public void addVisionEstimate(VisionMeasurement estimate, int camerasUsed) {
-    ConcurrentLinkedQueue<VisionMeasurement> tempPointer = concurrentQueueMap.get(camerasUsed);
-    tempPointer.add(estimate);
+  /**
+   * Queues a vision estimate for the drivetrain by filling a preallocated slot in the tier's queue,
+   * so it doesn't allocate. Safe from any thread. If the drivetrain has fallen far enough behind
+   * that the tier's queue is full, the estimate is dropped and counted.
+   *
+   * @param x Robot X position (meters)
+   * @param y Robot Y position (meters)
+   * @param theta Robot heading (radians)
+   * @param timestamp Capture timestamp (FPGA seconds)
+   * @param xyStdDev XY standard deviation
+   * @param thetaStdDev Theta standard deviation
+   * @param cameraMask Bitmask of the cameras that contributed to the estimate
+   * @param camerasUsed Trust tier, 1 to 3
+   */
+  public void addVisionEstimate(
+      double x,
+      double y,
+      double theta,
+      double timestamp,
+      double xyStdDev,
+      double thetaStdDev,
+      int cameraMask,
+      int camerasUsed) {
+    MpscRingBuffer<VisionMeasurement> queue = visionQueues[camerasUsed];
+    long position = queue.claim();
+    if (position < 0) return;
+
+    VisionMeasurement slot = queue.slot(position);
+    slot.set(x, y, theta, timestamp, xyStdDev, thetaStdDev, cameraMask);
+    slot.setQueuedTimeMicros(RobotController.getFPGATime());
+    queue.publish(position);
   }
 
-  public ArrayList<VisionMeasurement> grabVisionEstimateList(int camerasUsed) {
-    ConcurrentLinkedQueue<VisionMeasurement> tempPointer = concurrentQueueMap.get(camerasUsed);
-    ArrayList<VisionMeasurement> dataToExport = new ArrayList<VisionMeasurement>();
-    int exportSize = tempPointer.size();
-    try {
-      for (int i = 0; i < exportSize; i++) {
-        dataToExport.add(tempPointer.remove());
-      }
+  /**
+   * Copies queued estimates for a tier into {@code out}, oldest first, and frees their slots.
+   * Drivetrain thread only.
+   *
+   * @param camerasUsed Trust tier, 1 to 3
+   * @param out Caller-owned measurements to copy into; at most its length are drained, the rest
+   *     stay queued
+   * @return the number of estimates written to {@code out}
+   */
+  public int drainVisionEstimates(int camerasUsed, VisionMeasurement[] out) {
+    MpscRingBuffer<VisionMeasurement> queue = visionQueues[camerasUsed];
+    long now = RobotController.getFPGATime();
+    int count = 0;
+    VisionMeasurement queued;
+    while (count < out.length && (queued = queue.peek()) != null) {
+      out[count].copyFrom(queued);
+      queue.release();
+      visionLatencyStats.recordQueued(
+          out[count].getCameraMask(), now - out[count].getQueuedTimeMicros());
+      count++;
     }
-    // TODO add to log
-    catch (Exception e) {
-      System.out.println("EXCEPTION IN grabVisionEstimateList!");
-      System.out.println(e.getMessage());
-    }
-    return dataToExport;
+    return count;
+  }
+
+  /** Estimates dropped so far because the tier's queue was full. */
+  public long getVisionEstimatesDropped(int camerasUsed) {
+    return visionQueues[camerasUsed].dropped();
+  }
+
+  /** Most estimates the tier's queue has held at once. */
+  public int getVisionQueueHighWaterMark(int camerasUsed) {
+    return visionQueues[camerasUsed].highWaterMark();
+  }
+
+  /** Records that a vision estimate has just been added to the drivetrain's pose estimator. */
+  public void recordVisionFused(VisionMeasurement estimate) {
+    long captureMicros = Math.round(estimate.getTimestamp() * 1e6);
+    visionLatencyStats.recordFused(
+        estimate.getCameraMask(), RobotController.getFPGATime() - captureMicros);
+  }
+
+  public VisionLatencyStats getVisionLatencyStats() {
+    return visionLatencyStats;
+  }
+
+  /**
+   * Publishes an odometry sample and adds it to the pose history. Registered as drivetrain
+   * telemetry so it runs on the odometry thread for every sample; the state is copied, so Phoenix
+   * may reuse it afterwards.
+   */
+  public void publishOdometry(SwerveDriveState state) {
+    odometryBuffer.publish(state);
+    poseHistory.add(state);
+  }
+
+  /**
+   * Recent odometry samples in drivetrain time, for looking up where the robot was at a past
+   * timestamp. Safe from any thread.
+   */
+  public PoseHistory getPoseHistory() {
+    return poseHistory;
+  }
+
+  /**
+   * Copies the newest odometry sample into {@code out}. Lock-free, allocation-free and safe from
+   * any thread.
+   */
+  public void readLatest(DriveStateSnapshot out) {
+    odometryBuffer.read(out);
   }
 
-  public void adjustCurrentDriveStats(SwerveDriveState newStats) {
-    previousDriveStats = currentDriveStats;
-    currentDriveStats = newStats;
+  /**
+   * Latches the newest sample as this loop's snapshot, moving the last one to previous, and
+   * updates the derived state. Called once per main loop by the drivetrain.
+   */
+  public void latchLoopSnapshot() {
+    DriveStateSnapshot swap = previousSnapshot;
+    previousSnapshot = currentSnapshot;
+    currentSnapshot = swap;
+    odometryBuffer.read(currentSnapshot);
+    derivedState.update(currentSnapshot, previousSnapshot);
   }
 
   public boolean hasDriveStats() {
-    return currentDriveStats != null;
+    return currentSnapshot.isValid();
   }
 
-  public SwerveDriveState getCurrentDriveStats() {
-    return currentDriveStats;
+  /**
+   * Drive state latched at the start of this loop. Main thread only; the snapshot is reused, so do
+   * not keep it across loops. Other threads use {@link #readLatest(DriveStateSnapshot)}.
+   */
+  public DriveStateSnapshot getCurrentSnapshot() {
+    return currentSnapshot;
   }
 
-  public SwerveDriveState getPreviousDriveStats() {
-    return previousDriveStats;
+  /** Drive state latched at the start of the previous loop. Main thread only. */
+  public DriveStateSnapshot getPreviousSnapshot() {
+    return previousSnapshot;
   }
 
-  public ChassisSpeeds getFieldVelocity() {
-    return ChassisSpeeds.fromRobotRelativeSpeeds(
-        getCurrentDriveStats().Speeds, getCurrentDriveStats().Pose.getRotation());
+  /**
+   * Field velocity, acceleration and heading rate, computed once when this loop's snapshot was
+   * latched. Main thread only.
+   */
+  public DriveDerivedState getDerivedState() {
+    return derivedState;
   }
 }
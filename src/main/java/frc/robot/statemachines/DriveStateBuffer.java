@@ -0,0 +1,47 @@
+package frc.robot.statemachines;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Single-writer seqlock around the latest drivetrain sample.
+ *
+ * <p>The odometry thread makes the sequence odd, writes the sample and makes it even again,
+ * without taking a lock. Readers copy the sample into their own {@link DriveStateSnapshot} and keep
+ * the copy only if the sequence was even before it and unchanged after it; otherwise they copy
+ * again. The writer never waits for a reader, readers never see a torn sample, and neither side
+ * allocates.
+ */
+final class DriveStateBuffer {
+
+  // Odd while a sample is being written
+  private volatile long sequence = 0;
+
+  // Only touched by the writer, and by readers between sequence checks
+  private final DriveStateSnapshot latest = new DriveStateSnapshot();
+  private long samples = 0;
+
+  /** Publishes a sample. Called from the odometry thread only. */
+  void publish(SwerveDriveState state) {
+    long start = sequence;
+    sequence = start + 1;
+    // Keep the sample writes from moving ahead of the odd sequence
+    VarHandle.storeStoreFence();
+    latest.copyFrom(state, ++samples);
+    sequence = start + 2;
+  }
+
+  /** Copies the latest sample into {@code out}. Safe from any thread. */
+  void read(DriveStateSnapshot out) {
+    while (true) {
+      long start = sequence;
+      if ((start & 1) == 0) {
+        out.copyFrom(latest);
+        // Keep the sample reads from moving behind the second sequence read
+        VarHandle.loadLoadFence();
+        if (sequence == start) return;
+      }
+      Thread.onSpinWait();
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package frc.robot.statemachines;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * One odometry sample of the drivetrain, held as primitives.
+ *
+ * <p>Snapshots are preallocated by their owner and filled in place by {@link
+ * DriveState#readLatest(DriveStateSnapshot)}, so reading the drive state never allocates. A
+ * snapshot is not thread safe itself; each thread reads into its own.
+ */
+public final class DriveStateSnapshot {
+
+  public static final int MODULE_COUNT = 4;
+
+  private boolean valid = false;
+  private long sequence = 0;
+
+  // Drivetrain (Phoenix) time of the sample (seconds)
+  private double timestamp;
+  private double odometryPeriod;
+  private int successfulDaqs;
+  private int failedDaqs;
+
+  // Field pose (meters, radians), with the heading's cosine and sine
+  private double x;
+  private double y;
+  private double heading;
+  private double cos = 1;
+  private double sin = 0;
+
+  // Robot-relative speeds (m/s, rad/s)
+  private double vx;
+  private double vy;
+  private double omega;
+
+  // Per-module measured state and position (m/s, meters, radians)
+  private final double[] moduleSpeed = new double[MODULE_COUNT];
+  private final double[] moduleAngle = new double[MODULE_COUNT];
+  private final double[] moduleDistance = new double[MODULE_COUNT];
+  private final double[] modulePositionAngle = new double[MODULE_COUNT];
+
+  /** Copies a Phoenix drive state. The module arrays may be missing, e.g. in replayed states. */
+  void copyFrom(SwerveDriveState state, long sequence) {
+    this.valid = true;
+    this.sequence = sequence;
+    timestamp = state.Timestamp;
+    odometryPeriod = state.OdometryPeriod;
+    successfulDaqs = state.SuccessfulDaqs;
+    failedDaqs = state.FailedDaqs;
+
+    x = state.Pose.getX();
+    y = state.Pose.getY();
+    heading = state.Pose.getRotation().getRadians();
+    cos = state.Pose.getRotation().getCos();
+    sin = state.Pose.getRotation().getSin();
+
+    vx = state.Speeds.vxMetersPerSecond;
+    vy = state.Speeds.vyMetersPerSecond;
+    omega = state.Speeds.omegaRadiansPerSecond;
+
+    for (int i = 0; i < MODULE_COUNT; i++) {
+      boolean hasState = state.ModuleStates != null && i < state.ModuleStates.length;
+      moduleSpeed[i] = hasState ? state.ModuleStates[i].speedMetersPerSecond : 0;
+      moduleAngle[i] = hasState ? state.ModuleStates[i].angle.getRadians() : 0;
+
+      boolean hasPosition = state.ModulePositions != null && i < state.ModulePositions.length;
+      moduleDistance[i] = hasPosition ? state.ModulePositions[i].distanceMeters : 0;
+      modulePositionAngle[i] = hasPosition ? state.ModulePositions[i].angle.getRadians() : 0;
+    }
+  }
+
+  void copyFrom(DriveStateSnapshot other) {
+    valid = other.valid;
+    sequence = other.sequence;
+    timestamp = other.timestamp;
+    odometryPeriod = other.odometryPeriod;
+    successfulDaqs = other.successfulDaqs;
+    failedDaqs = other.failedDaqs;
+    x = other.x;
+    y = other.y;
+    heading = other.heading;
+    cos = other.cos;
+    sin = other.sin;
+    vx = other.vx;
+    vy = other.vy;
+    omega = other.omega;
+    for (int i = 0; i < MODULE_COUNT; i++) {
+      moduleSpeed[i] = other.moduleSpeed[i];
+      moduleAngle[i] = other.moduleAngle[i];
+      moduleDistance[i] = other.moduleDistance[i];
+      modulePositionAngle[i] = other.modulePositionAngle[i];
+    }
+  }
+
+  /** Whether this holds a sample; false until the drivetrain has published one. */
+  public boolean isValid() {
+    return valid;
+  }
+
+  /** Increases by one with every published sample. */
+  public long getSequence() {
+    return sequence;
+  }
+
+  public double getTimestamp() {
+    return timestamp;
+  }
+
+  public double getOdometryPeriod() {
+    return odometryPeriod;
+  }
+
+  public int getSuccessfulDaqs() {
+    return successfulDaqs;
+  }
+
+  public int getFailedDaqs() {
+    return failedDaqs;
+  }
+
+  public double getX() {
+    return x;
+  }
+
+  public double getY() {
+    return y;
+  }
+
+  /** Field heading (radians). */
+  public double getHeading() {
+    return heading;
+  }
+
+  /** Robot-relative forward speed (m/s). */
+  public double getVx() {
+    return vx;
+  }
+
+  /** Robot-relative left speed (m/s). */
+  public double getVy() {
+    return vy;
+  }
+
+  /** Angular velocity (rad/s). */
+  public double getOmega() {
+    return omega;
+  }
+
+  /** Field-relative X speed (m/s). */
+  public double getFieldVx() {
+    return vx * cos - vy * sin;
+  }
+
+  /** Field-relative Y speed (m/s). */
+  public double getFieldVy() {
+    return vx * sin + vy * cos;
+  }
+
+  public double getModuleSpeed(int module) {
+    return moduleSpeed[module];
+  }
+
+  public double getModuleAngle(int module) {
+    return moduleAngle[module];
+  }
+
+  public double getModuleDistance(int module) {
+    return moduleDistance[module];
+  }
+
+  public double getModulePositionAngle(int module) {
+    return modulePositionAngle[module];
+  }
+
+  /** The pose as a new {@link Pose2d}, for callers that need geometry objects. */
+  public Pose2d toPose2d() {
+    return new Pose2d(x, y, new Rotation2d(heading));
+  }
+}
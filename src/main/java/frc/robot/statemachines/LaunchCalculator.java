@@ -1,22 +1,16 @@
 package frc.robot.statemachines;
 
-import static edu.wpi.first.units.Units.Meters;
-import static edu.wpi.first.units.Units.RadiansPerSecond;
-
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.filter.LinearFilter;
-import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Pose3d;
-import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Translation2d;
-import edu.wpi.first.math.geometry.Twist2d;
-import edu.wpi.first.math.interpolation.InterpolatingDoubleTreeMap;
-import edu.wpi.first.math.kinematics.ChassisSpeeds;
-import edu.wpi.first.units.measure.AngularVelocity;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.robot.statemachines.LaunchState.LaunchType;
+import frc.robot.statemachines.LaunchState.SolverType;
 import frc.robot.subsystems.shooter.LaunchRequest;
+import frc.robot.subsystems.shooter.LaunchRequestBuilder;
 import frc.robot.subsystems.shooter.MappedLaunchRequestBuilder;
 import frc.robot.subsystems.shooter.ParabolicLaunchRequestBuilder;
+import java.util.function.DoubleUnaryOperator;
 
 public class LaunchCalculator {
 
@@ -29,96 +23,181 @@ public class LaunchCalculator {
     return single_instance;
   }
 
+  private final DriveState driveState = DriveState.getInstance();
+
   private double loopPeriodSecs = 0.02;
 
   private final LinearFilter driveAngleFilter =
       LinearFilter.movingAverage((int) (0.8 / loopPeriodSecs));
 
-  private static final double phaseDelay;
-
-  private static final InterpolatingDoubleTreeMap hubTimeOfFlightMap =
-      new InterpolatingDoubleTreeMap();
-  private static final InterpolatingDoubleTreeMap passingTimeOfFlightMap =
-      new InterpolatingDoubleTreeMap();
-
-  // TODO: All of this is made up.  Need real numbers.
-  static {
-    phaseDelay = 0.03;
-
-    hubTimeOfFlightMap.put(5.68, 1.16);
-    hubTimeOfFlightMap.put(4.55, 1.12);
-    hubTimeOfFlightMap.put(3.15, 1.11);
-    hubTimeOfFlightMap.put(1.88, 1.09);
-    hubTimeOfFlightMap.put(1.38, 0.90);
+  // Time from computing a request to the shot leaving the robot (s)
+  static final double phaseDelay = 0.03;
+
+  // Shoot-on-the-move solutions, built from each shot map's time of flight maps as it loads
+  private static final double TABLE_MIN_DISTANCE = 0.5; // meters
+  private static final double TABLE_MAX_DISTANCE = 9.0; // meters
+  // Fine enough that most cells pass the table's check across the kinks in the time of flight maps
+  private static final double TABLE_DISTANCE_STEP = 0.1; // meters
+  private static final double TABLE_MAX_VELOCITY = 5.0; // meters per second, above drive free speed
+  private static final double TABLE_VELOCITY_STEP = 0.1; // meters per second
+
+  private final ShotMapStore shotMapStore = ShotMapStore.getInstance();
+
+  private final double[] solution = new double[ShootOnTheMoveTable.SOLUTION_LENGTH];
+
+  /** Builds a shoot-on-the-move table covering the distances and speeds the calculator sees. */
+  static ShootOnTheMoveTable createTable(DoubleUnaryOperator timeOfFlight) {
+    return new ShootOnTheMoveTable(
+        timeOfFlight,
+        TABLE_MIN_DISTANCE,
+        TABLE_MAX_DISTANCE,
+        TABLE_DISTANCE_STEP,
+        TABLE_MAX_VELOCITY,
+        TABLE_VELOCITY_STEP);
+  }
 
-    passingTimeOfFlightMap.put(6.68, 1.16);
-    passingTimeOfFlightMap.put(5.55, 1.12);
-    passingTimeOfFlightMap.put(4.15, 1.11);
-    passingTimeOfFlightMap.put(2.88, 1.09);
-    passingTimeOfFlightMap.put(2.38, 0.90);
+  /**
+   * Fills a launch request for the current drive state.
+   *
+   * @param target Target to aim at
+   * @param builderType Builder for the hood and flywheel targets
+   * @param solverType How to solve the shoot-on-the-move lookahead
+   * @param out Request to fill
+   * @return {@code out}
+   */
+  protected LaunchRequest refreshRequest(
+      Pose3d target, LaunchType builderType, SolverType solverType, LaunchRequest out) {
+    // current pose and movement
+    DriveStateSnapshot driveStats = driveState.getCurrentSnapshot();
+    // Field relative velocity, computed once per loop
+    DriveDerivedState derived = driveState.getDerivedState();
+
+    computeRequest(
+        target,
+        builderType,
+        solverType,
+        shotMapStore.getSnapshot(),
+        driveStats.getX(),
+        driveStats.getY(),
+        driveStats.getHeading(),
+        driveStats.getVx(),
+        driveStats.getVy(),
+        driveStats.getOmega(),
+        derived.getFieldVx(),
+        derived.getFieldVy(),
+        driveState.getPreviousSnapshot().getHeading(),
+        solution,
+        out);
+
+    double lookaheadLauncherToTargetDistance = solution[ShootOnTheMoveTable.LOOKAHEAD_DISTANCE];
+    double targetRobotAngle = out.getTargetRobotAngle();
+    SmartDashboard.putNumber(
+        "Launch Request/Look Ahead Pose/X",
+        target.getX() - lookaheadLauncherToTargetDistance * Math.cos(targetRobotAngle));
+    SmartDashboard.putNumber(
+        "Launch Request/Look Ahead Pose/Y",
+        target.getY() - lookaheadLauncherToTargetDistance * Math.sin(targetRobotAngle));
+    SmartDashboard.putNumber(
+        "Launch Request/Look Ahead Target Distance", lookaheadLauncherToTargetDistance);
+    return out;
   }
 
-  protected LaunchRequest refreshRequest(Pose3d target, LaunchType builderType) {
+  /**
+   * Fills a launch request for an explicit robot state, without reading {@link DriveState} or
+   * publishing anything. Safe to call from several threads as long as each has its own {@code
+   * solution} and {@code out}.
+   *
+   * @param target Target to aim at
+   * @param builderType Builder for the hood and flywheel targets
+   * @param solverType How to solve the shoot-on-the-move lookahead
+   * @param shots Shot map and lookahead tables to use
+   * @param x Field X (m)
+   * @param y Field Y (m)
+   * @param heading Field heading (rad)
+   * @param vx Robot relative X speed (m/s)
+   * @param vy Robot relative Y speed (m/s)
+   * @param omega Angular velocity (rad/s)
+   * @param fieldVx Field relative X speed (m/s)
+   * @param fieldVy Field relative Y speed (m/s)
+   * @param previousHeading Field heading one loop earlier (rad)
+   * @param solution Receives the lookahead solution, indexed as by {@link ShootOnTheMoveTable}
+   * @param out Request to fill
+   * @return {@code out}
+   */
+  static LaunchRequest computeRequest(
+      Pose3d target,
+      LaunchType builderType,
+      SolverType solverType,
+      ShotMapStore.Snapshot shots,
+      double x,
+      double y,
+      double heading,
+      double vx,
+      double vy,
+      double omega,
+      double fieldVx,
+      double fieldVy,
+      double previousHeading,
+      double[] solution,
+      LaunchRequest out) {
 
     boolean passing = target.getZ() < 0.1;
 
-    // current pose and movement
-    Pose2d estimatedRobotPose = DriveState.getInstance().getCurrentDriveStats().Pose;
-    ChassisSpeeds robotSpeeds = DriveState.getInstance().getCurrentDriveStats().Speeds;
-
-    // predicted pose
-    estimatedRobotPose =
-        estimatedRobotPose.exp(
-            new Twist2d(
-                robotSpeeds.vxMetersPerSecond * phaseDelay,
-                robotSpeeds.vyMetersPerSecond * phaseDelay,
-                robotSpeeds.omegaRadiansPerSecond * phaseDelay));
+    // predicted pose: the pose after following the current robot relative speeds for the phase
+    // delay, as Pose2d.exp would give
+    double dx = vx * phaseDelay;
+    double dy = vy * phaseDelay;
+    double dtheta = omega * phaseDelay;
+    double sinTerm;
+    double cosTerm;
+    if (Math.abs(dtheta) < 1e-9) {
+      sinTerm = 1.0 - dtheta * dtheta / 6.0;
+      cosTerm = 0.5 * dtheta;
+    } else {
+      sinTerm = Math.sin(dtheta) / dtheta;
+      cosTerm = (1 - Math.cos(dtheta)) / dtheta;
+    }
+    double forward = dx * sinTerm - dy * cosTerm;
+    double left = dx * cosTerm + dy * sinTerm;
+    double headingCos = Math.cos(heading);
+    double headingSin = Math.sin(heading);
 
     // TODO:  for now assume they're the same.  calculate offsets later
-    Pose2d launcherPose = estimatedRobotPose;
-    double launcherToTargetDistance =
-        launcherPose.getTranslation().getDistance(target.toPose2d().getTranslation());
-
-    // Calculate field relative velocity
-    double xSpeed = DriveState.getInstance().getFieldVelocity().vxMetersPerSecond;
-    double ySpeed = DriveState.getInstance().getFieldVelocity().vyMetersPerSecond;
+    double launcherX = x + forward * headingCos - left * headingSin;
+    double launcherY = y + forward * headingSin + left * headingCos;
+    double launcherToTargetX = target.getX() - launcherX;
+    double launcherToTargetY = target.getY() - launcherY;
+    double launcherToTargetDistance = Math.hypot(launcherToTargetX, launcherToTargetY);
+    double bearing = Math.atan2(launcherToTargetY, launcherToTargetX);
+
+    // Field relative velocity, split along and across the bearing
+    double bearingCos = Math.cos(bearing);
+    double bearingSin = Math.sin(bearing);
+    double radialSpeed = fieldVx * bearingCos + fieldVy * bearingSin;
+    double tangentialSpeed = fieldVy * bearingCos - fieldVx * bearingSin;
 
     // Account for imparted velocity by robot (launcher) to offset
-    double timeOfFlight =
-        passing
-            ? passingTimeOfFlightMap.get(launcherToTargetDistance)
-            : hubTimeOfFlightMap.get(launcherToTargetDistance);
-    Pose2d lookaheadPose = launcherPose;
-    double lookaheadLauncherToTargetDistance = launcherToTargetDistance;
-
-    for (int i = 0; i < 20; i++) {
-      timeOfFlight =
-          passing
-              ? passingTimeOfFlightMap.get(lookaheadLauncherToTargetDistance)
-              : hubTimeOfFlightMap.get(lookaheadLauncherToTargetDistance);
-      double offsetX = xSpeed * timeOfFlight;
-      double offsetY = ySpeed * timeOfFlight;
-      lookaheadPose =
-          new Pose2d(
-              launcherPose.getTranslation().plus(new Translation2d(offsetX, offsetY)),
-              launcherPose.getRotation());
-      lookaheadLauncherToTargetDistance =
-          target.getTranslation().toTranslation2d().getDistance(lookaheadPose.getTranslation());
+    if (solverType == SolverType.TABLE) {
+      ShootOnTheMoveTable table = passing ? shots.passingTable : shots.hubTable;
+      table.solve(launcherToTargetDistance, radialSpeed, tangentialSpeed, solution);
+    } else {
+      ShootOnTheMoveTable.solveIterative(
+          passing ? shots.passingTimeOfFlight : shots.hubTimeOfFlight,
+          launcherToTargetDistance,
+          radialSpeed,
+          tangentialSpeed,
+          solution);
     }
-
-    SmartDashboard.putNumber("Launch Request/Look Ahead Pose/X", lookaheadPose.getX());
-    SmartDashboard.putNumber("Launch Request/Look Ahead Pose/Y", lookaheadPose.getY());
-    SmartDashboard.putNumber(
-        "Launch Request/Look Ahead Target Distance", lookaheadLauncherToTargetDistance);
+    double lookaheadLauncherToTargetDistance = solution[ShootOnTheMoveTable.LOOKAHEAD_DISTANCE];
 
     // calcuate rotation angle
-    Rotation2d targetRobotAngle =
-        target.getTranslation().toTranslation2d().minus(lookaheadPose.getTranslation()).getAngle();
+    double targetRobotAngle =
+        MathUtil.angleModulus(bearing + solution[ShootOnTheMoveTable.HEADING_OFFSET]);
 
     // Rotation2d targetRobotAngle = getDriveAngle(lookaheadPose,
     // target.getTranslation().toTranslation2d());
 
-    AngularVelocity targetRobotAngularVelocity =
+    double targetRobotAngularVelocity =
         // RadiansPerSecond.of(
         //     driveAngleFilter.calculate(
         //         targetRobotAngle
@@ -126,27 +205,20 @@ public class LaunchCalculator {
         // .minus(DriveState.getInstance().getPreviousDriveStats().Pose.getRotation())
         //                 .getRadians()
         //             / loopPeriodSecs));
-        RadiansPerSecond.of(
-            targetRobotAngle
-                .minus(DriveState.getInstance().getPreviousDriveStats().Pose.getRotation())
-                .getRadians());
-
-    if (builderType == LaunchType.MAPPED)
-      return new MappedLaunchRequestBuilder()
-          .createLaunchRequest(
-              passing,
-              lookaheadLauncherToTargetDistance,
-              targetRobotAngularVelocity,
-              targetRobotAngle,
-              Meters.of(launcherToTargetDistance));
-    else
-      return new ParabolicLaunchRequestBuilder()
-          .createLaunchRequest(
-              passing,
-              lookaheadLauncherToTargetDistance,
-              targetRobotAngularVelocity,
-              targetRobotAngle,
-              Meters.of(launcherToTargetDistance));
+        MathUtil.angleModulus(targetRobotAngle - previousHeading);
+
+    LaunchRequestBuilder builder =
+        builderType == LaunchType.MAPPED
+            ? MappedLaunchRequestBuilder.getInstance()
+            : ParabolicLaunchRequestBuilder.getInstance();
+    return builder.updateLaunchRequest(
+        shots.shotMap,
+        passing,
+        lookaheadLauncherToTargetDistance,
+        targetRobotAngularVelocity,
+        targetRobotAngle,
+        launcherToTargetDistance,
+        out);
   }
 
   /*
@@ -1,10 +1,20 @@
 package frc.robot.statemachines;
 
 import edu.wpi.first.epilogue.Logged;
+import edu.wpi.first.epilogue.NotLogged;
 import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.wpilibj2.command.Command;
 import frc.robot.Constants;
 import frc.robot.subsystems.shooter.LaunchRequest;
 
+/**
+ * Launch solution for the current target, computed on demand.
+ *
+ * <p>Commands that aim or shoot subscribe while they run. While anything is subscribed, the first
+ * {@link #getLaunchRequest()} after the drive state latches a new snapshot, or after the target or
+ * builder changes, recomputes the solution; every other call that loop reuses it. With no
+ * subscribers nothing is computed and the last solution is kept. Main thread only.
+ */
 @Logged
 public class LaunchState {
   private static LaunchState single_instance = null;
@@ -18,6 +28,11 @@ public class LaunchState {
 
   AllianceState allianceState = AllianceState.getInstance();
   private LaunchCalculator launchCalculator = LaunchCalculator.getInstance();
+  @NotLogged private final DriveState driveState = DriveState.getInstance();
+
+  // Two requests, refilled in turn, so the one handed out last stays intact while the next fills
+  @NotLogged
+  private final LaunchRequest[] launchRequests = {new LaunchRequest(), new LaunchRequest()};
 
   @Logged(name = "Current Launch Request")
   private LaunchRequest currentLaunchRequest = null;
@@ -27,24 +42,83 @@ public class LaunchState {
 
   private LaunchType builderType = LaunchType.MAPPED;
 
+  private SolverType solverType = SolverType.TABLE;
+
+  @Logged(name = "Subscribers")
+  private int subscribers = 0;
+
+  // Drive snapshot the current request was computed from, and whether its inputs changed since
+  @NotLogged private long requestSequence = -1;
+  @NotLogged private boolean requestStale = true;
+
+  /**
+   * Returns the launch solution for this loop, computing it first if it is out of date. Callers
+   * should hold a subscription; without one this returns the last solution, which may be stale or
+   * null.
+   */
   public LaunchRequest getLaunchRequest() {
+    if (subscribers > 0) refreshIfStale();
     return currentLaunchRequest;
   }
 
-  public void refreshRequest() {
-    currentLaunchRequest = launchCalculator.refreshRequest(targetPose3d, builderType);
+  /** Registers a consumer of the launch solution. Pair with {@link #unsubscribe()}. */
+  public void subscribe() {
+    // Whatever was kept while nobody was subscribed is out of date
+    if (subscribers == 0) requestStale = true;
+    subscribers++;
+  }
+
+  public void unsubscribe() {
+    if (subscribers > 0) subscribers--;
+  }
+
+  public boolean hasSubscribers() {
+    return subscribers > 0;
+  }
+
+  /** Wraps a command so it holds a subscription while it runs. */
+  public Command subscribedWhile(Command command) {
+    return command.beforeStarting(this::subscribe).finallyDo(this::unsubscribe);
   }
 
   public void setTargetPose3d(Pose3d target) {
     this.targetPose3d = target;
+    requestStale = true;
   }
 
   public void setBuilderType(LaunchType builderType) {
     this.builderType = builderType;
+    requestStale = true;
+  }
+
+  public void setSolverType(SolverType solverType) {
+    this.solverType = solverType;
+    requestStale = true;
+  }
+
+  private void refreshIfStale() {
+    // The snapshot is latched once per loop, so this computes at most once per loop
+    long sequence = driveState.getCurrentSnapshot().getSequence();
+    if (!requestStale && sequence == requestSequence && currentLaunchRequest != null) return;
+
+    LaunchRequest next =
+        currentLaunchRequest == launchRequests[0] ? launchRequests[1] : launchRequests[0];
+    currentLaunchRequest =
+        launchCalculator.refreshRequest(targetPose3d, builderType, solverType, next);
+    requestSequence = sequence;
+    requestStale = false;
   }
 
   public enum LaunchType {
     PARABOLIC,
     MAPPED
   }
+
+  /** How the shoot-on-the-move lookahead is solved. */
+  public enum SolverType {
+    /** Precomputed table, iterating only outside it */
+    TABLE,
+    /** Iterate every time */
+    ITERATIVE
+  }
 }
@@ -0,0 +1,123 @@
+package frc.robot.statemachines;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Fixed-capacity multi-producer, single-consumer queue.
+ *
+ * <p>Elements are preallocated, mutable slots that never leave the queue. A producer claims a slot
+ * with one compare-and-set on the tail, fills it in place and publishes it by advancing the slot's
+ * sequence; the consumer owns the head outright, reads the oldest published slot and hands it
+ * back. Neither side allocates or blocks. When the queue is full the new element is dropped and
+ * counted rather than growing the queue, so memory stays bounded if the consumer stalls.
+ *
+ * <p>Also tracks the deepest the queue has been, so the capacity can be checked against real
+ * traffic.
+ */
+final class MpscRingBuffer<E> {
+
+  private final int mask;
+  private final E[] slots;
+  private final AtomicLongArray sequences;
+
+  // Next position producers will claim
+  private final AtomicLong tail = new AtomicLong();
+  // Next position the consumer will take; written by the consumer only, read by producers
+  private final AtomicLong head = new AtomicLong();
+
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicInteger highWaterMark = new AtomicInteger();
+
+  /**
+   * @param minimumCapacity Number of elements the queue can hold; rounded up to a power of two
+   * @param slotFactory Creates the slots, once each, up front
+   */
+  @SuppressWarnings("unchecked")
+  MpscRingBuffer(int minimumCapacity, Supplier<E> slotFactory) {
+    int capacity = Integer.highestOneBit(Math.max(2, minimumCapacity - 1)) << 1;
+    mask = capacity - 1;
+    slots = (E[]) new Object[capacity];
+    sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      slots[i] = slotFactory.get();
+      sequences.set(i, i);
+    }
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Claims the next slot for the calling producer, which must fill it with {@link #slot} and then
+   * {@link #publish} it. Safe from any thread.
+   *
+   * @return the claimed position, or -1 if the queue was full and the element was dropped
+   */
+  long claim() {
+    long position;
+    while (true) {
+      position = tail.get();
+      long lag = sequences.get((int) position & mask) - position;
+      if (lag == 0) {
+        if (tail.compareAndSet(position, position + 1)) break;
+      } else if (lag < 0) {
+        // The slot still holds an element the consumer has not taken
+        dropped.incrementAndGet();
+        return -1;
+      }
+      // Otherwise another producer claimed this position first; try the next one
+    }
+    return position;
+  }
+
+  /** The slot at a position claimed by the calling producer, to fill in place. */
+  E slot(long position) {
+    return slots[(int) position & mask];
+  }
+
+  /** Hands a filled slot to the consumer. Called once per claim, by the producer that claimed it. */
+  void publish(long position) {
+    // The volatile sequence write makes the slot's plain field writes visible to the consumer
+    sequences.set((int) position & mask, position + 1);
+
+    // The head read can trail a release by one element, so clamp
+    int depth = (int) Math.min(position + 1 - head.get(), mask + 1);
+    int deepest = highWaterMark.get();
+    while (depth > deepest && !highWaterMark.compareAndSet(deepest, depth)) {
+      deepest = highWaterMark.get();
+    }
+  }
+
+  /**
+   * The oldest published element, which stays valid until {@link #release}. Consumer thread only.
+   *
+   * @return the element, or null if none has been published
+   */
+  E peek() {
+    long position = head.get();
+    int slot = (int) position & mask;
+    return sequences.get(slot) == position + 1 ? slots[slot] : null;
+  }
+
+  /** Hands the element returned by {@link #peek} back to producers. Consumer thread only. */
+  void release() {
+    long position = head.get();
+    // Free the slot for the lap after this one
+    sequences.set((int) position & mask, position + mask + 1);
+    head.set(position + 1);
+  }
+
+  /** Number of elements dropped because the queue was full. */
+  long dropped() {
+    return dropped.get();
+  }
+
+  /** Most elements the queue has held at once. */
+  int highWaterMark() {
+    return highWaterMark.get();
+  }
+}
@@ -0,0 +1,262 @@
+package frc.robot.statemachines;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import java.lang.invoke.VarHandle;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fixed-size ring buffer of timestamped odometry samples, for answering "where was the robot at
+ * time t" without calling into the drivetrain.
+ *
+ * <p>Each sample holds the drivetrain timestamp, field pose (x, y, heading) and robot-relative
+ * speeds (vx, vy, omega) in parallel primitive arrays. The odometry thread records every sample,
+ * so the history has full odometry resolution; capacity is fixed, so memory use is too.
+ *
+ * <p>Lookups binary search for the two samples around the requested time and interpolate between
+ * them: linearly for position and speeds, along the shorter arc for heading. Between two odometry
+ * samples this matches {@link Pose2d#interpolate}, which backs the drivetrain's {@code
+ * samplePoseAt}, to well under a millimeter.
+ *
+ * <p>There is a single writer, guarded by a seqlock: it makes the sequence odd, writes the
+ * sample and makes it even again, without taking a lock. Readers search without a lock and search
+ * again if the sequence was odd or changed while they did, so lookups never block the odometry
+ * thread and never see a half-written sample. {@link #clear} may be called from any thread; it
+ * hides the samples at once and the writer drops them with its next sample.
+ */
+public final class PoseHistory {
+
+  /** Index of each value in a sample written by {@link #sample(double, double[])}. */
+  public static final int TIME = 0;
+
+  public static final int X = 1;
+  public static final int Y = 2;
+  public static final int HEADING = 3;
+  public static final int VX = 4;
+  public static final int VY = 5;
+  public static final int OMEGA = 6;
+
+  /** Length of the array passed to {@link #sample(double, double[])}. */
+  public static final int SAMPLE_LENGTH = 7;
+
+  // Odd while a sample is being written
+  private volatile long sequence = 0;
+
+  private final AtomicBoolean clearPending = new AtomicBoolean();
+
+  // Capacity is a power of two so physical indices are a mask, not a modulo
+  private final int mask;
+
+  // Only written between sequence bumps
+  private final double[] time;
+  private final double[] x;
+  private final double[] y;
+  private final double[] heading;
+  private final double[] vx;
+  private final double[] vy;
+  private final double[] omega;
+
+  // Logical index of the next sample to write; the oldest kept sample is count - size
+  private long count = 0;
+  private int size = 0;
+
+  /**
+   * @param minimumCapacity Number of samples to keep; rounded up to a power of two
+   */
+  public PoseHistory(int minimumCapacity) {
+    int capacity = Integer.highestOneBit(Math.max(2, minimumCapacity - 1)) << 1;
+    mask = capacity - 1;
+    time = new double[capacity];
+    x = new double[capacity];
+    y = new double[capacity];
+    heading = new double[capacity];
+    vx = new double[capacity];
+    vy = new double[capacity];
+    omega = new double[capacity];
+  }
+
+  /** Number of samples the history can hold. */
+  public int capacity() {
+    return mask + 1;
+  }
+
+  /** Records a drivetrain sample. Called from the odometry thread. */
+  void add(SwerveDriveState state) {
+    if (state.Pose == null || state.Speeds == null) return;
+    add(
+        state.Timestamp,
+        state.Pose.getX(),
+        state.Pose.getY(),
+        state.Pose.getRotation().getRadians(),
+        state.Speeds.vxMetersPerSecond,
+        state.Speeds.vyMetersPerSecond,
+        state.Speeds.omegaRadiansPerSecond);
+  }
+
+  /**
+   * Records a sample, overwriting the oldest one when full. Samples that are not newer than the
+   * latest one are ignored. Called from one thread only.
+   *
+   * @param timestamp Drivetrain timestamp of the sample (seconds)
+   * @param poseX Field X position (meters)
+   * @param poseY Field Y position (meters)
+   * @param poseHeading Field heading (radians)
+   * @param speedX Robot-relative X speed (meters per second)
+   * @param speedY Robot-relative Y speed (meters per second)
+   * @param speedOmega Angular speed (radians per second)
+   */
+  public void add(
+      double timestamp,
+      double poseX,
+      double poseY,
+      double poseHeading,
+      double speedX,
+      double speedY,
+      double speedOmega) {
+    if (!clearPending.get() && size > 0 && timestamp <= time[(int) (count - 1) & mask]) return;
+
+    long start = sequence;
+    sequence = start + 1;
+    // Keep the sample writes from moving ahead of the odd sequence
+    VarHandle.storeStoreFence();
+
+    // Only consume a clear once the sequence is odd, so no reader can see it neither pending nor
+    // applied and return samples from before it
+    if (clearPending.getAndSet(false)) size = 0;
+    int i = (int) count & mask;
+    time[i] = timestamp;
+    x[i] = poseX;
+    y[i] = poseY;
+    heading[i] = poseHeading;
+    vx[i] = speedX;
+    vy[i] = speedY;
+    omega[i] = speedOmega;
+    count++;
+    if (size <= mask) size++;
+
+    sequence = start + 2;
+  }
+
+  /**
+   * Interpolates the drivetrain state at the given time. Times newer than the latest sample return
+   * the latest sample. Does not allocate, and is safe from any thread.
+   *
+   * @param timestamp Drivetrain timestamp to sample at (seconds)
+   * @param out Receives the sample, indexed by {@link #TIME} through {@link #OMEGA}
+   * @return false if the history is empty or the time is older than the oldest sample
+   */
+  public boolean sample(double timestamp, double[] out) {
+    while (true) {
+      long start = sequence;
+      if ((start & 1) == 0) {
+        boolean found = !clearPending.get() && search(timestamp, out);
+        // Keep the history reads from moving behind the second sequence read
+        VarHandle.loadLoadFence();
+        if (sequence == start) return found;
+      }
+      Thread.onSpinWait();
+    }
+  }
+
+  /**
+   * Interpolates the robot pose at the given time. Allocates, so hot paths should use {@link
+   * #sample(double, double[])}.
+   *
+   * @param timestamp Drivetrain timestamp to sample at (seconds)
+   * @return the pose, or empty if the history is empty or the time is older than the oldest sample
+   */
+  public Optional<Pose2d> samplePose(double timestamp) {
+    double[] out = new double[SAMPLE_LENGTH];
+    if (!sample(timestamp, out)) return Optional.empty();
+    return Optional.of(new Pose2d(out[X], out[Y], new Rotation2d(out[HEADING])));
+  }
+
+  /** Drivetrain timestamp of the oldest sample, or NaN if the history is empty. */
+  public double oldestTimestamp() {
+    return endTimestamp(true);
+  }
+
+  /** Drivetrain timestamp of the newest sample, or NaN if the history is empty. */
+  public double newestTimestamp() {
+    return endTimestamp(false);
+  }
+
+  private double endTimestamp(boolean oldest) {
+    while (true) {
+      long start = sequence;
+      if ((start & 1) == 0) {
+        double timestamp =
+            size == 0 || clearPending.get()
+                ? Double.NaN
+                : time[(int) (oldest ? count - size : count - 1) & mask];
+        VarHandle.loadLoadFence();
+        if (sequence == start) return timestamp;
+      }
+      Thread.onSpinWait();
+    }
+  }
+
+  /**
+   * Drops every sample, e.g. after the pose is reset and old positions are no longer valid. Safe
+   * from any thread: lookups miss from now on, and the writer drops the samples with its next one.
+   */
+  public void clear() {
+    clearPending.set(true);
+  }
+
+  /**
+   * Binary search and interpolation. Runs while the writer may be writing, so every index is
+   * masked and the result is only trusted once the caller has checked the sequence.
+   */
+  private boolean search(double timestamp, double[] out) {
+    long end = count;
+    int n = size;
+    if (n == 0) return false;
+
+    long oldest = end - n;
+    if (timestamp < time[(int) oldest & mask]) return false;
+
+    int newest = (int) (end - 1) & mask;
+    if (timestamp >= time[newest]) {
+      copy(newest, out);
+      return true;
+    }
+
+    // Find the first sample newer than the timestamp; the one before it is at or older
+    long low = oldest + 1;
+    long high = end - 1;
+    while (low < high) {
+      long mid = (low + high) >>> 1;
+      if (time[(int) mid & mask] > timestamp) high = mid;
+      else low = mid + 1;
+    }
+
+    int after = (int) low & mask;
+    int before = (int) (low - 1) & mask;
+    double span = time[after] - time[before];
+    double t = span > 0 ? (timestamp - time[before]) / span : 0;
+    out[TIME] = timestamp;
+    out[X] = x[before] + (x[after] - x[before]) * t;
+    out[Y] = y[before] + (y[after] - y[before]) * t;
+    out[HEADING] =
+        MathUtil.angleModulus(
+            heading[before] + MathUtil.angleModulus(heading[after] - heading[before]) * t);
+    out[VX] = vx[before] + (vx[after] - vx[before]) * t;
+    out[VY] = vy[before] + (vy[after] - vy[before]) * t;
+    out[OMEGA] = omega[before] + (omega[after] - omega[before]) * t;
+    return true;
+  }
+
+  private void copy(int i, double[] out) {
+    out[TIME] = time[i];
+    out[X] = x[i];
+    out[Y] = y[i];
+    out[HEADING] = heading[i];
+    out[VX] = vx[i];
+    out[VY] = vy[i];
+    out[OMEGA] = omega[i];
+  }
+}
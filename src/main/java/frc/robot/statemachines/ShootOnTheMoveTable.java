@@ -0,0 +1,305 @@
+package frc.robot.statemachines;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Precomputed shoot-on-the-move solutions over target distance, radial velocity and tangential
+ * velocity.
+ *
+ * <p>A moving launcher has to aim at where the target will be relative to it when the game piece
+ * arrives: the lookahead point, offset from the launcher by the robot's velocity times the time of
+ * flight. Since the time of flight depends on the lookahead distance, that is a fixed point. In
+ * target-relative terms it only depends on the distance to the target and the velocity toward it
+ * (radial) and across it (tangential), so this table solves it once per grid point at startup.
+ *
+ * <p>Each grid point holds the lookahead distance, the heading offset from the launcher-to-target
+ * bearing, and the time of flight. Lookups interpolate bilinearly over the velocity grid on the two
+ * distance slices around the query, then linearly between the slices, from primitive arrays, so
+ * they take the same time everywhere and do not allocate. Solutions are symmetric in tangential
+ * velocity, so only the non-negative half is stored. Outside the grid, {@link #solve} falls back
+ * to iterating the fixed point directly.
+ *
+ * <p>A cell is only used if interpolating it stays within {@link #CELL_MISS_TOLERANCE} and {@link
+ * #CELL_TIME_OF_FLIGHT_TOLERANCE} of the solver at its center and the midpoints of its faces and
+ * edges; other queries fall back too. That bounds the error at those points only. Between them, a
+ * kink in a piecewise linear time of flight map can pull the solution further from the
+ * interpolation, so anywhere in a used cell lookups are only held to the looser bound in {@code
+ * ShootOnTheMoveTableTest}: 5 cm of miss and 25 ms of time of flight against the built-in map.
+ */
+final class ShootOnTheMoveTable {
+
+  /** Index of each value in a solution written by {@link #solve}. */
+  static final int LOOKAHEAD_DISTANCE = 0;
+
+  static final int HEADING_OFFSET = 1;
+  static final int TIME_OF_FLIGHT = 2;
+
+  /** Length of the array passed to {@link #solve}. */
+  static final int SOLUTION_LENGTH = 3;
+
+  // Iterative solve; the fixed point converges in a handful of iterations at robot speeds
+  static final int MAX_ITERATIONS = 20;
+  static final double CONVERGENCE_TOLERANCE = 1e-4; // meters
+
+  // Largest errors against the iterative solver at a cell's checked points for it to be used
+  static final double CELL_MISS_TOLERANCE = 0.02; // meters
+  static final double CELL_TIME_OF_FLIGHT_TOLERANCE = 0.01; // seconds
+
+  private final DoubleUnaryOperator timeOfFlight;
+
+  private final double minDistance;
+  private final double distanceStep;
+  private final int distanceCount;
+  private final double velocityStep;
+  private final int radialCount;
+  private final int tangentialCount;
+
+  // Flattened [distance][radial][tangential]
+  private final double[] lookaheadDistance;
+  private final double[] headingOffset;
+  private final double[] flightTime;
+
+  // Per cell, indexed by its lowest corner: whether interpolating it reproduces the solver
+  private final boolean[] usable;
+
+  /**
+   * Builds the table by solving every grid point.
+   *
+   * @param timeOfFlight Time of flight (s) for a launch distance (m)
+   * @param minDistance Closest target distance in the table (m)
+   * @param maxDistance Farthest target distance in the table (m)
+   * @param distanceStep Grid spacing in distance (m)
+   * @param maxVelocity Largest radial or tangential speed in the table (m/s)
+   * @param velocityStep Grid spacing in velocity (m/s)
+   */
+  ShootOnTheMoveTable(
+      DoubleUnaryOperator timeOfFlight,
+      double minDistance,
+      double maxDistance,
+      double distanceStep,
+      double maxVelocity,
+      double velocityStep) {
+    this.timeOfFlight = timeOfFlight;
+    this.minDistance = minDistance;
+    this.distanceStep = distanceStep;
+    this.velocityStep = velocityStep;
+    distanceCount = (int) Math.ceil((maxDistance - minDistance) / distanceStep) + 1;
+    tangentialCount = (int) Math.ceil(maxVelocity / velocityStep) + 1;
+    radialCount = 2 * tangentialCount - 1;
+
+    int size = distanceCount * radialCount * tangentialCount;
+    lookaheadDistance = new double[size];
+    headingOffset = new double[size];
+    flightTime = new double[size];
+
+    usable = new boolean[size];
+
+    // Solve every half step, one distance slice at a time. The even points are the grid; the rest
+    // are the centers and face and edge midpoints of cells, each shared by the cells around it
+    int sliceSize = (2 * radialCount - 1) * (2 * tangentialCount - 1) * SOLUTION_LENGTH;
+    // A row of cells' near face, middle and far face
+    double[][] slices = {new double[sliceSize], new double[sliceSize], new double[sliceSize]};
+    double[] solution = new double[SOLUTION_LENGTH];
+    boolean[] converged = new boolean[size];
+    solveSlice(0, slices[0], solution, converged);
+
+    double[] interpolated = new double[SOLUTION_LENGTH];
+    for (int i = 0; i < distanceCount - 1; i++) {
+      solveSlice(2 * i + 1, slices[1], solution, converged);
+      solveSlice(2 * i + 2, slices[2], solution, converged);
+      for (int j = 0; j < radialCount - 1; j++) {
+        for (int k = 0; k < tangentialCount - 1; k++) {
+          usable[index(i, j, k)] =
+              cornersConverged(converged, i, j, k)
+                  && cellMatchesSolver(i, j, k, slices, interpolated);
+        }
+      }
+      // The far face is the next row's near face
+      double[] near = slices[0];
+      slices[0] = slices[2];
+      slices[2] = near;
+    }
+  }
+
+  /** Farthest target distance in the table (m). */
+  double maxDistance() {
+    return minDistance + (distanceCount - 1) * distanceStep;
+  }
+
+  /** Largest radial or tangential speed in the table (m/s). */
+  double maxVelocity() {
+    return (tangentialCount - 1) * velocityStep;
+  }
+
+  /**
+   * Solves for the lookahead point, from the table if the query is inside it.
+   *
+   * @param distance Launcher to target distance (m)
+   * @param radialVelocity Field velocity component toward the target (m/s)
+   * @param tangentialVelocity Field velocity component 90 degrees counterclockwise of the target
+   *     bearing (m/s)
+   * @param out Receives the solution, indexed by {@link #LOOKAHEAD_DISTANCE}, {@link
+   *     #HEADING_OFFSET} and {@link #TIME_OF_FLIGHT}
+   * @return true if the table answered, false if the iterative fallback did
+   */
+  boolean solve(double distance, double radialVelocity, double tangentialVelocity, double[] out) {
+    if (lookup(distance, radialVelocity, tangentialVelocity, out)) return true;
+    solveIterative(timeOfFlight, distance, radialVelocity, tangentialVelocity, out);
+    return false;
+  }
+
+  /**
+   * Interpolates the solution from the table.
+   *
+   * @return false, leaving {@code out} untouched, if the query is outside the table
+   */
+  boolean lookup(double distance, double radialVelocity, double tangentialVelocity, double[] out) {
+    double speed = Math.abs(tangentialVelocity);
+    double di = (distance - minDistance) / distanceStep;
+    double ri = (radialVelocity + maxVelocity()) / velocityStep;
+    double ti = speed / velocityStep;
+    if (!(di >= 0 && di <= distanceCount - 1)) return false;
+    if (!(ri >= 0 && ri <= radialCount - 1)) return false;
+    if (!(ti <= tangentialCount - 1)) return false;
+
+    // Lower corner of the cell, kept one short of the last point so the upper corner exists
+    int i = Math.min((int) di, distanceCount - 2);
+    int j = Math.min((int) ri, radialCount - 2);
+    int k = Math.min((int) ti, tangentialCount - 2);
+    if (!usable[index(i, j, k)]) return false;
+
+    interpolateCell(i, j, k, di - i, ri - j, ti - k, out);
+    if (tangentialVelocity < 0) out[HEADING_OFFSET] = -out[HEADING_OFFSET];
+    return true;
+  }
+
+  /**
+   * Iterates the lookahead fixed point, stopping early once the lookahead distance settles.
+   *
+   * @return the number of iterations taken
+   */
+  static int solveIterative(
+      DoubleUnaryOperator timeOfFlight,
+      double distance,
+      double radialVelocity,
+      double tangentialVelocity,
+      double[] out) {
+    double lookahead = distance;
+    double time = 0;
+    int iterations = 0;
+    while (iterations < MAX_ITERATIONS) {
+      iterations++;
+      time = timeOfFlight.applyAsDouble(lookahead);
+      double next = Math.hypot(distance - radialVelocity * time, tangentialVelocity * time);
+      boolean converged = Math.abs(next - lookahead) < CONVERGENCE_TOLERANCE;
+      lookahead = next;
+      if (converged) break;
+    }
+
+    out[LOOKAHEAD_DISTANCE] = lookahead;
+    out[HEADING_OFFSET] = Math.atan2(-tangentialVelocity * time, distance - radialVelocity * time);
+    out[TIME_OF_FLIGHT] = time;
+    return iterations;
+  }
+
+  private void interpolateCell(int i, int j, int k, double fd, double fr, double ft, double[] out) {
+    out[LOOKAHEAD_DISTANCE] = interpolate(lookaheadDistance, i, j, k, fd, fr, ft);
+    out[HEADING_OFFSET] = interpolate(headingOffset, i, j, k, fd, fr, ft);
+    out[TIME_OF_FLIGHT] = interpolate(flightTime, i, j, k, fd, fr, ft);
+  }
+
+  private double interpolate(
+      double[] values, int i, int j, int k, double fd, double fr, double ft) {
+    double near = bilinear(values, i, j, k, fr, ft);
+    double far = bilinear(values, i + 1, j, k, fr, ft);
+    return near + (far - near) * fd;
+  }
+
+  private double bilinear(double[] values, int i, int j, int k, double fr, double ft) {
+    int base = index(i, j, k);
+    double v00 = values[base];
+    double v01 = values[base + 1];
+    double v10 = values[base + tangentialCount];
+    double v11 = values[base + tangentialCount + 1];
+    double low = v00 + (v01 - v00) * ft;
+    double high = v10 + (v11 - v10) * ft;
+    return low + (high - low) * fr;
+  }
+
+  /**
+   * Solves every half velocity step at a half distance step, and stores the grid points among them
+   * in the table.
+   *
+   * @param halfDistance Distance from the table's closest, in half steps
+   * @param slice Receives the solutions, indexed by {@link #sliceOffset}
+   */
+  private void solveSlice(
+      int halfDistance, double[] slice, double[] solution, boolean[] converged) {
+    double distance = minDistance + 0.5 * halfDistance * distanceStep;
+    for (int halfRadial = 0; halfRadial < 2 * radialCount - 1; halfRadial++) {
+      for (int halfTangential = 0; halfTangential < 2 * tangentialCount - 1; halfTangential++) {
+        int iterations =
+            solveIterative(
+                timeOfFlight,
+                distance,
+                (0.5 * halfRadial - (tangentialCount - 1)) * velocityStep,
+                0.5 * halfTangential * velocityStep,
+                solution);
+        System.arraycopy(
+            solution, 0, slice, sliceOffset(halfRadial, halfTangential), SOLUTION_LENGTH);
+        if (halfDistance % 2 != 0 || halfRadial % 2 != 0 || halfTangential % 2 != 0) continue;
+
+        int index = index(halfDistance / 2, halfRadial / 2, halfTangential / 2);
+        lookaheadDistance[index] = solution[LOOKAHEAD_DISTANCE];
+        headingOffset[index] = solution[HEADING_OFFSET];
+        flightTime[index] = solution[TIME_OF_FLIGHT];
+        converged[index] = iterations < MAX_ITERATIONS;
+      }
+    }
+  }
+
+  /**
+   * Compares interpolation against the iterative solver at a cell's center and at the midpoints of
+   * its faces and edges. Corners are grid points, so they match exactly.
+   *
+   * @param slices The solved half steps across the cell's row, near face first
+   */
+  private boolean cellMatchesSolver(int i, int j, int k, double[][] slices, double[] interpolated) {
+    for (int point = 0; point < 27; point++) {
+      int d = point % 3;
+      int r = point / 3 % 3;
+      int t = point / 9;
+      if (d != 1 && r != 1 && t != 1) continue;
+
+      double[] solution = slices[d];
+      int offset = sliceOffset(2 * j + r, 2 * k + t);
+      interpolateCell(i, j, k, 0.5 * d, 0.5 * r, 0.5 * t, interpolated);
+      double lookahead = solution[offset + LOOKAHEAD_DISTANCE];
+      double miss =
+          Math.hypot(
+              interpolated[LOOKAHEAD_DISTANCE] - lookahead,
+              lookahead * (interpolated[HEADING_OFFSET] - solution[offset + HEADING_OFFSET]));
+      double timeError = interpolated[TIME_OF_FLIGHT] - solution[offset + TIME_OF_FLIGHT];
+      if (miss > CELL_MISS_TOLERANCE || Math.abs(timeError) > CELL_TIME_OF_FLIGHT_TOLERANCE) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean cornersConverged(boolean[] converged, int i, int j, int k) {
+    for (int corner = 0; corner < 8; corner++) {
+      int index = index(i + (corner & 1), j + ((corner >> 1) & 1), k + ((corner >> 2) & 1));
+      if (!converged[index]) return false;
+    }
+    return true;
+  }
+
+  private int index(int i, int j, int k) {
+    return (i * radialCount + j) * tangentialCount + k;
+  }
+
+  private int sliceOffset(int halfRadial, int halfTangential) {
+    return (halfRadial * (2 * tangentialCount - 1) + halfTangential) * SOLUTION_LENGTH;
+  }
+}
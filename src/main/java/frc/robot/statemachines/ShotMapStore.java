@@ -0,0 +1,134 @@
+package frc.robot.statemachines;
+
+import edu.wpi.first.epilogue.Logged;
+import edu.wpi.first.epilogue.NotLogged;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
+import frc.robot.subsystems.shooter.ShotMap;
+import java.io.File;
+import java.io.IOException;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * The shot map in use, loaded from {@value #FILE_NAME} in the deploy directory.
+ *
+ * <p>A {@link Notifier} checks the file's modification time every {@link #POLL_PERIOD} seconds and
+ * reloads it when it changes or when {@link #reloadCommand()} has run. Loading, including the
+ * shoot-on-the-move tables built from the new time of flight maps, happens on the notifier thread;
+ * the result is published as one {@link Snapshot}, so readers see the old version or the new one
+ * and never a mix. A file that fails to load is logged and leaves the current map in place. If the
+ * first load fails, {@link ShotMap#BUILT_IN} is used.
+ *
+ * <p>Bump the file's version on every change; each launch request logs the version it was built
+ * with.
+ */
+@Logged
+public class ShotMapStore {
+  private static ShotMapStore single_instance = null;
+
+  public static synchronized ShotMapStore getInstance() {
+    if (single_instance == null) single_instance = new ShotMapStore();
+    return single_instance;
+  }
+
+  static final String FILE_NAME = "shotmap.json";
+  static final double POLL_PERIOD = 1.0; // seconds
+
+  /** A shot map and the lookahead tables built from it. */
+  static final class Snapshot {
+    final ShotMap shotMap;
+    final DoubleUnaryOperator hubTimeOfFlight;
+    final DoubleUnaryOperator passingTimeOfFlight;
+    final ShootOnTheMoveTable hubTable;
+    final ShootOnTheMoveTable passingTable;
+
+    Snapshot(ShotMap shotMap) {
+      this.shotMap = shotMap;
+      hubTimeOfFlight = shotMap::getHubTimeOfFlight;
+      passingTimeOfFlight = shotMap::getPassingTimeOfFlight;
+      hubTable = LaunchCalculator.createTable(hubTimeOfFlight);
+      passingTable = LaunchCalculator.createTable(passingTimeOfFlight);
+    }
+  }
+
+  @NotLogged private final File file = new File(Filesystem.getDeployDirectory(), FILE_NAME);
+  @NotLogged private final Notifier poller;
+
+  @NotLogged private volatile Snapshot snapshot;
+  @NotLogged private volatile boolean reloadRequested = false;
+  // Notifier thread only once it starts
+  @NotLogged private long loadedModified;
+
+  @Logged(name = "Loads")
+  private volatile int loads = 0;
+
+  @Logged(name = "Load Error")
+  private volatile String loadError = "";
+
+  private ShotMapStore() {
+    loadedModified = file.lastModified();
+    Snapshot loaded = load();
+    snapshot = loaded != null ? loaded : new Snapshot(ShotMap.BUILT_IN);
+
+    poller = new Notifier(this::poll);
+    poller.setName("Shot Map Reload");
+    poller.startPeriodic(POLL_PERIOD);
+  }
+
+  /** The current map and its lookahead tables. Read once per use so they stay consistent. */
+  Snapshot getSnapshot() {
+    return snapshot;
+  }
+
+  @NotLogged
+  public ShotMap getShotMap() {
+    return snapshot.shotMap;
+  }
+
+  @Logged(name = "Version")
+  public String getVersion() {
+    return snapshot.shotMap.getVersion();
+  }
+
+  /** Reloads the shot map on the next poll, whether or not the file changed. */
+  public Command reloadCommand() {
+    return Commands.runOnce(() -> reloadRequested = true)
+        .ignoringDisable(true)
+        .withName("Reload Shot Map");
+  }
+
+  private void poll() {
+    long modified = file.lastModified();
+    if (!reloadRequested && modified == loadedModified) return;
+
+    // A failed load is not retried until the file changes again or a reload is requested
+    reloadRequested = false;
+    loadedModified = modified;
+    Snapshot loaded = load();
+    if (loaded != null) snapshot = loaded;
+  }
+
+  private Snapshot load() {
+    try {
+      Snapshot loaded = new Snapshot(ShotMap.load(file));
+      loads++;
+      loadError = "";
+      ShotMap shotMap = loaded.shotMap;
+      DataLogManager.log(
+          String.format(
+              "Loaded shot map version %s, launch speed ratio %.3f (%.3f to %.3f)",
+              shotMap.getVersion(),
+              shotMap.getLaunchSpeedRatio(),
+              shotMap.getMinLaunchSpeedRatio(),
+              shotMap.getMaxLaunchSpeedRatio()));
+      return loaded;
+    } catch (IOException e) {
+      loadError = e.getMessage();
+      DataLogManager.log("Could not load shot map " + file + ": " + e.getMessage());
+      return null;
+    }
+  }
+}
@@ -46,4 +46,26 @@ public class DriveConstants {
   public static final AngularAcceleration WHEEL_RADIUS_TEST_RAMP_RATE =
       RadiansPerSecondPerSecond.of(0.05);
   public static final Distance DRIVETRAIN_RADIUS = Inches.of(15.365);
+
+  // Odometry thread rate. Phoenix's default is 250 Hz on CAN FD (the DriveTrain CANivore).
+  public static final double ODOMETRY_FREQUENCY = 250; // Hz
+
+  // Odometry samples slower than this many nominal periods are counted as over budget. Health is
+  // published every ODOMETRY_HEALTH_PUBLISH_CYCLES loops.
+  public static final double ODOMETRY_OVER_BUDGET_FACTOR = 1.5;
+  public static final int ODOMETRY_HEALTH_PUBLISH_CYCLES = 50;
+
+  // Drive telemetry NetworkTables rate. The hoot log is still written at the odometry rate; 0
+  // publishes everything on the odometry thread for every sample.
+  public static final double TELEMETRY_PUBLISH_FREQUENCY = 50; // Hz
+
+  // Vision estimates are scaled by their tier's trust scale (multiplies the standard deviations),
+  // then estimates captured within the coalesce window that agree on the pose within the gates
+  // are merged into one pose estimator update.
+  public static final double VISION_TIER_1_TRUST_SCALE = 2.0; // 1 camera
+  public static final double VISION_TIER_2_TRUST_SCALE = 1.4; // 2 cameras
+  public static final double VISION_TIER_3_TRUST_SCALE = 1.0; // 3+ cameras
+  public static final double VISION_COALESCE_WINDOW = 0.005; // seconds
+  public static final double VISION_COALESCE_DISTANCE_GATE = 0.5; // meters
+  public static final double VISION_COALESCE_ANGLE_GATE = Math.toRadians(15); // radians
 }
@@ -17,4 +17,22 @@ public final class DrivePreferences {
 
   public static DoublePreference autoAimMaxSpeed =
       new DoublePreference("Drive/AutoAim/MaxDriveSpeed", 2);
+
+  public static DoublePreference visionTier1TrustScale =
+      new DoublePreference(
+          "Drive/Vision/Tier1TrustScale", DriveConstants.VISION_TIER_1_TRUST_SCALE);
+  public static DoublePreference visionTier2TrustScale =
+      new DoublePreference(
+          "Drive/Vision/Tier2TrustScale", DriveConstants.VISION_TIER_2_TRUST_SCALE);
+  public static DoublePreference visionTier3TrustScale =
+      new DoublePreference(
+          "Drive/Vision/Tier3TrustScale", DriveConstants.VISION_TIER_3_TRUST_SCALE);
+  public static DoublePreference visionCoalesceWindow =
+      new DoublePreference("Drive/Vision/CoalesceWindow", DriveConstants.VISION_COALESCE_WINDOW);
+  public static DoublePreference visionCoalesceDistanceGate =
+      new DoublePreference(
+          "Drive/Vision/CoalesceDistanceGate", DriveConstants.VISION_COALESCE_DISTANCE_GATE);
+  public static DoublePreference visionCoalesceAngleGate =
+      new DoublePreference(
+          "Drive/Vision/CoalesceAngleGate", DriveConstants.VISION_COALESCE_ANGLE_GATE);
 }
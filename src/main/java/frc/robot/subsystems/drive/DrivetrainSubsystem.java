@@ -6,6 +6,7 @@ import static edu.wpi.first.units.Units.RadiansPerSecond;
 import static edu.wpi.first.units.Units.RadiansPerSecondPerSecond;
 
 import com.ctre.phoenix6.configs.ProximityParamsConfigs;
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
 import com.ctre.phoenix6.swerve.SwerveModule.DriveRequestType;
 import com.ctre.phoenix6.swerve.SwerveModule.SteerRequestType;
 import com.ctre.phoenix6.swerve.SwerveRequest;
@@ -16,9 +17,14 @@ import com.pathplanner.lib.config.RobotConfig;
 import com.pathplanner.lib.controllers.PPHolonomicDriveController;
 import com.pathplanner.lib.path.PathPlannerPath;
 import edu.wpi.first.epilogue.Logged;
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.filter.SlewRateLimiter;
+import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
@@ -28,19 +34,59 @@ import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine.Direction;
 import frc.robot.generated.CommandSwerveDrivetrain;
 import frc.robot.generated.TunerConstants;
 import frc.robot.statemachines.DriveState;
+import frc.robot.subsystems.vision.VisionConstants;
 import frc.robot.subsystems.vision.VisionSubsystem.VisionMeasurement;
-import java.util.ArrayList;
+import java.util.function.Consumer;
 
 @Logged
 public class DrivetrainSubsystem extends CommandSwerveDrivetrain {
 
   private DriveState driveState = DriveState.getInstance();
 
+  // Vision estimates drained each loop, indexed by cameras-used tier (1-3)
+  private final VisionMeasurement[][] visionEstimates = {
+    null,
+    VisionMeasurement.buffer(VisionConstants.VISION_QUEUE_CAPACITY),
+    VisionMeasurement.buffer(VisionConstants.VISION_QUEUE_CAPACITY),
+    VisionMeasurement.buffer(VisionConstants.VISION_QUEUE_CAPACITY)
+  };
+  private final int[] visionEstimateCounts = new int[4];
+
+  // Vision hand-off health per tier, 1 camera first
+  @Logged(name = "Vision Queue/Dropped")
+  private final long[] visionQueueDropped = new long[3];
+
+  @Logged(name = "Vision Queue/High Water Mark")
+  private final int[] visionQueueHighWaterMark = new int[3];
+
+  // Refilled for each pose estimator update; CTRE copies it into the native estimator
+  private final Matrix<N3, N1> visionStdDevs = new Matrix<>(Nat.N3(), Nat.N1());
+
+  // Merges every tier into time-ordered pose estimator updates
+  private final VisionUpdateStage visionUpdateStage =
+      new VisionUpdateStage(3 * VisionConstants.VISION_QUEUE_CAPACITY);
+
+  @Logged(name = "Vision Updates/Estimates")
+  private int visionUpdateEstimates = 0;
+
+  @Logged(name = "Vision Updates/Applied")
+  private int visionUpdatesApplied = 0;
+
+  @Logged(name = "Odometry Health")
+  private final OdometryHealthMonitor odometryHealth =
+      new OdometryHealthMonitor(
+          TunerConstants.kCANBus,
+          DriveConstants.ODOMETRY_FREQUENCY,
+          DriveConstants.ODOMETRY_OVER_BUDGET_FACTOR);
+
+  private int cyclesSinceOdometryHealthPublish = 0;
+
   //   private final CANrange drive_canrange;
 
   public DrivetrainSubsystem() {
     super(
         TunerConstants.DrivetrainConstants,
+        DriveConstants.ODOMETRY_FREQUENCY,
         TunerConstants.FrontLeft,
         TunerConstants.FrontRight,
         TunerConstants.BackLeft,
@@ -52,31 +98,46 @@ public class DrivetrainSubsystem extends CommandSwerveDrivetrain {
     applyDriveGains();
     configureAutoBuilder();
     configureCANrange();
+
+    // Publish every odometry sample straight from the odometry thread
+    super.registerTelemetry(state -> recordOdometry(state, null));
+  }
+
+  /** Registers telemetry that runs on the odometry thread after DriveState is updated. */
+  @Override
+  public void registerTelemetry(Consumer<SwerveDriveState> telemetryFunction) {
+    super.registerTelemetry(state -> recordOdometry(state, telemetryFunction));
+  }
+
+  /**
+   * Runs on the odometry thread for every sample. The time it takes, telemetry included, is
+   * recorded as part of the odometry health.
+   */
+  private void recordOdometry(SwerveDriveState state, Consumer<SwerveDriveState> telemetry) {
+    long start = System.nanoTime();
+    driveState.publishOdometry(state);
+    if (telemetry != null) telemetry.accept(state);
+    odometryHealth.record(state, System.nanoTime() - start);
   }
 
   @Override
   public void periodic() {
     super.periodic();
 
-    ArrayList<VisionMeasurement> certainEstimates = driveState.grabVisionEstimateList(3);
-    ArrayList<VisionMeasurement> probableEstimates = driveState.grabVisionEstimateList(2);
-    ArrayList<VisionMeasurement> outlierEstimates = driveState.grabVisionEstimateList(1);
-
-    if (!certainEstimates.isEmpty()) {
-      for (VisionMeasurement estimate : certainEstimates)
-        this.addVisionMeasurement(
-            estimate.getEstimatedPose(), estimate.getTimestamp(), estimate.getTrust());
-    } else if (!probableEstimates.isEmpty()) {
-      for (VisionMeasurement estimate : probableEstimates)
-        this.addVisionMeasurement(
-            estimate.getEstimatedPose(), estimate.getTimestamp(), estimate.getTrust());
-    } else {
-      for (VisionMeasurement estimate : outlierEstimates)
-        this.addVisionMeasurement(
-            estimate.getEstimatedPose(), estimate.getTimestamp(), estimate.getTrust());
+    for (int tier = 1; tier <= 3; tier++) {
+      visionEstimateCounts[tier] = driveState.drainVisionEstimates(tier, visionEstimates[tier]);
+      visionQueueDropped[tier - 1] = driveState.getVisionEstimatesDropped(tier);
+      visionQueueHighWaterMark[tier - 1] = driveState.getVisionQueueHighWaterMark(tier);
     }
 
-    driveState.adjustCurrentDriveStats(this.getStateCopy());
+    applyVisionEstimates();
+
+    driveState.latchLoopSnapshot();
+
+    if (++cyclesSinceOdometryHealthPublish >= DriveConstants.ODOMETRY_HEALTH_PUBLISH_CYCLES) {
+      cyclesSinceOdometryHealthPublish = 0;
+      odometryHealth.publish();
+    }
 
     // SmartDashboard.putNumber(
     //     "Drive Canrange Distance", drive_canrange.getDistance(true).getValueAsDouble());
@@ -84,6 +145,57 @@ public class DrivetrainSubsystem extends CommandSwerveDrivetrain {
     SmartDashboard.putNumber("kP Preference Current", DrivePreferences.translation_kP.getValue());
   }
 
+  /**
+   * Applies this loop's vision estimates from every tier, oldest first, with near-simultaneous
+   * estimates that agree on the pose merged so the pose estimator gets one update per capture time.
+   */
+  private void applyVisionEstimates() {
+    visionUpdateStage.clear();
+    for (int tier = 1; tier <= 3; tier++) {
+      double trustScale = visionTrustScale(tier);
+      for (int i = 0; i < visionEstimateCounts[tier]; i++) {
+        visionUpdateStage.add(visionEstimates[tier][i], trustScale);
+      }
+    }
+
+    int updates =
+        visionUpdateStage.coalesce(
+            DrivePreferences.visionCoalesceWindow.getValue(),
+            DrivePreferences.visionCoalesceDistanceGate.getValue(),
+            DrivePreferences.visionCoalesceAngleGate.getValue());
+    for (int u = 0; u < updates; u++) {
+      visionStdDevs.set(0, 0, visionUpdateStage.xStdDev(u));
+      visionStdDevs.set(1, 0, visionUpdateStage.yStdDev(u));
+      visionStdDevs.set(2, 0, visionUpdateStage.thetaStdDev(u));
+      // CTRE only takes an immutable Pose2d, so building it is all that still allocates
+      this.addVisionMeasurement(
+          new Pose2d(
+              visionUpdateStage.x(u),
+              visionUpdateStage.y(u),
+              new Rotation2d(visionUpdateStage.theta(u))),
+          visionUpdateStage.timestamp(u),
+          visionStdDevs);
+    }
+
+    for (int tier = 1; tier <= 3; tier++) {
+      for (int i = 0; i < visionEstimateCounts[tier]; i++) {
+        driveState.recordVisionFused(visionEstimates[tier][i]);
+      }
+    }
+    visionUpdateEstimates = visionUpdateStage.size();
+    visionUpdatesApplied = updates;
+  }
+
+  private static double visionTrustScale(int tier) {
+    if (tier >= 3) {
+      return DrivePreferences.visionTier3TrustScale.getValue();
+    } else if (tier == 2) {
+      return DrivePreferences.visionTier2TrustScale.getValue();
+    } else {
+      return DrivePreferences.visionTier1TrustScale.getValue();
+    }
+  }
+
   public Command sysIdSteer() {
     return m_sysIdRoutineSteer
         .quasistatic(Direction.kForward)
@@ -0,0 +1,242 @@
+package frc.robot.subsystems.drive;
+
+import com.ctre.phoenix6.CANBus;
+import com.ctre.phoenix6.CANBus.CANBusStatus;
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+import edu.wpi.first.epilogue.Logged;
+import edu.wpi.first.epilogue.NotLogged;
+import java.util.Arrays;
+
+/**
+ * Timing health of the Phoenix odometry thread.
+ *
+ * <p>Every odometry sample's {@code OdometryPeriod} goes into a fixed-width histogram, along with
+ * the running min, max and sum, and the DAQ counters are tracked. Samples whose period is over
+ * budget (a multiple of the configured odometry period) are counted, and the most recent are kept
+ * with their timestamps. The time the odometry thread spends in its telemetry callback is
+ * tracked too, since it delays the next sample. Recording is allocation-free and only holds the
+ * monitor's lock briefly, so it is safe on the odometry thread.
+ *
+ * <p>{@link #publish()} runs at a low rate on the main thread. It turns the window since the last
+ * publish into min/mean/max/p99 period, the achieved sample rate and the DAQ failure count, reads
+ * the drive CAN bus utilization to compare against, and starts a new window.
+ */
+@Logged
+public final class OdometryHealthMonitor {
+
+  // Histogram of odometry periods in fixed bins; the last bin also counts anything longer
+  private static final double BIN_WIDTH = 20e-6; // seconds
+  private static final int BIN_COUNT = 1000;
+
+  private static final int RECENT_EVENTS = 16;
+
+  @NotLogged private final CANBus canBus;
+  @NotLogged private final double budget;
+
+  // Current window; guarded by this
+  @NotLogged private final long[] bins = new long[BIN_COUNT];
+  @NotLogged private long windowSamples = 0;
+  @NotLogged private double windowSum = 0;
+  @NotLogged private double windowMin = Double.POSITIVE_INFINITY;
+  @NotLogged private double windowMax = 0;
+  @NotLogged private int windowOverBudget = 0;
+  @NotLogged private int latestSuccessfulDaqs = 0;
+  @NotLogged private int latestFailedDaqs = 0;
+  @NotLogged private long windowCallbackNanos = 0;
+  @NotLogged private long windowCallbackMaxNanos = 0;
+  @NotLogged private long windowCallbacks = 0;
+
+  // Most recent over-budget samples, oldest overwritten first; guarded by this
+  @NotLogged private final double[] eventTimes = new double[RECENT_EVENTS];
+  @NotLogged private final double[] eventPeriods = new double[RECENT_EVENTS];
+  @NotLogged private long eventCount = 0;
+
+  // Main thread only
+  @NotLogged private final long[] binSnapshot = new long[BIN_COUNT];
+  @NotLogged private int windowStartFailedDaqs = 0;
+  @NotLogged private double lastPublishTimestamp = Double.NaN;
+  @NotLogged private double latestTimestamp = Double.NaN;
+
+  @Logged(name = "Period/Min")
+  private double periodMin = Double.NaN;
+
+  @Logged(name = "Period/Mean")
+  private double periodMean = Double.NaN;
+
+  @Logged(name = "Period/Max")
+  private double periodMax = Double.NaN;
+
+  @Logged(name = "Period/p99")
+  private double periodP99 = Double.NaN;
+
+  @Logged(name = "Sample Rate")
+  private double sampleRate = Double.NaN;
+
+  // Odometry thread telemetry callback duration (microseconds)
+  @Logged(name = "Callback/Mean")
+  private double callbackMean = Double.NaN;
+
+  @Logged(name = "Callback/Max")
+  private double callbackMax = Double.NaN;
+
+  @Logged(name = "DAQs/Successful")
+  private int successfulDaqs = 0;
+
+  @Logged(name = "DAQs/Failed")
+  private int failedDaqs = 0;
+
+  @Logged(name = "DAQs/Failed In Window")
+  private int failedDaqsInWindow = 0;
+
+  @Logged(name = "Over Budget/Total")
+  private long overBudgetTotal = 0;
+
+  @Logged(name = "Over Budget/In Window")
+  private int overBudgetInWindow = 0;
+
+  // Oldest first, in drivetrain time
+  @Logged(name = "Over Budget/Recent Timestamps")
+  private double[] recentOverBudgetTimes = new double[0];
+
+  @Logged(name = "Over Budget/Recent Periods")
+  private double[] recentOverBudgetPeriods = new double[0];
+
+  @Logged(name = "CAN Bus/Utilization")
+  private double canBusUtilization = Double.NaN;
+
+  @Logged(name = "CAN Bus/TX Full Count")
+  private int canBusTxFullCount = 0;
+
+  /**
+   * @param canBus Bus the drivetrain odometry signals are on
+   * @param odometryFrequency Configured odometry frequency (Hz)
+   * @param budgetFactor A sample is over budget when its period exceeds this many nominal periods
+   */
+  public OdometryHealthMonitor(CANBus canBus, double odometryFrequency, double budgetFactor) {
+    this.canBus = canBus;
+    this.budget = budgetFactor / odometryFrequency;
+  }
+
+  /**
+   * Records an odometry sample. Called from the odometry thread.
+   *
+   * @param state The sample
+   * @param callbackNanos Time the odometry thread spent handling the sample
+   */
+  public synchronized void record(SwerveDriveState state, long callbackNanos) {
+    windowCallbacks++;
+    windowCallbackNanos += callbackNanos;
+    if (callbackNanos > windowCallbackMaxNanos) windowCallbackMaxNanos = callbackNanos;
+
+    double period = state.OdometryPeriod;
+    latestSuccessfulDaqs = state.SuccessfulDaqs;
+    latestFailedDaqs = state.FailedDaqs;
+    latestTimestamp = state.Timestamp;
+    if (!(period > 0)) return;
+
+    bins[Math.min((int) (period / BIN_WIDTH), BIN_COUNT - 1)]++;
+    windowSamples++;
+    windowSum += period;
+    if (period < windowMin) windowMin = period;
+    if (period > windowMax) windowMax = period;
+
+    if (period > budget) {
+      int slot = (int) (eventCount % RECENT_EVENTS);
+      eventTimes[slot] = state.Timestamp;
+      eventPeriods[slot] = period;
+      eventCount++;
+      windowOverBudget++;
+    }
+  }
+
+  /** Publishes the window since the last call and starts a new one. Main thread only. */
+  public void publish() {
+    long samples;
+    double sum;
+    double min;
+    double max;
+    double timestamp;
+    long callbacks;
+    long callbackNanos;
+    long callbackMaxNanos;
+    synchronized (this) {
+      System.arraycopy(bins, 0, binSnapshot, 0, BIN_COUNT);
+      Arrays.fill(bins, 0);
+      samples = windowSamples;
+      sum = windowSum;
+      min = windowMin;
+      max = windowMax;
+      overBudgetInWindow = windowOverBudget;
+      windowSamples = 0;
+      windowSum = 0;
+      windowMin = Double.POSITIVE_INFINITY;
+      windowMax = 0;
+      windowOverBudget = 0;
+      callbacks = windowCallbacks;
+      callbackNanos = windowCallbackNanos;
+      callbackMaxNanos = windowCallbackMaxNanos;
+      windowCallbacks = 0;
+      windowCallbackNanos = 0;
+      windowCallbackMaxNanos = 0;
+
+      successfulDaqs = latestSuccessfulDaqs;
+      failedDaqs = latestFailedDaqs;
+      timestamp = latestTimestamp;
+      overBudgetTotal = eventCount;
+      copyRecentEvents();
+    }
+
+    if (samples > 0) {
+      periodMin = min;
+      periodMax = max;
+      periodMean = sum / samples;
+      periodP99 = Math.min(percentile(samples, 0.99), max);
+    } else {
+      periodMin = Double.NaN;
+      periodMax = Double.NaN;
+      periodMean = Double.NaN;
+      periodP99 = Double.NaN;
+    }
+
+    callbackMean = callbacks > 0 ? callbackNanos / 1e3 / callbacks : Double.NaN;
+    callbackMax = callbacks > 0 ? callbackMaxNanos / 1e3 : Double.NaN;
+
+    double elapsed = timestamp - lastPublishTimestamp;
+    sampleRate = elapsed > 0 ? samples / elapsed : Double.NaN;
+    lastPublishTimestamp = timestamp;
+
+    failedDaqsInWindow = failedDaqs - windowStartFailedDaqs;
+    windowStartFailedDaqs = failedDaqs;
+
+    CANBusStatus status = canBus.getStatus();
+    canBusUtilization = status.BusUtilization;
+    canBusTxFullCount = status.TxFullCount;
+  }
+
+  /** Copies the recent over-budget events, oldest first. Caller holds the lock. */
+  private void copyRecentEvents() {
+    int count = (int) Math.min(eventCount, RECENT_EVENTS);
+    if (recentOverBudgetTimes.length != count) {
+      // Only grows while the first events come in, then stays at RECENT_EVENTS
+      recentOverBudgetTimes = new double[count];
+      recentOverBudgetPeriods = new double[count];
+    }
+    long first = eventCount - count;
+    for (int i = 0; i < count; i++) {
+      int slot = (int) ((first + i) % RECENT_EVENTS);
+      recentOverBudgetTimes[i] = eventTimes[slot];
+      recentOverBudgetPeriods[i] = eventPeriods[slot];
+    }
+  }
+
+  /** Upper edge of the bin holding the given fraction of the snapshot's samples. */
+  private double percentile(long samples, double fraction) {
+    long rank = (long) Math.ceil(fraction * samples);
+    long seen = 0;
+    for (int bin = 0; bin < BIN_COUNT; bin++) {
+      seen += binSnapshot[bin];
+      if (seen >= rank) return (bin + 1) * BIN_WIDTH;
+    }
+    return BIN_COUNT * BIN_WIDTH;
+  }
+}
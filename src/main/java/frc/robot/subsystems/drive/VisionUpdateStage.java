@@ -0,0 +1,270 @@
+package frc.robot.subsystems.drive;
+
+import edu.wpi.first.math.MathUtil;
+import frc.robot.subsystems.vision.VisionSubsystem.VisionMeasurement;
+
+/**
+ * Turns one loop's vision estimates, from every trust tier, into time-ordered pose estimator
+ * updates.
+ *
+ * <p>Each estimate's standard deviations are multiplied by its tier's trust scale, so a
+ * single-camera estimate still counts but counts for less than a multi-camera one. Estimates are
+ * then sorted by capture time and grouped: an estimate joins the first group whose first estimate
+ * was captured within the coalesce window before it and agrees with it on the pose, within a
+ * translation and a heading gate (by default the same as vision clustering's). Estimates that
+ * disagree are kept as separate updates at their own timestamps, so an outlier is never averaged
+ * into a good estimate. Each group becomes one update, the inverse-variance weighted mean of its
+ * members, with the combined (smaller) standard deviation. Headings are averaged on the circle.
+ *
+ * <p>Applying one update per group, oldest first, means the pose estimator sees each timestamp once
+ * and in order, so it replays its odometry buffer once per group instead of once per estimate.
+ *
+ * <p>All storage is preallocated, so staging does not allocate.
+ */
+final class VisionUpdateStage {
+
+  // Staged estimates
+  private final double[] timestamp;
+  private final double[] x;
+  private final double[] y;
+  private final double[] theta;
+  private final double[] xVariance;
+  private final double[] yVariance;
+  private final double[] thetaVariance;
+  private final int[] order;
+  private int size = 0;
+
+  // Coalesced updates, with each group's first estimate and running sums while grouping
+  private final int[] updateAnchor;
+  private final double[] sumTimeWeight;
+  private final double[] sumTime;
+  private final double[] sumXWeight;
+  private final double[] sumX;
+  private final double[] sumYWeight;
+  private final double[] sumY;
+  private final double[] sumThetaWeight;
+  private final double[] sumSin;
+  private final double[] sumCos;
+  private final int[] updateOrder;
+  private final double[] updateTimestamp;
+  private final double[] updateX;
+  private final double[] updateY;
+  private final double[] updateTheta;
+  private final double[] updateXStdDev;
+  private final double[] updateYStdDev;
+  private final double[] updateThetaStdDev;
+  private final int[] updateMembers;
+  private int updateCount = 0;
+
+  VisionUpdateStage(int capacity) {
+    timestamp = new double[capacity];
+    x = new double[capacity];
+    y = new double[capacity];
+    theta = new double[capacity];
+    xVariance = new double[capacity];
+    yVariance = new double[capacity];
+    thetaVariance = new double[capacity];
+    order = new int[capacity];
+
+    updateAnchor = new int[capacity];
+    sumTimeWeight = new double[capacity];
+    sumTime = new double[capacity];
+    sumXWeight = new double[capacity];
+    sumX = new double[capacity];
+    sumYWeight = new double[capacity];
+    sumY = new double[capacity];
+    sumThetaWeight = new double[capacity];
+    sumSin = new double[capacity];
+    sumCos = new double[capacity];
+    updateOrder = new int[capacity];
+    updateTimestamp = new double[capacity];
+    updateX = new double[capacity];
+    updateY = new double[capacity];
+    updateTheta = new double[capacity];
+    updateXStdDev = new double[capacity];
+    updateYStdDev = new double[capacity];
+    updateThetaStdDev = new double[capacity];
+    updateMembers = new int[capacity];
+  }
+
+  void clear() {
+    size = 0;
+    updateCount = 0;
+  }
+
+  /**
+   * Stages an estimate.
+   *
+   * @param estimate Estimate from the vision queue
+   * @param trustScale Multiplier on the estimate's standard deviations for its tier
+   * @return false if the stage is full and the estimate was not staged
+   */
+  boolean add(VisionMeasurement estimate, double trustScale) {
+    if (size == timestamp.length) return false;
+
+    int i = size++;
+    timestamp[i] = estimate.getTimestamp();
+    x[i] = estimate.getX();
+    y[i] = estimate.getY();
+    theta[i] = estimate.getTheta();
+    xVariance[i] = variance(estimate.getXyStdDev() * trustScale);
+    yVariance[i] = variance(estimate.getXyStdDev() * trustScale);
+    thetaVariance[i] = variance(estimate.getThetaStdDev() * trustScale);
+    return true;
+  }
+
+  /**
+   * Sorts the staged estimates by capture time and coalesces them into updates.
+   *
+   * @param coalesceWindow Estimates captured within this long after the first estimate of an
+   *     update may be merged into it (seconds)
+   * @param distanceGate Estimates only merge if their translations are closer than this (meters)
+   * @param angleGate Estimates only merge if their headings differ by less than this (radians)
+   * @return the number of updates
+   */
+  int coalesce(double coalesceWindow, double distanceGate, double angleGate) {
+    sortByTimestamp();
+
+    // Groups start in time order, so those whose window has passed are never reopened
+    updateCount = 0;
+    int firstOpen = 0;
+    for (int k = 0; k < size; k++) {
+      int e = order[k];
+      while (firstOpen < updateCount
+          && timestamp[e] - timestamp[updateAnchor[firstOpen]] > coalesceWindow) {
+        firstOpen++;
+      }
+
+      int u = firstOpen;
+      while (u < updateCount && !agrees(updateAnchor[u], e, distanceGate, angleGate)) u++;
+      if (u == updateCount) startUpdate(u, e);
+
+      double xWeight = 1.0 / xVariance[e];
+      double yWeight = 1.0 / yVariance[e];
+      double thetaWeight = 1.0 / thetaVariance[e];
+
+      sumXWeight[u] += xWeight;
+      sumX[u] += xWeight * x[e];
+      sumYWeight[u] += yWeight;
+      sumY[u] += yWeight * y[e];
+      sumThetaWeight[u] += thetaWeight;
+      sumSin[u] += thetaWeight * Math.sin(theta[e]);
+      sumCos[u] += thetaWeight * Math.cos(theta[e]);
+
+      // Weight capture times by translation trust, which dominates the update
+      sumTimeWeight[u] += xWeight + yWeight;
+      sumTime[u] += (xWeight + yWeight) * timestamp[e];
+      updateMembers[u]++;
+    }
+
+    for (int u = 0; u < updateCount; u++) {
+      updateTimestamp[u] = sumTime[u] / sumTimeWeight[u];
+      updateX[u] = sumX[u] / sumXWeight[u];
+      updateY[u] = sumY[u] / sumYWeight[u];
+      updateTheta[u] =
+          updateMembers[u] == 1 ? theta[updateAnchor[u]] : Math.atan2(sumSin[u], sumCos[u]);
+      updateXStdDev[u] = Math.sqrt(1.0 / sumXWeight[u]);
+      updateYStdDev[u] = Math.sqrt(1.0 / sumYWeight[u]);
+      updateThetaStdDev[u] = Math.sqrt(1.0 / sumThetaWeight[u]);
+    }
+    sortUpdatesByTimestamp();
+    return updateCount;
+  }
+
+  /** Number of estimates staged this loop. */
+  int size() {
+    return size;
+  }
+
+  /** Capture timestamp of an update (FPGA seconds). Updates are in increasing time order. */
+  double timestamp(int u) {
+    return updateTimestamp[updateOrder[u]];
+  }
+
+  double x(int u) {
+    return updateX[updateOrder[u]];
+  }
+
+  double y(int u) {
+    return updateY[updateOrder[u]];
+  }
+
+  double theta(int u) {
+    return updateTheta[updateOrder[u]];
+  }
+
+  double xStdDev(int u) {
+    return updateXStdDev[updateOrder[u]];
+  }
+
+  double yStdDev(int u) {
+    return updateYStdDev[updateOrder[u]];
+  }
+
+  double thetaStdDev(int u) {
+    return updateThetaStdDev[updateOrder[u]];
+  }
+
+  /** Number of estimates merged into an update. */
+  int members(int u) {
+    return updateMembers[updateOrder[u]];
+  }
+
+  /**
+   * Insertion sort of the staged estimates into {@link #order}. A loop's estimates are few and
+   * mostly in order already, since each tier's queue is.
+   */
+  private void sortByTimestamp() {
+    for (int i = 0; i < size; i++) {
+      int e = i;
+      int j = i - 1;
+      while (j >= 0 && timestamp[order[j]] > timestamp[e]) {
+        order[j + 1] = order[j];
+        j--;
+      }
+      order[j + 1] = e;
+    }
+  }
+
+  /** Whether two estimates agree on the pose closely enough to merge. */
+  private boolean agrees(int a, int b, double distanceGate, double angleGate) {
+    return Math.hypot(x[a] - x[b], y[a] - y[b]) < distanceGate
+        && Math.abs(MathUtil.angleModulus(theta[a] - theta[b])) < angleGate;
+  }
+
+  private void startUpdate(int u, int anchor) {
+    updateCount++;
+    updateAnchor[u] = anchor;
+    sumTimeWeight[u] = 0;
+    sumTime[u] = 0;
+    sumXWeight[u] = 0;
+    sumX[u] = 0;
+    sumYWeight[u] = 0;
+    sumY[u] = 0;
+    sumThetaWeight[u] = 0;
+    sumSin[u] = 0;
+    sumCos[u] = 0;
+    updateMembers[u] = 0;
+  }
+
+  /**
+   * Insertion sort of the updates into {@link #updateOrder}. Groups start in time order, but a
+   * group's weighted timestamp can pass that of a group started after it.
+   */
+  private void sortUpdatesByTimestamp() {
+    for (int i = 0; i < updateCount; i++) {
+      int u = i;
+      int j = i - 1;
+      while (j >= 0 && updateTimestamp[updateOrder[j]] > updateTimestamp[u]) {
+        updateOrder[j + 1] = updateOrder[j];
+        j--;
+      }
+      updateOrder[j + 1] = u;
+    }
+  }
+
+  private static double variance(double stdDev) {
+    // A zero standard deviation would claim infinite trust and take over every merge
+    return Math.max(stdDev * stdDev, 1e-12);
+  }
+}
@@ -78,7 +78,7 @@ public class LemonHunterSubsystem extends SubsystemBase {
     PhotonPipelineResult latestResult = results.get(results.size() - 1);
     latestTargets.addAll(latestResult.targets);
 
-    Pose2d robotPose = driveState.getCurrentDriveStats().Pose;
+    Pose2d robotPose = driveState.getCurrentSnapshot().toPose2d();
 
     for (var target : latestTargets) {
       Pose3d lemonPose = estimateLemon3dPose(robotPose, target);
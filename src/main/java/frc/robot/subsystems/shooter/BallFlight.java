@@ -0,0 +1,156 @@
+package frc.robot.subsystems.shooter;
+
+import static edu.wpi.first.units.Units.Degrees;
+import static edu.wpi.first.units.Units.Meters;
+import static edu.wpi.first.units.Units.Rotations;
+
+/**
+ * Flight of a launched ball under gravity and quadratic air drag.
+ *
+ * <p>Flights are integrated with the midpoint method, one {@link #step} at a time. {@link #descend}
+ * flies in the vertical plane through the launcher; other simulations step in 3D. Hood rotations
+ * from the shot map become a launch angle from vertical of {@link
+ * ShooterConstants#HOOD_ANGLE_AT_REVERSE_LIMIT} plus one degree per {@link
+ * ShooterConstants#ROTATIONS_PER_LAUNCH_DEGREE}. How much of the flywheel surface speed the ball
+ * leaves with isn't modeled; {@link #speedToReach} solves for the exit speed instead, and callers
+ * compare it with the flywheel. Ball size, mass and drag coefficient are estimates.
+ */
+public final class BallFlight {
+
+  public static final double GRAVITY = 9.8; // meters per second squared
+  public static final double BALL_RADIUS = 0.075; // meters
+  private static final double BALL_MASS = 0.215; // kilograms
+  private static final double DRAG_COEFFICIENT = 0.47; // sphere
+  private static final double AIR_DENSITY = 1.2; // kilograms per cubic meter
+
+  /** Drag deceleration per speed squared (1 / m). */
+  public static final double DRAG =
+      0.5 * AIR_DENSITY * DRAG_COEFFICIENT * Math.PI * BALL_RADIUS * BALL_RADIUS / BALL_MASS;
+
+  public static final double TIME_STEP = 0.005; // seconds
+  public static final double MAX_FLIGHT_TIME = 4.0; // seconds
+  private static final double MAX_SPEED = 25.0; // meters per second
+  private static final int SPEED_ITERATIONS = 20;
+
+  // Indices into the result of descend and speedToReach
+  static final int DISTANCE = 0;
+  static final int TIME = 1;
+
+  /** Index of each value in a ball state advanced by {@link #step}; z is up. */
+  public static final int X = 0;
+
+  public static final int Y = 1;
+  public static final int Z = 2;
+  public static final int VX = 3;
+  public static final int VY = 4;
+  public static final int VZ = 5;
+
+  /** Length of a ball state. */
+  public static final int STATE_LENGTH = 6;
+
+  private static final double LAUNCH_HEIGHT = ShooterConstants.SHOOTER_HEIGHT.in(Meters);
+  private static final double HOOD_DEGREES_AT_REVERSE_LIMIT =
+      ShooterConstants.HOOD_ANGLE_AT_REVERSE_LIMIT.in(Degrees);
+  private static final double HOOD_ROTATIONS_PER_DEGREE =
+      ShooterConstants.ROTATIONS_PER_LAUNCH_DEGREE.in(Rotations);
+  private static final double FLYWHEEL_CIRCUMFERENCE =
+      2 * Math.PI * ShooterConstants.FLYWHEEL_RADIUS.in(Meters);
+
+  private BallFlight() {}
+
+  /** Launch angle above horizontal (rad) for a mapped hood position. */
+  public static double launchElevation(double hoodRotations) {
+    return Math.toRadians(
+        90 - HOOD_DEGREES_AT_REVERSE_LIMIT - hoodRotations / HOOD_ROTATIONS_PER_DEGREE);
+  }
+
+  /** Flywheel surface speed (m/s). */
+  public static double surfaceSpeed(double flywheelRotationsPerSecond) {
+    return flywheelRotationsPerSecond * FLYWHEEL_CIRCUMFERENCE;
+  }
+
+  /**
+   * Flies a ball from the launcher until it comes down through a height.
+   *
+   * @param elevation Launch angle above horizontal (rad)
+   * @param speed Exit speed (m/s)
+   * @param height Height above the floor (m)
+   * @param out Receives the horizontal distance (m) and time (s) where it comes down through the
+   *     height, at {@link #DISTANCE} and {@link #TIME}
+   * @return false if it never does; {@code out} is then NaN
+   */
+  static boolean descend(double elevation, double speed, double height, double[] out) {
+    double[] ball = new double[STATE_LENGTH];
+    double[] next = new double[STATE_LENGTH];
+    ball[Z] = LAUNCH_HEIGHT;
+    ball[VX] = speed * Math.cos(elevation);
+    ball[VZ] = speed * Math.sin(elevation);
+
+    for (double t = 0; t < MAX_FLIGHT_TIME; t += TIME_STEP) {
+      step(ball, next);
+      if (ball[Z] >= height && next[Z] < height) {
+        double fraction = (ball[Z] - height) / (ball[Z] - next[Z]);
+        out[DISTANCE] = ball[X] + fraction * (next[X] - ball[X]);
+        out[TIME] = t + fraction * TIME_STEP;
+        return true;
+      }
+      double[] swap = ball;
+      ball = next;
+      next = swap;
+    }
+
+    out[DISTANCE] = Double.NaN;
+    out[TIME] = Double.NaN;
+    return false;
+  }
+
+  /**
+   * Advances a ball by {@link #TIME_STEP} under gravity and quadratic drag (midpoint method).
+   *
+   * @param from Position (m) and velocity (m/s), indexed by {@link #X} through {@link #VZ}
+   * @param to Receives the state one step later; must not be {@code from}
+   */
+  public static void step(double[] from, double[] to) {
+    double vx = from[VX];
+    double vy = from[VY];
+    double vz = from[VZ];
+    double drag = DRAG * Math.sqrt(vx * vx + vy * vy + vz * vz);
+    double halfVx = vx - 0.5 * TIME_STEP * drag * vx;
+    double halfVy = vy - 0.5 * TIME_STEP * drag * vy;
+    double halfVz = vz - 0.5 * TIME_STEP * (GRAVITY + drag * vz);
+
+    double halfDrag = DRAG * Math.sqrt(halfVx * halfVx + halfVy * halfVy + halfVz * halfVz);
+    to[X] = from[X] + TIME_STEP * halfVx;
+    to[Y] = from[Y] + TIME_STEP * halfVy;
+    to[Z] = from[Z] + TIME_STEP * halfVz;
+    to[VX] = vx - TIME_STEP * halfDrag * halfVx;
+    to[VY] = vy - TIME_STEP * halfDrag * halfVy;
+    to[VZ] = vz - TIME_STEP * (GRAVITY + halfDrag * halfVz);
+  }
+
+  /**
+   * Finds the exit speed at which a ball launched at an angle comes down through a height at a
+   * distance, by bisection. If even the slowest ball that reaches the height comes down past the
+   * distance, that is the one returned.
+   *
+   * @param elevation Launch angle above horizontal (rad)
+   * @param distance Horizontal distance (m)
+   * @param height Height above the floor (m)
+   * @param out Receives the flight at that speed, as from {@link #descend}
+   * @return the exit speed (m/s), or NaN if no speed up to {@value #MAX_SPEED} m/s gets there
+   */
+  static double speedToReach(double elevation, double distance, double height, double[] out) {
+    double low = 0;
+    double high = MAX_SPEED;
+    if (!descend(elevation, high, height, out) || out[DISTANCE] < distance) return Double.NaN;
+
+    // Too slow to reach the height at all counts as short
+    for (int i = 0; i < SPEED_ITERATIONS; i++) {
+      double speed = 0.5 * (low + high);
+      if (descend(elevation, speed, height, out) && out[DISTANCE] >= distance) high = speed;
+      else low = speed;
+    }
+    descend(elevation, high, height, out);
+    return high;
+  }
+}
@@ -0,0 +1,67 @@
+package frc.robot.subsystems.shooter;
+
+import java.util.Arrays;
+
+/**
+ * Piecewise linear lookup table over primitive doubles.
+ *
+ * <p>Behaves like {@link edu.wpi.first.math.interpolation.InterpolatingDoubleTreeMap}: lookups
+ * between two keys interpolate linearly and lookups outside the keys return the nearest end value.
+ * Keys are kept sorted in arrays and searched with a binary search, so lookups do not box or
+ * allocate. Fill it at startup; {@link #put} copies the arrays.
+ */
+public final class InterpolatingDoubleTable {
+
+  private double[] keys = new double[0];
+  private double[] values = new double[0];
+
+  /** Adds a point, replacing the value if the key is already present. */
+  public void put(double key, double value) {
+    int index = Arrays.binarySearch(keys, key);
+    if (index >= 0) {
+      values[index] = value;
+      return;
+    }
+
+    int insert = -index - 1;
+    double[] newKeys = new double[keys.length + 1];
+    double[] newValues = new double[values.length + 1];
+    System.arraycopy(keys, 0, newKeys, 0, insert);
+    System.arraycopy(values, 0, newValues, 0, insert);
+    newKeys[insert] = key;
+    newValues[insert] = value;
+    System.arraycopy(keys, insert, newKeys, insert + 1, keys.length - insert);
+    System.arraycopy(values, insert, newValues, insert + 1, values.length - insert);
+    keys = newKeys;
+    values = newValues;
+  }
+
+  /** Smallest key, or NaN if the table is empty. */
+  public double firstKey() {
+    return keys.length > 0 ? keys[0] : Double.NaN;
+  }
+
+  /** Largest key, or NaN if the table is empty. */
+  public double lastKey() {
+    return keys.length > 0 ? keys[keys.length - 1] : Double.NaN;
+  }
+
+  /** Interpolated value at the key, or 0 if the table is empty. */
+  public double get(double key) {
+    int size = keys.length;
+    if (size == 0) return 0;
+    if (!(key > keys[0])) return values[0];
+    if (key >= keys[size - 1]) return values[size - 1];
+
+    // First key above the query; keys[0] < key < keys[size - 1], so 1 <= high <= size - 1
+    int low = 0;
+    int high = size - 1;
+    while (high - low > 1) {
+      int mid = (low + high) >>> 1;
+      if (keys[mid] <= key) low = mid;
+      else high = mid;
+    }
+    double t = (key - keys[low]) / (keys[high] - keys[low]);
+    return values[low] + (values[high] - values[low]) * t;
+  }
+}
@@ -1,66 +1,110 @@
 package frc.robot.subsystems.shooter;
 
 import edu.wpi.first.epilogue.Logged;
-import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.units.measure.Angle;
-import edu.wpi.first.units.measure.AngularVelocity;
-import edu.wpi.first.units.measure.Distance;
+import edu.wpi.first.epilogue.NotLogged;
 
+/**
+ * A launch solution: where to put the hood and flywheel, and how the robot should turn to aim.
+ *
+ * <p>Values are primitive doubles in the units their names give, and instances are mutable so the
+ * same few can be refilled every loop; {@link frc.robot.statemachines.LaunchState} owns them and
+ * the builders fill them. Hold on to one only for the loop it was handed out in.
+ *
+ * <p>Logging goes through the {@code @Logged} accessors, which keep the names and base units these
+ * values were logged with when they were WPILib measures.
+ */
 @Logged
 public class LaunchRequest {
-  @Logged(name = "Launch Hood Angle", importance = Logged.Importance.CRITICAL)
-  private Angle launchHoodTarget;
-
-  @Logged(name = "Launch Flywheel Velocity", importance = Logged.Importance.CRITICAL)
-  private AngularVelocity launchVelocity;
+  @NotLogged private double hoodRotations;
+  @NotLogged private double flywheelRotationsPerSecond;
+  @NotLogged private double targetRobotAngularVelocity; // radians per second
+  @NotLogged private double targetRobotAngle; // radians
+  @NotLogged private double targetDistance; // meters
 
-  @Logged(name = "Target Robot Angular Velocity", importance = Logged.Importance.CRITICAL)
-  private AngularVelocity targetRobotAngularVelocity;
+  // False when no shot satisfies the builder's constraints and this is its closest attempt
+  @Logged(name = "Feasible", importance = Logged.Importance.CRITICAL)
+  private boolean feasible = true;
 
-  @Logged(name = "Target Robot Angle", importance = Logged.Importance.CRITICAL)
-  private Rotation2d targetRobotAngle;
+  private double timestamp;
 
-  @Logged(name = "Robot distance to Target", importance = Logged.Importance.CRITICAL)
-  private Distance targetDistance;
+  @Logged(name = "Shot Map Version", importance = Logged.Importance.CRITICAL)
+  private String shotMapVersion = "";
 
-  private double timestamp;
+  /** Sets the hood and flywheel targets. */
+  void setShot(double hoodRotations, double flywheelRotationsPerSecond, boolean feasible) {
+    this.hoodRotations = hoodRotations;
+    this.flywheelRotationsPerSecond = flywheelRotationsPerSecond;
+    this.feasible = feasible;
+  }
 
-  public LaunchRequest(
-      Angle launchHoodTarget,
-      AngularVelocity launchVelocity,
-      AngularVelocity targetRobotAngularVelocity,
-      Rotation2d targetRobotAngle,
-      Distance targetDistance,
+  /** Sets how the robot should turn to aim, and when the request was made. */
+  void setAim(
+      double targetRobotAngularVelocity,
+      double targetRobotAngle,
+      double targetDistance,
       double timestamp) {
-    this.launchHoodTarget = launchHoodTarget;
-    this.launchVelocity = launchVelocity;
     this.targetRobotAngularVelocity = targetRobotAngularVelocity;
     this.targetRobotAngle = targetRobotAngle;
     this.targetDistance = targetDistance;
     this.timestamp = timestamp;
   }
 
-  public Angle getHoodTarget() {
-    return launchHoodTarget;
+  /** Records the version of the shot map this request was built with. */
+  void setShotMapVersion(String shotMapVersion) {
+    this.shotMapVersion = shotMapVersion;
   }
 
-  public AngularVelocity getFlywheelVelocity() {
-    return launchVelocity;
+  @NotLogged
+  public double getHoodRotations() {
+    return hoodRotations;
   }
 
-  public AngularVelocity getTargetRobotAngularVelocity() {
+  @NotLogged
+  public double getFlywheelRotationsPerSecond() {
+    return flywheelRotationsPerSecond;
+  }
+
+  /** Radians per second. */
+  @Logged(name = "Target Robot Angular Velocity", importance = Logged.Importance.CRITICAL)
+  public double getTargetRobotAngularVelocity() {
     return targetRobotAngularVelocity;
   }
 
-  public Rotation2d getTargetRobotAngle() {
+  /** Field heading, radians. */
+  @Logged(name = "Target Robot Angle", importance = Logged.Importance.CRITICAL)
+  public double getTargetRobotAngle() {
     return targetRobotAngle;
   }
 
-  public Distance getTargetDistance() {
+  /** Meters. */
+  @Logged(name = "Robot distance to Target", importance = Logged.Importance.CRITICAL)
+  public double getTargetDistance() {
     return targetDistance;
   }
 
+  @NotLogged
+  public boolean isFeasible() {
+    return feasible;
+  }
+
+  @NotLogged
   public double getTimestamp() {
     return timestamp;
   }
+
+  @NotLogged
+  public String getShotMapVersion() {
+    return shotMapVersion;
+  }
+
+  // Hood and flywheel are logged in radians, as they were when they were Measures
+  @Logged(name = "Launch Hood Angle", importance = Logged.Importance.CRITICAL)
+  public double getHoodRadians() {
+    return hoodRotations * 2 * Math.PI;
+  }
+
+  @Logged(name = "Launch Flywheel Velocity", importance = Logged.Importance.CRITICAL)
+  public double getFlywheelRadiansPerSecond() {
+    return flywheelRotationsPerSecond * 2 * Math.PI;
+  }
 }
@@ -1,14 +1,24 @@
 package frc.robot.subsystems.shooter;
 
-import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.units.measure.AngularVelocity;
-import edu.wpi.first.units.measure.Distance;
-
 public interface LaunchRequestBuilder {
-  public LaunchRequest createLaunchRequest(
+  /**
+   * Fills a launch request for a shot.
+   *
+   * @param shotMap Shot map in use for this request, recorded in it
+   * @param passing Whether the target is a passing target rather than the hub
+   * @param distance Launch distance, after any shoot-on-the-move lookahead (m)
+   * @param targetRobotAngularVelocity Rate to turn the robot at to hold aim (rad/s)
+   * @param targetRobotAngle Field heading to aim the robot at (rad)
+   * @param targetDistance Current distance to the target (m)
+   * @param out Request to fill
+   * @return {@code out}
+   */
+  public LaunchRequest updateLaunchRequest(
+      ShotMap shotMap,
       boolean passing,
       double distance,
-      AngularVelocity targetRobotAngularVelocity,
-      Rotation2d targetRobotAngle,
-      Distance targetDistance);
+      double targetRobotAngularVelocity,
+      double targetRobotAngle,
+      double targetDistance,
+      LaunchRequest out);
 }
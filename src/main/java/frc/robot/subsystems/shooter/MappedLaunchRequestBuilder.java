@@ -4,106 +4,47 @@
 
 package frc.robot.subsystems.shooter;
 
-import static edu.wpi.first.units.Units.Rotations;
-import static edu.wpi.first.units.Units.RotationsPerSecond;
-
 import com.ctre.phoenix6.Utils;
-import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.interpolation.InterpolatingDoubleTreeMap;
-import edu.wpi.first.units.measure.AngularVelocity;
-import edu.wpi.first.units.measure.Distance;
 
-/** Add your docs here. */
+/** Builds launch requests from the hood and flywheel tables of the current {@link ShotMap}. */
 public class MappedLaunchRequestBuilder implements LaunchRequestBuilder {
 
-  // Launching Maps
-  //   private static final InterpolatingTreeMap<Double, Rotation2d> hoodAngleMap =
-  //   new InterpolatingTreeMap<>(InverseInterpolator.forDouble(), Rotation2d::interpolate);
-  private static final InterpolatingDoubleTreeMap hoodAngleMap = new InterpolatingDoubleTreeMap();
-  private static final InterpolatingDoubleTreeMap flywheelSpeedMap =
-      new InterpolatingDoubleTreeMap();
-
-  static {
-    hoodAngleMap.put(1.66, 0.36);
-    hoodAngleMap.put(2.2, 1.31);
-    hoodAngleMap.put(2.39, 1.91);
-    hoodAngleMap.put(3.06, 2.4);
-    hoodAngleMap.put(3.81, 2.0);
-    hoodAngleMap.put(4.04, 2.6);
-    hoodAngleMap.put(5.18, 3.4);
-    hoodAngleMap.put(5.64, 3.4);
-
-    flywheelSpeedMap.put(1.66, 55.24);
-    flywheelSpeedMap.put(2.2, 55.24);
-    flywheelSpeedMap.put(2.39, 55.24);
-    flywheelSpeedMap.put(3.06, 62.1);
-    flywheelSpeedMap.put(3.81, 67.32);
-    flywheelSpeedMap.put(4.04, 67.32);
-    flywheelSpeedMap.put(5.18, 72.6);
-    flywheelSpeedMap.put(5.64, 76.18);
-
-    /* Previous session
-    hoodAngleMap.put(1.3, 0.0);
-    hoodAngleMap.put(2.0, 0.6);
-    hoodAngleMap.put(2.6, 1.4);
-    hoodAngleMap.put(3.1, 1.8);
-    hoodAngleMap.put(3.21, 2.2);
-    hoodAngleMap.put(3.7, 2.6);
-    hoodAngleMap.put(4.2, 2.6);
-    hoodAngleMap.put(5.4, 3.0);
-
-    flywheelSpeedMap.put(1.3, 51.9);
-    flywheelSpeedMap.put(2.0, 54.5);
-    flywheelSpeedMap.put(2.6, 57.1);
-    flywheelSpeedMap.put(3.1, 62.4);
-    flywheelSpeedMap.put(3.21, 62.2);
-    flywheelSpeedMap.put(3.7, 65.0);
-    flywheelSpeedMap.put(4.2, 67.6);
-    flywheelSpeedMap.put(5.4, 78.1);
-    */
+  private static MappedLaunchRequestBuilder single_instance = null;
 
-    /* Old shooter settings
-    hoodAngleMap.put(0.99, 0.0);
-    hoodAngleMap.put(1.62, 1.0);
-    hoodAngleMap.put(1.94, 2.1);
-    hoodAngleMap.put(2.53, 3.3);
-    hoodAngleMap.put(3.00, 4.0);
-    hoodAngleMap.put(3.51, 4.0);
-    hoodAngleMap.put(6.00, 6.1);
+  private MappedLaunchRequestBuilder() {}
 
-    flywheelSpeedMap.put(0.99, 57.7);
-    flywheelSpeedMap.put(1.62, 64.3);
-    flywheelSpeedMap.put(1.94, 64.7);
-    flywheelSpeedMap.put(3.00, 74.5);
-    flywheelSpeedMap.put(3.51, 80.0);
-    flywheelSpeedMap.put(6.00, 108.0);
-    */
+  public static synchronized MappedLaunchRequestBuilder getInstance() {
+    if (single_instance == null) single_instance = new MappedLaunchRequestBuilder();
+    return single_instance;
   }
 
-  public LaunchRequest createLaunchRequest(
+  public LaunchRequest updateLaunchRequest(
+      ShotMap shotMap,
       boolean passing,
       double distance,
-      AngularVelocity targetRobotAngularVelocity,
-      Rotation2d targetRobotAngle,
-      Distance targetDistance) {
+      double targetRobotAngularVelocity,
+      double targetRobotAngle,
+      double targetDistance,
+      LaunchRequest out) {
 
     double hoodAngle, flywheelSpeed;
     if (passing) {
-      hoodAngle = 6.1;
+      hoodAngle = ShooterConstants.PASSING_HOOD_ROTATIONS;
       flywheelSpeed = ShooterPreferences.passingFlywheelSpeed.getValue();
     } else {
       // calculate hood angle
-      hoodAngle = hoodAngleMap.get(distance);
+      hoodAngle = shotMap.getHoodRotations(distance);
       // calculate flywheel speed
-      flywheelSpeed = flywheelSpeedMap.get(distance);
+      flywheelSpeed = shotMap.getFlywheelRotationsPerSecond(distance);
     }
 
-    return new LaunchRequest(
-        Rotations.of(hoodAngle),
-        RotationsPerSecond.of(flywheelSpeed),
+    out.setShot(hoodAngle, flywheelSpeed, true);
+    out.setAim(
         targetRobotAngularVelocity,
         targetRobotAngle,
         targetDistance,
         Utils.getCurrentTimeSeconds());
+    out.setShotMapVersion(shotMap.getVersion());
+    return out;
   }
 }
@@ -4,82 +4,47 @@
 
 package frc.robot.subsystems.shooter;
 
-import static edu.wpi.first.units.Units.*;
+import static edu.wpi.first.units.Units.Meters;
 
 import com.ctre.phoenix6.Utils;
-import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.units.measure.Angle;
-import edu.wpi.first.units.measure.AngularVelocity;
-import edu.wpi.first.units.measure.Distance;
-import edu.wpi.first.units.measure.LinearVelocity;
 
-/** Add your docs here. */
+/**
+ * Builds launch requests from a parabolic trajectory into the target, solved in closed form by
+ * {@link ParabolicLaunchSolver}. Never leaves a request unset: when no shot satisfies the
+ * constraints, the request is the closest attempt and is marked infeasible.
+ */
 public class ParabolicLaunchRequestBuilder implements LaunchRequestBuilder {
 
-  public LaunchRequest createLaunchRequest(
-      boolean passing,
-      double distance,
-      AngularVelocity targetRobotAngularVelocity,
-      Rotation2d targetRobotAngle,
-      Distance targetDistance) {
-    double y1 = ShooterConstants.SHOOTER_HEIGHT.in(Meters);
-    double x2 = distance;
-    double y2 = passing ? 0 : ShooterConstants.HUB_HEIGHT.in(Meters);
-
-    double slope;
-    if (passing) slope = ShooterConstants.OPTIMAL_PASSING_ENTRY_SLOPE;
-    else slope = ShooterConstants.OPTIMAL_HUB_ENTRY_SLOPE;
-
-    double a, b, vertex, hitWallCheckX;
-    Angle theta, motorAngle;
-    int count = 0;
-    do {
-      // system of equations
-      // (y2) = a(x2*x2) + b(x2) + y1
-      // slope = 2a(x2) + b
-      a = (slope * x2 + y1 - y2) / (x2 * x2);
-      b = (slope - 2 * a * x2);
-      theta = Radians.of(Math.atan(b)); // launch angle (Hood Angle Conversion: MATH.PI/2 - theta)
-      motorAngle = Radians.of(Math.PI / 2 - theta.in(Radians));
-      vertex = -1 * b / (2 * a);
-      hitWallCheckX = x2 - ShooterConstants.FROM_HUB_CENTER_TO_WALL.in(Meters);
-      slope -= 0.05;
-    } while (count++ < 30
-        && (!passing
-            && a * Math.pow(hitWallCheckX, 2) + b * hitWallCheckX + y1
-                < ShooterConstants.HUB_HEIGHT.in(Meters))
-        && (motorAngle.in(Degrees) > ShooterConstants.MIN_HOOD_ANGLE.in(Degrees)));
-
-    if (motorAngle.in(Degrees) < ShooterConstants.MIN_HOOD_ANGLE.in(Degrees)) return null;
+  private static ParabolicLaunchRequestBuilder single_instance = null;
 
-    motorAngle =
-        Rotations.of(
-            motorAngle.in(Degrees)
-                * ShooterConstants.ROTATIONS_PER_LAUNCH_DEGREE.in(
-                    Rotations)); // converts from hood angle to motor rotations
+  private ParabolicLaunchRequestBuilder() {}
 
-    // system of equations
-    // (-b/2a) = (velocity)*cos(theta)*t
-    // 2g(t) = (velocity)*sin(theta)
-    LinearVelocity velocity =
-        MetersPerSecond.of(
-            Math.sqrt(
-                2 * 9.8 * vertex / (Math.sin(theta.in(Radians)) * Math.cos(theta.in(Radians)))));
-
-    // Calculate angular velocity using the formula: angular velocity (rotations per second) =
-    // linear velocity / circumference
-    double angularVelocityMagnitude =
-        velocity.in(MetersPerSecond) / (Math.PI * 2 * ShooterConstants.FLYWHEEL_RADIUS.in(Meters));
+  public static synchronized ParabolicLaunchRequestBuilder getInstance() {
+    if (single_instance == null) single_instance = new ParabolicLaunchRequestBuilder();
+    return single_instance;
+  }
 
-    // Create a typed AngularVelocity object (optional, for use within the units library ecosystem)
-    AngularVelocity angularVelocity = RotationsPerSecond.of(angularVelocityMagnitude);
+  private static final ParabolicLaunchSolver hubSolver =
+      new ParabolicLaunchSolver(
+          ShooterConstants.HUB_HEIGHT.in(Meters), ShooterConstants.OPTIMAL_HUB_ENTRY_SLOPE, true);
+  private static final ParabolicLaunchSolver passingSolver =
+      new ParabolicLaunchSolver(0, ShooterConstants.OPTIMAL_PASSING_ENTRY_SLOPE, false);
 
-    return new LaunchRequest(
-        motorAngle,
-        angularVelocity,
+  public LaunchRequest updateLaunchRequest(
+      ShotMap shotMap,
+      boolean passing,
+      double distance,
+      double targetRobotAngularVelocity,
+      double targetRobotAngle,
+      double targetDistance,
+      LaunchRequest out) {
+    (passing ? passingSolver : hubSolver).solve(distance, out);
+    out.setAim(
         targetRobotAngularVelocity,
         targetRobotAngle,
         targetDistance,
         Utils.getCurrentTimeSeconds());
+    out.setShotMapVersion(shotMap.getVersion());
+    return out;
   }
 }
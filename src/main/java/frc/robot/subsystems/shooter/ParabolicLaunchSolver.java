@@ -0,0 +1,137 @@
+package frc.robot.subsystems.shooter;
+
+import static edu.wpi.first.units.Units.Degrees;
+import static edu.wpi.first.units.Units.Meters;
+import static edu.wpi.first.units.Units.Rotations;
+
+/**
+ * Closed-form hood angle and flywheel speed for a parabolic shot.
+ *
+ * <p>The trajectory is the parabola through the launcher and the target that enters the target at
+ * a chosen slope. With the launcher at the origin, both the height where the parabola crosses the
+ * hub wall and the launch slope are linear in the entry slope, so each constraint bounds the entry
+ * slope directly:
+ *
+ * <ul>
+ *   <li>clearing the wall by {@link ShooterConstants#WALL_CLEARANCE} gives the shallowest entry
+ *       slope allowed
+ *   <li>keeping the hood at or above {@link ShooterConstants#MIN_HOOD_ANGLE} gives the steepest
+ * </ul>
+ *
+ * <p>The solution is the optimal entry slope clamped into that range. If the range is empty, no
+ * shot satisfies both constraints: the solver reports infeasible and returns the minimum hood angle
+ * shot, which comes closest to clearing the wall. The cost is the same for every distance and
+ * nothing is allocated.
+ *
+ * <p>Solutions are memoized in a table quantized to {@link #MEMO_RESOLUTION}, filled in the
+ * constructor. The table is never written after that, so one solver can be shared between threads.
+ */
+final class ParabolicLaunchSolver {
+
+  static final double MEMO_RESOLUTION = 0.01; // meters
+  static final double MEMO_MAX_DISTANCE = 12.0; // meters
+
+  private static final double GRAVITY = 9.8; // meters per second squared
+
+  private final double launchHeight = ShooterConstants.SHOOTER_HEIGHT.in(Meters);
+  private final double minHoodDegrees = ShooterConstants.MIN_HOOD_ANGLE.in(Degrees);
+  private final double hoodRotationsPerDegree =
+      ShooterConstants.ROTATIONS_PER_LAUNCH_DEGREE.in(Rotations);
+  private final double flywheelCircumference =
+      2 * Math.PI * ShooterConstants.FLYWHEEL_RADIUS.in(Meters);
+  // Launch slope (tan of launch angle) at the minimum hood angle
+  private final double maxLaunchSlope = Math.tan(Math.toRadians(90 - minHoodDegrees));
+  private final double wallOffset = ShooterConstants.FROM_HUB_CENTER_TO_WALL.in(Meters);
+  private final double wallHeight =
+      ShooterConstants.HUB_HEIGHT.in(Meters) + ShooterConstants.WALL_CLEARANCE.in(Meters);
+
+  private final double targetHeight;
+  private final double entrySlope;
+  private final boolean clearWall;
+
+  private final double[] memoHood;
+  private final double[] memoFlywheel;
+  private final boolean[] memoFeasible;
+
+  /**
+   * @param targetHeight Height the shot lands at (m)
+   * @param entrySlope Preferred slope of the trajectory at the target (negative is descending)
+   * @param clearWall Whether the shot has to clear the hub wall
+   */
+  ParabolicLaunchSolver(double targetHeight, double entrySlope, boolean clearWall) {
+    this.targetHeight = targetHeight;
+    this.entrySlope = entrySlope;
+    this.clearWall = clearWall;
+
+    int buckets = (int) Math.ceil(MEMO_MAX_DISTANCE / MEMO_RESOLUTION) + 1;
+    memoHood = new double[buckets];
+    memoFlywheel = new double[buckets];
+    memoFeasible = new boolean[buckets];
+
+    LaunchRequest solution = new LaunchRequest();
+    for (int bucket = 0; bucket < buckets; bucket++) {
+      memoFeasible[bucket] = solveExact(bucket * MEMO_RESOLUTION, solution);
+      memoHood[bucket] = solution.getHoodRotations();
+      memoFlywheel[bucket] = solution.getFlywheelRotationsPerSecond();
+    }
+  }
+
+  /**
+   * Solves for a shot, from the memo table when the distance is in range.
+   *
+   * @param distance Horizontal distance to the target (m)
+   * @param out Receives the hood target and flywheel speed
+   * @return false if no shot satisfies the constraints; {@code out} then holds the closest one
+   */
+  boolean solve(double distance, LaunchRequest out) {
+    if (!(distance >= 0 && distance <= MEMO_MAX_DISTANCE)) return solveExact(distance, out);
+
+    int bucket = (int) Math.round(distance / MEMO_RESOLUTION);
+    boolean feasible = memoFeasible[bucket];
+    out.setShot(memoHood[bucket], memoFlywheel[bucket], feasible);
+    return feasible;
+  }
+
+  /** Solves for a shot at exactly this distance, bypassing the memo table. */
+  boolean solveExact(double distance, LaunchRequest out) {
+    double rise = targetHeight - launchHeight;
+    if (!(distance > 0)) return noShot(out);
+
+    // Entry slope that puts the launch at the minimum hood angle; any steeper and the hood would
+    // have to go lower
+    double minEntrySlope = 2 * rise / distance - maxLaunchSlope;
+    double maxEntrySlope = Double.POSITIVE_INFINITY;
+
+    double wallX = distance - wallOffset;
+    if (clearWall && wallX > 0) {
+      // Height at the wall is entrySlope * wallSlopeGain + wallBase
+      double wallSlopeGain = -wallX * wallOffset / distance;
+      double wallBase =
+          launchHeight + rise * wallX * (2 * distance - wallX) / (distance * distance);
+      maxEntrySlope = (wallHeight - wallBase) / wallSlopeGain;
+    }
+
+    boolean feasible = minEntrySlope <= maxEntrySlope;
+    double slope =
+        feasible ? Math.max(minEntrySlope, Math.min(entrySlope, maxEntrySlope)) : minEntrySlope;
+
+    // y = a x^2 + b x through the target with the chosen entry slope
+    double a = (slope * distance - rise) / (distance * distance);
+    double b = 2 * rise / distance - slope;
+    if (!(a < 0 && b > 0)) return noShot(out);
+
+    double hoodDegrees = 90 - Math.toDegrees(Math.atan(b));
+    // The builder's existing sqrt(2 g vertex / (sin(theta) cos(theta))), with the vertex at
+    // -b / 2a. That is sqrt(2) times the drag-free launch speed, which flywheel tuning absorbs
+    double velocity = Math.sqrt(-GRAVITY * (1 + b * b) / a);
+
+    out.setShot(hoodDegrees * hoodRotationsPerDegree, velocity / flywheelCircumference, feasible);
+    return feasible;
+  }
+
+  /** Distances with no upward arc to the target: hold the hood at minimum and idle the flywheel. */
+  private boolean noShot(LaunchRequest out) {
+    out.setShot(minHoodDegrees * hoodRotationsPerDegree, 0, false);
+    return false;
+  }
+}
@@ -125,6 +125,18 @@ public class ShooterConstants {
 
   public static final double ALLOWABLE_HOOD_ERROR = 0.1;
 
+  // Shot capture: a drop below the flywheel target of at least SHOT_DIP_THRESHOLD is a shot, and
+  // it has recovered once back within SHOT_RECOVERY_TOLERANCE
+  public static final double SHOT_DIP_THRESHOLD = 3.0; // rotations per second
+  public static final double SHOT_RECOVERY_TOLERANCE = 1.0; // rotations per second
+  public static final double SHOT_MAX_RECOVERY_TIME = 1.0; // seconds
+  public static final int SHOT_CAPTURE_CAPACITY = 256;
+  // While capturing, waiting shots are written once there are this many or this long after the
+  // last write. The latest shot is held back for SHOT_MARK_WINDOW so it can still be marked
+  public static final int SHOT_CAPTURE_FLUSH_SHOTS = 16;
+  public static final double SHOT_CAPTURE_FLUSH_PERIOD = 5.0; // seconds
+  public static final double SHOT_MARK_WINDOW = 3.0; // seconds
+
   public static final DutyCycleOut SAFE_HOMING_EFFORT = new DutyCycleOut(-0.2);
   public static final Current SAFE_STATOR_LIMIT = Amp.of(0.8);
 
@@ -136,7 +148,11 @@ public class ShooterConstants {
   public static final Distance SHOOTER_HEIGHT = Inch.of(25.5);
   public static final Distance HUB_HEIGHT = Inch.of(71.5);
   public static final Distance FROM_HUB_CENTER_TO_WALL = Inch.of(23.5);
+  public static final Distance WALL_CLEARANCE = Inch.of(2);
   public static final Angle MIN_HOOD_ANGLE = Degrees.of(20);
+  // Mapped hood rotations count from the reverse limit, taken to be the minimum hood angle
+  public static final Angle HOOD_ANGLE_AT_REVERSE_LIMIT = MIN_HOOD_ANGLE;
+  public static final double PASSING_HOOD_ROTATIONS = 6.1;
   public static final double OPTIMAL_PASSING_ENTRY_SLOPE = -1; // TODO: Tune
   public static final double OPTIMAL_HUB_ENTRY_SLOPE = -1; // TODO: Tune
 }
@@ -3,6 +3,7 @@ package frc.robot.subsystems.shooter;
 import static edu.wpi.first.units.Units.*;
 
 import com.ctre.phoenix6.SignalLogger;
+import com.ctre.phoenix6.Utils;
 import com.ctre.phoenix6.controls.Follower;
 import com.ctre.phoenix6.controls.PositionVoltage;
 import com.ctre.phoenix6.controls.VelocityVoltage;
@@ -12,8 +13,11 @@ import edu.wpi.first.epilogue.Logged;
 import edu.wpi.first.epilogue.Logged.Importance;
 import edu.wpi.first.units.measure.Angle;
 import edu.wpi.first.units.measure.AngularVelocity;
+import edu.wpi.first.units.measure.MutAngle;
+import edu.wpi.first.units.measure.MutAngularVelocity;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine;
 import frc.robot.statemachines.LaunchState;
@@ -35,10 +39,20 @@ public class ShooterSubsystem extends SubsystemBase {
   @Logged(name = "Hood Target (radians)", importance = Importance.CRITICAL)
   private Angle hoodTarget; // radians is the base unit.
 
+  // Reused by spinFlywheelRanged so following the launch request does not allocate
+  private final MutAngularVelocity rangedVelocityTarget = RotationsPerSecond.mutable(0);
+  private final MutAngle rangedHoodTarget = Rotations.mutable(0);
+
+  // False while spinFlywheelRanged is holding targets because its launch request is infeasible
+  private boolean launchFeasible = true;
+
   // For testing
   private double lastRPS = 0;
   private double lastHoodRot = 0;
 
+  private final ShotCapture shotCapture = new ShotCapture(ShooterConstants.SHOT_CAPTURE_CAPACITY);
+  private boolean capturingShots = false;
+
   private PositionVoltage hoodControl;
 
   final SysIdRoutine m_sysIdRoutineFlywheel =
@@ -106,10 +120,22 @@ public class ShooterSubsystem extends SubsystemBase {
 
   @Override
   public void periodic() {
-    launchState.refreshRequest();
     flywheelMotorLeftLeader.setControl(
         velocityControl.withVelocity(velocityTarget.in(RotationsPerSecond)));
     hoodMotor.setControl(hoodControl.withPosition(hoodTarget));
+
+    if (capturingShots) {
+      double now = Utils.getCurrentTimeSeconds();
+      LaunchRequest launchRequest = launchState.getLaunchRequest();
+      shotCapture.update(
+          now,
+          launchRequest != null ? launchRequest.getTargetDistance() : Double.NaN,
+          hoodTarget.in(Rotations),
+          velocityTarget.in(RotationsPerSecond),
+          flywheelMotorLeftLeader.getVelocity().getValueAsDouble(),
+          launchRequest != null ? launchRequest.getShotMapVersion() : "");
+      shotCapture.flushIfDue(now);
+    }
   }
 
   public void setFlywheelMotorOutput(double output) {
@@ -129,6 +155,22 @@ public class ShooterSubsystem extends SubsystemBase {
         < ShooterConstants.ALLOWABLE_HOOD_ERROR;
   }
 
+  /**
+   * Whether a ball fed now would be launched on a feasible shot. Only false while {@link
+   * #spinFlywheelRanged} is following an infeasible launch request; fixed setpoints are always
+   * feasible.
+   */
+  @Logged(name = "Launch Feasible", importance = Importance.CRITICAL)
+  public boolean isLaunchFeasible() {
+    return launchFeasible;
+  }
+
+  /** Whether the shot is feasible and the hood has reached it. */
+  @Logged(name = "Ready To Launch", importance = Importance.CRITICAL)
+  public boolean isReadyToLaunch() {
+    return launchFeasible && atHoodSetpoint();
+  }
+
   @Logged(name = "Velocity Target RPM", importance = Importance.CRITICAL)
   public double getFlywheelTargetRPM() {
     return velocityTarget.in(RotationsPerSecond) * 60;
@@ -139,6 +181,26 @@ public class ShooterSubsystem extends SubsystemBase {
     return velocityTarget.in(RotationsPerSecond);
   }
 
+  @Logged(name = "Captured Shots")
+  public long getCapturedShots() {
+    return shotCapture.recorded();
+  }
+
+  @Logged(name = "Dropped Shots")
+  public long getDroppedShots() {
+    return shotCapture.dropped();
+  }
+
+  @Logged(name = "Last Shot Dip RPS")
+  public double getLastShotDip() {
+    return shotCapture.lastDip();
+  }
+
+  @Logged(name = "Last Shot Recovery Seconds")
+  public double getLastShotRecoveryTime() {
+    return shotCapture.lastRecoveryTime();
+  }
+
   public Command spinFlywheelCommand() {
     return runOnce(
             () -> {
@@ -233,6 +295,32 @@ public class ShooterSubsystem extends SubsystemBase {
         .withName("Stop Shooter Tuning");
   }
 
+  /**
+   * Records every shot while running, with the distance to the current target, and appends them to
+   * a CSV file next to the logs every few shots or seconds and when it ends. Runs alongside the
+   * tuning commands rather than requiring the shooter.
+   */
+  public Command captureShotsCommand() {
+    return Commands.startEnd(
+            () -> {
+              launchState.subscribe();
+              shotCapture.reset();
+              capturingShots = true;
+            },
+            () -> {
+              capturingShots = false;
+              launchState.unsubscribe();
+              shotCapture.flush();
+            })
+        .withName("Capture Shots");
+  }
+
+  /** Marks the latest captured shot as made or missed. */
+  public Command markShotCommand(boolean made) {
+    return Commands.runOnce(() -> shotCapture.markLast(made))
+        .withName(made ? "Mark Shot Made" : "Mark Shot Missed");
+  }
+
   public Command spinFlywheelPostCommand() {
     return runOnce(
             () -> {
@@ -242,12 +330,32 @@ public class ShooterSubsystem extends SubsystemBase {
         .withName("Start Spinning Flywheel");
   }
 
+  /**
+   * Follows the launch request for the current target while running.
+   *
+   * <p>An infeasible request is only the builder's closest attempt, so the flywheel and hood hold
+   * their last targets instead of following it, and {@link #isLaunchFeasible} reports false until a
+   * feasible request comes back. If the first request is infeasible, whatever targets the shooter
+   * had before are held.
+   */
   public Command spinFlywheelRanged() {
-    return run(
-        () -> {
-          velocityTarget = launchState.getLaunchRequest().getFlywheelVelocity();
-          hoodTarget = launchState.getLaunchRequest().getHoodTarget();
-        });
+    return startRun(
+            launchState::subscribe,
+            () -> {
+              LaunchRequest launchRequest = launchState.getLaunchRequest();
+              launchFeasible = launchRequest.isFeasible();
+              if (!launchFeasible) return;
+              velocityTarget =
+                  rangedVelocityTarget.mut_replace(
+                      launchRequest.getFlywheelRotationsPerSecond(), RotationsPerSecond);
+              hoodTarget =
+                  rangedHoodTarget.mut_replace(launchRequest.getHoodRotations(), Rotations);
+            })
+        .finallyDo(
+            () -> {
+              launchFeasible = true;
+              launchState.unsubscribe();
+            });
   }
 
   public Command homeShooterCommand() {
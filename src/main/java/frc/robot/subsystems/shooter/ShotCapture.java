@@ -0,0 +1,269 @@
+package frc.robot.subsystems.shooter;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Records shots while tuning, for {@link ShotMapFitter} to turn into a shot map.
+ *
+ * <p>A shot is detected from the flywheel: once it is within {@link
+ * ShooterConstants#SHOT_RECOVERY_TOLERANCE} of its target, a drop of {@link
+ * ShooterConstants#SHOT_DIP_THRESHOLD} or more starts a shot, and getting back within tolerance
+ * ends it. Each shot keeps the distance, hood and flywheel targets from when the dip started, how
+ * far the flywheel dipped and how long it took to recover. The operator marks shots made or missed
+ * with {@link #markLast}; a mark given while a shot is still recovering applies to that shot.
+ *
+ * <p>Shots are kept in a preallocated struct-of-arrays ring. {@link #flush} appends the shots not
+ * yet written to a CSV file next to the robot's data logs, on a background thread, and {@link
+ * #flushIfDue} does so every few shots or seconds so a long session is not lost if the robot
+ * reboots. Once a shot is written, marks no longer reach it, so scheduled flushes hold the latest
+ * shot back for {@link ShooterConstants#SHOT_MARK_WINDOW}. If the ring fills between flushes the
+ * oldest shots are overwritten and counted in {@link #dropped}. Main thread only, apart from the
+ * file writes.
+ */
+final class ShotCapture {
+
+  static final String CSV_HEADER =
+      "timestamp,shot_map_version,distance_m,hood_rotations,flywheel_rps,dip_rps,recovery_s,result";
+
+  static final byte UNMARKED = 0;
+  static final byte MADE = 1;
+  static final byte MISSED = 2;
+
+  private enum Phase {
+    WAITING, // Flywheel off or not yet at its target
+    READY,
+    DIPPING
+  }
+
+  private final int capacity;
+
+  private final double[] timestamp;
+  private final String[] shotMapVersion;
+  private final double[] distance; // meters
+  private final double[] hoodRotations;
+  private final double[] flywheelRotationsPerSecond;
+  private final double[] dip; // rotations per second below target at the lowest point
+  private final double[] recoveryTime; // seconds, NaN if the flywheel did not recover
+  private final byte[] result;
+
+  // Shots ever recorded, and how many of them have been written or dropped
+  private long recorded = 0;
+  private long written = 0;
+  private long dropped = 0;
+  private double lastRecordTime = 0;
+  private double lastFlushTime = 0;
+
+  private Phase phase = Phase.WAITING;
+  private double lastTarget = 0;
+  private byte pendingMark = UNMARKED;
+
+  // The shot in progress
+  private double dipStart;
+  private String dipShotMapVersion;
+  private double dipDistance;
+  private double dipHood;
+  private double dipTarget;
+  private double dipLowest;
+
+  private final ExecutorService writer =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "Shot Capture Writer");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private Path path = null;
+
+  ShotCapture(int capacity) {
+    this.capacity = capacity;
+    timestamp = new double[capacity];
+    shotMapVersion = new String[capacity];
+    distance = new double[capacity];
+    hoodRotations = new double[capacity];
+    flywheelRotationsPerSecond = new double[capacity];
+    dip = new double[capacity];
+    recoveryTime = new double[capacity];
+    result = new byte[capacity];
+  }
+
+  /**
+   * Advances shot detection by one loop.
+   *
+   * @param now Current time (s)
+   * @param distance Distance to the target (m)
+   * @param hoodRotations Hood target
+   * @param targetRotationsPerSecond Flywheel target
+   * @param measuredRotationsPerSecond Measured flywheel velocity
+   * @param shotMapVersion Version of the shot map behind the targets, if any
+   */
+  void update(
+      double now,
+      double distance,
+      double hoodRotations,
+      double targetRotationsPerSecond,
+      double measuredRotationsPerSecond,
+      String shotMapVersion) {
+    // A new target moves the flywheel on purpose; wait for it to settle before looking for dips.
+    // A mapped target moves a little every loop with pose noise, which the flywheel follows, so
+    // only a step of more than the recovery tolerance counts as new
+    double targetStep = Math.abs(targetRotationsPerSecond - lastTarget);
+    lastTarget = targetRotationsPerSecond;
+    if (targetStep > ShooterConstants.SHOT_RECOVERY_TOLERANCE || targetRotationsPerSecond <= 0) {
+      if (phase == Phase.DIPPING) pendingMark = UNMARKED;
+      phase = Phase.WAITING;
+      return;
+    }
+
+    double error = targetRotationsPerSecond - measuredRotationsPerSecond;
+    boolean recovered = Math.abs(error) <= ShooterConstants.SHOT_RECOVERY_TOLERANCE;
+    if (phase == Phase.WAITING) {
+      if (recovered) phase = Phase.READY;
+    } else if (phase == Phase.READY) {
+      if (error >= ShooterConstants.SHOT_DIP_THRESHOLD) {
+        phase = Phase.DIPPING;
+        dipStart = now;
+        dipShotMapVersion = shotMapVersion;
+        dipDistance = distance;
+        dipHood = hoodRotations;
+        dipTarget = targetRotationsPerSecond;
+        dipLowest = measuredRotationsPerSecond;
+      }
+    } else {
+      dipLowest = Math.min(dipLowest, measuredRotationsPerSecond);
+      if (recovered) {
+        record(now, now - dipStart);
+        phase = Phase.READY;
+      } else if (now - dipStart > ShooterConstants.SHOT_MAX_RECOVERY_TIME) {
+        record(now, Double.NaN);
+        phase = Phase.WAITING;
+      }
+    }
+  }
+
+  /** Forgets any shot in progress, so detection starts fresh on the next update. */
+  void reset() {
+    phase = Phase.WAITING;
+    lastTarget = 0;
+    pendingMark = UNMARKED;
+  }
+
+  /** Marks the shot in progress, or else the last shot recorded, as made or missed. */
+  void markLast(boolean made) {
+    byte mark = made ? MADE : MISSED;
+    if (phase == Phase.DIPPING) {
+      pendingMark = mark;
+    } else if (recorded > written) {
+      result[(int) ((recorded - 1) % capacity)] = mark;
+    }
+  }
+
+  private void record(double now, double recovery) {
+    if (recorded - written == capacity) {
+      written++;
+      dropped++;
+    }
+    int i = (int) (recorded % capacity);
+    timestamp[i] = dipStart;
+    shotMapVersion[i] = dipShotMapVersion;
+    distance[i] = dipDistance;
+    hoodRotations[i] = dipHood;
+    flywheelRotationsPerSecond[i] = dipTarget;
+    dip[i] = dipTarget - dipLowest;
+    recoveryTime[i] = recovery;
+    result[i] = pendingMark;
+    pendingMark = UNMARKED;
+    lastRecordTime = now;
+    recorded++;
+  }
+
+  /**
+   * Flushes once {@link ShooterConstants#SHOT_CAPTURE_FLUSH_SHOTS} shots are waiting or {@link
+   * ShooterConstants#SHOT_CAPTURE_FLUSH_PERIOD} has passed since the last flush, leaving out the
+   * latest shot while it can still be marked.
+   *
+   * @param now Current time (s)
+   */
+  void flushIfDue(double now) {
+    long ready = now - lastRecordTime < ShooterConstants.SHOT_MARK_WINDOW ? recorded - 1 : recorded;
+    long waiting = ready - written;
+    if (waiting <= 0) return;
+    if (waiting >= ShooterConstants.SHOT_CAPTURE_FLUSH_SHOTS
+        || now - lastFlushTime >= ShooterConstants.SHOT_CAPTURE_FLUSH_PERIOD) {
+      write(ready);
+      lastFlushTime = now;
+    }
+  }
+
+  /** Appends the shots not yet written to this session's CSV file, on a background thread. */
+  void flush() {
+    write(recorded);
+  }
+
+  private void write(long end) {
+    if (end <= written) return;
+
+    StringBuilder csv = new StringBuilder();
+    for (long shot = written; shot < end; shot++) {
+      int i = (int) (shot % capacity);
+      csv.append(String.format(Locale.ROOT, "%.3f,", timestamp[i]))
+          .append(shotMapVersion[i] == null ? "" : shotMapVersion[i])
+          .append(
+              String.format(
+                  Locale.ROOT,
+                  ",%.3f,%.3f,%.2f,%.2f,%.3f,",
+                  distance[i],
+                  hoodRotations[i],
+                  flywheelRotationsPerSecond[i],
+                  dip[i],
+                  recoveryTime[i]))
+          .append(result[i] == MADE ? "made" : result[i] == MISSED ? "missed" : "")
+          .append('\n');
+    }
+    written = end;
+
+    if (path == null) {
+      String name = "shots_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".csv";
+      path = Path.of(DataLogManager.getLogDir(), name);
+    }
+    Path file = path;
+    String rows = csv.toString();
+    writer.execute(
+        () -> {
+          try {
+            if (!Files.exists(file)) Files.writeString(file, CSV_HEADER + "\n");
+            Files.writeString(file, rows, StandardOpenOption.APPEND);
+          } catch (IOException e) {
+            DataLogManager.log("Could not write shot capture " + file + ": " + e.getMessage());
+          }
+        });
+  }
+
+  /** Shots recorded since startup. */
+  long recorded() {
+    return recorded;
+  }
+
+  /** Shots overwritten before they were written to the file. */
+  long dropped() {
+    return dropped;
+  }
+
+  /** Dip of the last shot recorded (rotations per second), or 0 if there is none. */
+  double lastDip() {
+    return recorded > 0 ? dip[(int) ((recorded - 1) % capacity)] : 0;
+  }
+
+  /** Recovery time of the last shot recorded (s), or 0 if there is none. */
+  double lastRecoveryTime() {
+    return recorded > 0 ? recoveryTime[(int) ((recorded - 1) % capacity)] : 0;
+  }
+}
@@ -0,0 +1,211 @@
+package frc.robot.subsystems.shooter;
+
+import static edu.wpi.first.units.Units.Meters;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * One version of the tuned shot tables: hood and flywheel setpoints for hub shots by distance in
+ * meters, and time of flight for hub and passing shots derived from them.
+ *
+ * <p>Maps are loaded from a JSON file in the deploy directory so they can be re-tuned without a
+ * rebuild:
+ *
+ * <pre>{@code
+ * {
+ *   "version": "4",
+ *   "shots": [
+ *     {"distanceMeters": 1.66, "hoodRotations": 0.36, "flywheelRotationsPerSecond": 55.24}
+ *   ]
+ * }
+ * }</pre>
+ *
+ * <p>Time of flight comes from {@link BallFlight} rather than the file. Every {@link
+ * #TIME_OF_FLIGHT_RESOLUTION} across the shots, the hood angle is interpolated from the map and the
+ * exit speed that brings the ball down through the hub opening at that distance is solved for; the
+ * flight time of that trajectory is the hub time of flight. The mean ratio of those exit speeds to
+ * the mapped flywheel surface speeds is the launch speed ratio, and the spread of the ratio shows
+ * how well the model fits the map. Passing time of flight flies {@link
+ * ShooterConstants#PASSING_HOOD_ROTATIONS} shots at that ratio over a sweep of flywheel speeds, to
+ * the floor. Both tables are built once per map, when it is loaded.
+ *
+ * <p>A map does not change once built, so a new version replaces it as a whole and threads can
+ * share it freely.
+ */
+public final class ShotMap {
+
+  /** Map used when the deploy file can't be loaded: the tables as they were last hard-coded. */
+  public static final ShotMap BUILT_IN = createBuiltIn();
+
+  static final double TIME_OF_FLIGHT_RESOLUTION = 0.05; // meters
+  // Passing sweep
+  static final double MIN_PASSING_FLYWHEEL = 10; // rotations per second
+  static final double MAX_PASSING_FLYWHEEL = 120; // rotations per second
+  static final double PASSING_FLYWHEEL_STEP = 0.5; // rotations per second
+
+  private final String version;
+  private final InterpolatingDoubleTable hoodMap = new InterpolatingDoubleTable();
+  private final InterpolatingDoubleTable flywheelMap = new InterpolatingDoubleTable();
+  private final InterpolatingDoubleTable hubTimeOfFlightMap = new InterpolatingDoubleTable();
+  private final InterpolatingDoubleTable passingTimeOfFlightMap = new InterpolatingDoubleTable();
+  private double launchSpeedRatio;
+  private double minLaunchSpeedRatio;
+  private double maxLaunchSpeedRatio;
+
+  private ShotMap(String version) {
+    this.version = version;
+  }
+
+  /**
+   * Reads a map from a JSON file.
+   *
+   * @throws IOException if the file can't be read, isn't JSON, is missing the version or shots,
+   *     or has shots no exit speed can reach
+   */
+  public static ShotMap load(File file) throws IOException {
+    JsonNode root = new ObjectMapper().readTree(file);
+    String version = root == null ? "" : root.path("version").asText();
+    if (version.isEmpty()) throw new IOException("Shot map " + file.getName() + " has no version");
+
+    ShotMap map = new ShotMap(version);
+    JsonNode shots = root.path("shots");
+    readTable(shots, "shots", "hoodRotations", map.hoodMap);
+    readTable(shots, "shots", "flywheelRotationsPerSecond", map.flywheelMap);
+    if (map.deriveTimesOfFlight() == 0) {
+      throw new IOException("No shot in shot map " + file.getName() + " can reach the hub");
+    }
+    return map;
+  }
+
+  private static void readTable(
+      JsonNode points, String table, String valueField, InterpolatingDoubleTable out)
+      throws IOException {
+    if (!points.isArray() || points.size() == 0) {
+      throw new IOException("Shot map table " + table + " has no points");
+    }
+    for (int i = 0; i < points.size(); i++) {
+      double distance = readNumber(points, table, i, "distanceMeters");
+      out.put(distance, readNumber(points, table, i, valueField));
+    }
+  }
+
+  private static double readNumber(JsonNode points, String table, int index, String field)
+      throws IOException {
+    JsonNode value = points.path(index).path(field);
+    if (!value.isNumber() || !Double.isFinite(value.doubleValue())) {
+      throw new IOException(
+          "Shot map " + table + "[" + index + "]." + field + " is missing or not a number");
+    }
+    return value.doubleValue();
+  }
+
+  /**
+   * Fills both time of flight tables from the hood and flywheel tables.
+   *
+   * @return how many hub distances an exit speed was found for
+   */
+  private int deriveTimesOfFlight() {
+    double hubHeight = ShooterConstants.HUB_HEIGHT.in(Meters);
+    double[] flight = new double[2];
+
+    int reached = 0;
+    double ratioTotal = 0;
+    minLaunchSpeedRatio = Double.POSITIVE_INFINITY;
+    maxLaunchSpeedRatio = Double.NEGATIVE_INFINITY;
+    int samples =
+        (int) Math.round((hoodMap.lastKey() - hoodMap.firstKey()) / TIME_OF_FLIGHT_RESOLUTION);
+    for (int i = 0; i <= samples; i++) {
+      double distance = hoodMap.firstKey() + i * TIME_OF_FLIGHT_RESOLUTION;
+      double elevation = BallFlight.launchElevation(hoodMap.get(distance));
+      double speed = BallFlight.speedToReach(elevation, distance, hubHeight, flight);
+      if (Double.isNaN(speed)) continue;
+
+      hubTimeOfFlightMap.put(distance, flight[BallFlight.TIME]);
+      double ratio = speed / BallFlight.surfaceSpeed(flywheelMap.get(distance));
+      ratioTotal += ratio;
+      minLaunchSpeedRatio = Math.min(minLaunchSpeedRatio, ratio);
+      maxLaunchSpeedRatio = Math.max(maxLaunchSpeedRatio, ratio);
+      reached++;
+    }
+    if (reached == 0) return 0;
+    launchSpeedRatio = ratioTotal / reached;
+
+    // Faster passes land further out; keep the distances increasing in case drag flattens them
+    double passingElevation = BallFlight.launchElevation(ShooterConstants.PASSING_HOOD_ROTATIONS);
+    double lastDistance = 0;
+    for (double flywheel = MIN_PASSING_FLYWHEEL;
+        flywheel <= MAX_PASSING_FLYWHEEL;
+        flywheel += PASSING_FLYWHEEL_STEP) {
+      double speed = launchSpeedRatio * BallFlight.surfaceSpeed(flywheel);
+      if (!BallFlight.descend(passingElevation, speed, 0, flight)) break;
+      if (!(flight[BallFlight.DISTANCE] > lastDistance)) continue;
+      passingTimeOfFlightMap.put(flight[BallFlight.DISTANCE], flight[BallFlight.TIME]);
+      lastDistance = flight[BallFlight.DISTANCE];
+    }
+    return reached;
+  }
+
+  private static ShotMap createBuiltIn() {
+    ShotMap map = new ShotMap("built-in");
+
+    map.hoodMap.put(1.66, 0.36);
+    map.hoodMap.put(2.2, 1.31);
+    map.hoodMap.put(2.39, 1.91);
+    map.hoodMap.put(3.06, 2.4);
+    map.hoodMap.put(3.81, 2.0);
+    map.hoodMap.put(4.04, 2.6);
+    map.hoodMap.put(5.18, 3.4);
+    map.hoodMap.put(5.64, 3.4);
+
+    map.flywheelMap.put(1.66, 55.24);
+    map.flywheelMap.put(2.2, 55.24);
+    map.flywheelMap.put(2.39, 55.24);
+    map.flywheelMap.put(3.06, 62.1);
+    map.flywheelMap.put(3.81, 67.32);
+    map.flywheelMap.put(4.04, 67.32);
+    map.flywheelMap.put(5.18, 72.6);
+    map.flywheelMap.put(5.64, 76.18);
+
+    map.deriveTimesOfFlight();
+    return map;
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  public double getHoodRotations(double distance) {
+    return hoodMap.get(distance);
+  }
+
+  public double getFlywheelRotationsPerSecond(double distance) {
+    return flywheelMap.get(distance);
+  }
+
+  /** Mean ratio of exit speed to flywheel surface speed the hub shots need. */
+  public double getLaunchSpeedRatio() {
+    return launchSpeedRatio;
+  }
+
+  /** Smallest and largest launch speed ratio; far apart means the map and model disagree. */
+  public double getMinLaunchSpeedRatio() {
+    return minLaunchSpeedRatio;
+  }
+
+  public double getMaxLaunchSpeedRatio() {
+    return maxLaunchSpeedRatio;
+  }
+
+  /** Seconds from launch to a hub shot landing. */
+  public double getHubTimeOfFlight(double distance) {
+    return hubTimeOfFlightMap.get(distance);
+  }
+
+  /** Seconds from launch to a pass landing. */
+  public double getPassingTimeOfFlight(double distance) {
+    return passingTimeOfFlightMap.get(distance);
+  }
+}
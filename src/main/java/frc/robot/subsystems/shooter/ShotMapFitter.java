@@ -0,0 +1,235 @@
+package frc.robot.subsystems.shooter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offline fit of a shot map from {@link ShotCapture} CSV files.
+ *
+ * <p>Only shots marked made are fitted. Hood and flywheel are each estimated at knots every {@link
+ * #KNOT_SPACING} across the distances shot, by a least squares line through the made shots within
+ * {@link #BANDWIDTH} of the knot, weighted down linearly with distance from it. Knots with fewer
+ * than {@link #MIN_SHOTS} shots nearby are left out. Both tables are then made non-decreasing in
+ * distance by weighted isotonic regression (pool adjacent violators), which irons out noise that
+ * would otherwise make the piecewise linear map wobble between knots.
+ *
+ * <p>Anything else in the file is copied from a base map; time of flight is not fitted, since it is
+ * derived from the hood and flywheel tables when the map loads. Prints the fitted points with how
+ * many shots and what make rate each is based on, then writes a map file that {@link ShotMap#load}
+ * accepts.
+ *
+ * <p>Run with {@code ./gradlew fitShotMap --args="<base.json> <out.json> <version> <csv>..."}.
+ */
+public final class ShotMapFitter {
+
+  static final double KNOT_SPACING = 0.25; // meters
+  static final double BANDWIDTH = 0.5; // meters
+  static final int MIN_SHOTS = 3;
+
+  // Columns of ShotCapture.CSV_HEADER
+  private static final int DISTANCE = 2;
+  private static final int HOOD = 3;
+  private static final int FLYWHEEL = 4;
+  private static final int DIP = 5;
+  private static final int RECOVERY = 6;
+  private static final int RESULT = 7;
+
+  private final List<double[]> made = new ArrayList<>();
+  private final List<Double> missedDistances = new ArrayList<>();
+  private int unmarked = 0;
+  private double dipTotal = 0;
+  private double recoveryTotal = 0;
+  private int recoveries = 0;
+
+  private ShotMapFitter() {}
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 4) {
+      System.err.println("Usage: ShotMapFitter <base.json> <out.json> <version> <shots.csv>...");
+      System.exit(1);
+    }
+
+    ShotMapFitter fitter = new ShotMapFitter();
+    for (int i = 3; i < args.length; i++) fitter.read(Path.of(args[i]));
+    fitter.printSummary();
+
+    List<double[]> knots = fitter.fit();
+    if (knots.isEmpty()) {
+      System.err.println("Not enough made shots to fit any point");
+      System.exit(1);
+    }
+
+    ObjectMapper mapper = new ObjectMapper();
+    ObjectNode map = (ObjectNode) mapper.readTree(new File(args[0]));
+    map.put("version", args[2]);
+    ArrayNode shots = map.putArray("shots");
+    for (double[] knot : knots) {
+      shots
+          .addObject()
+          .put("distanceMeters", round(knot[0], 3))
+          .put("hoodRotations", round(knot[1], 3))
+          .put("flywheelRotationsPerSecond", round(knot[2], 2));
+    }
+    File out = new File(args[1]);
+    mapper.writerWithDefaultPrettyPrinter().writeValue(out, map);
+
+    // Make sure the robot will accept it
+    ShotMap.load(out);
+    System.out.println("Wrote shot map version " + args[2] + " to " + out);
+  }
+
+  private void read(Path csv) throws IOException {
+    List<String> lines = Files.readAllLines(csv);
+    for (int line = 1; line < lines.size(); line++) {
+      String[] fields = lines.get(line).split(",", -1);
+      if (fields.length <= RESULT) continue;
+
+      double distance = Double.parseDouble(fields[DISTANCE]);
+      if (!Double.isFinite(distance)) continue;
+
+      dipTotal += Double.parseDouble(fields[DIP]);
+      double recovery = Double.parseDouble(fields[RECOVERY]);
+      if (Double.isFinite(recovery)) {
+        recoveryTotal += recovery;
+        recoveries++;
+      }
+
+      if (fields[RESULT].equals("made")) {
+        made.add(
+            new double[] {
+              distance, Double.parseDouble(fields[HOOD]), Double.parseDouble(fields[FLYWHEEL])
+            });
+      } else if (fields[RESULT].equals("missed")) {
+        missedDistances.add(distance);
+      } else {
+        unmarked++;
+      }
+    }
+  }
+
+  private void printSummary() {
+    int total = made.size() + missedDistances.size() + unmarked;
+    System.out.printf(
+        "%d shots: %d made, %d missed, %d unmarked%n",
+        total, made.size(), missedDistances.size(), unmarked);
+    if (total > 0) {
+      System.out.printf(
+          "Mean flywheel dip %.2f rps, mean recovery %.3f s (%d of %d recovered)%n",
+          dipTotal / total, recoveries > 0 ? recoveryTotal / recoveries : 0, recoveries, total);
+    }
+  }
+
+  /** Fitted {distance, hood, flywheel, shots, make rate} points, in increasing distance. */
+  private List<double[]> fit() {
+    List<double[]> knots = new ArrayList<>();
+    List<Double> weights = new ArrayList<>();
+    if (made.isEmpty()) return knots;
+
+    double minDistance = Double.POSITIVE_INFINITY;
+    double maxDistance = Double.NEGATIVE_INFINITY;
+    for (double[] shot : made) {
+      minDistance = Math.min(minDistance, shot[0]);
+      maxDistance = Math.max(maxDistance, shot[0]);
+    }
+
+    int first = (int) Math.floor(minDistance / KNOT_SPACING);
+    int last = (int) Math.ceil(maxDistance / KNOT_SPACING);
+    for (int k = first; k <= last; k++) {
+      double knot = k * KNOT_SPACING;
+      int shots = 0;
+      for (double[] shot : made) {
+        if (Math.abs(shot[0] - knot) < BANDWIDTH) shots++;
+      }
+      if (shots < MIN_SHOTS) continue;
+
+      int missed = 0;
+      for (double distance : missedDistances) {
+        if (Math.abs(distance - knot) < BANDWIDTH) missed++;
+      }
+
+      double[] hood = localLinear(knot, 1);
+      double[] flywheel = localLinear(knot, 2);
+      double makeRate = (double) shots / (shots + missed);
+      knots.add(new double[] {knot, hood[0], flywheel[0], shots, makeRate});
+      weights.add(hood[1]);
+    }
+
+    isotonic(knots, weights, 1);
+    isotonic(knots, weights, 2);
+
+    System.out.println("distance   hood  flywheel  shots  make rate");
+    for (double[] knot : knots) {
+      System.out.printf(
+          "%8.2f %6.3f %9.2f %6.0f %9.0f%%%n", knot[0], knot[1], knot[2], knot[3], 100 * knot[4]);
+    }
+    return knots;
+  }
+
+  /**
+   * Weighted least squares line through the made shots near a knot, evaluated at the knot.
+   *
+   * @return the fitted value and the total weight behind it
+   */
+  private double[] localLinear(double knot, int column) {
+    double sw = 0, sx = 0, sy = 0, sxx = 0, sxy = 0;
+    for (double[] shot : made) {
+      double w = 1 - Math.abs(shot[0] - knot) / BANDWIDTH;
+      if (w <= 0) continue;
+      double x = shot[0] - knot;
+      sw += w;
+      sx += w * x;
+      sy += w * shot[column];
+      sxx += w * x * x;
+      sxy += w * x * shot[column];
+    }
+
+    // Intercept at x = 0, which is the knot; fall back to the weighted mean if the shots are all
+    // at one distance
+    double determinant = sw * sxx - sx * sx;
+    double value =
+        Math.abs(determinant) > 1e-9 * sw * sw ? (sxx * sy - sx * sxy) / determinant : sy / sw;
+    return new double[] {value, sw};
+  }
+
+  /** Replaces a column with its closest non-decreasing fit (pool adjacent violators). */
+  private static void isotonic(List<double[]> knots, List<Double> weights, int column) {
+    int n = knots.size();
+    double[] blockValue = new double[n];
+    double[] blockWeight = new double[n];
+    int[] blockEnd = new int[n];
+    int blocks = 0;
+    for (int i = 0; i < n; i++) {
+      blockValue[blocks] = knots.get(i)[column];
+      blockWeight[blocks] = weights.get(i);
+      blockEnd[blocks] = i;
+      blocks++;
+      while (blocks > 1 && blockValue[blocks - 2] > blockValue[blocks - 1]) {
+        double weight = blockWeight[blocks - 2] + blockWeight[blocks - 1];
+        blockValue[blocks - 2] =
+            (blockValue[blocks - 2] * blockWeight[blocks - 2]
+                    + blockValue[blocks - 1] * blockWeight[blocks - 1])
+                / weight;
+        blockWeight[blocks - 2] = weight;
+        blockEnd[blocks - 2] = blockEnd[blocks - 1];
+        blocks--;
+      }
+    }
+
+    int i = 0;
+    for (int b = 0; b < blocks; b++) {
+      for (; i <= blockEnd[b]; i++) knots.get(i)[column] = blockValue[b];
+    }
+  }
+
+  private static double round(double value, int places) {
+    double scale = Math.pow(10, places);
+    return Math.round(value * scale) / scale;
+  }
+}
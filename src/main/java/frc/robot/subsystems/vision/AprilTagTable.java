@@ -0,0 +1,80 @@
+package frc.robot.subsystems.vision;
+
+import edu.wpi.first.apriltag.AprilTag;
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Pose3d;
+
+/**
+ * Dense lookup table of AprilTag field poses, indexed directly by fiducial ID.
+ *
+ * <p>{@link AprilTagFieldLayout#getTagPose(int)} searches the tag list and returns an Optional on
+ * every call. This table is built once from the layout so vision evaluation can look tags up by
+ * array index. Tag translations are also kept as primitives so distances can be computed without
+ * creating geometry objects.
+ */
+final class AprilTagTable {
+
+  private final boolean[] present;
+  private final Pose3d[] pose;
+  private final double[] x;
+  private final double[] y;
+  private final double[] z;
+
+  AprilTagTable(AprilTagFieldLayout layout) {
+    int maxId = -1;
+    for (AprilTag tag : layout.getTags()) {
+      if (tag.ID > maxId) maxId = tag.ID;
+    }
+
+    present = new boolean[maxId + 1];
+    pose = new Pose3d[maxId + 1];
+    x = new double[maxId + 1];
+    y = new double[maxId + 1];
+    z = new double[maxId + 1];
+
+    for (AprilTag tag : layout.getTags()) {
+      if (tag.ID < 0) continue;
+
+      // getTagPose applies the layout origin, the raw tag list does not
+      var tagPose = layout.getTagPose(tag.ID);
+      if (tagPose.isEmpty()) continue;
+
+      Pose3d p = tagPose.get();
+      present[tag.ID] = true;
+      pose[tag.ID] = p;
+      x[tag.ID] = p.getX();
+      y[tag.ID] = p.getY();
+      z[tag.ID] = p.getZ();
+    }
+  }
+
+  /** Whether the layout has a tag with this fiducial ID. */
+  boolean has(int id) {
+    return id >= 0 && id < present.length && present[id];
+  }
+
+  /**
+   * Field pose of a tag. Check {@link #has(int)} first.
+   *
+   * @return the tag pose, or null if the layout has no such tag
+   */
+  Pose3d pose(int id) {
+    return has(id) ? pose[id] : null;
+  }
+
+  /**
+   * Straight-line distance from a field position to a tag. Check {@link #has(int)} first.
+   *
+   * @param id Fiducial ID of the tag
+   * @param px Field X position (meters)
+   * @param py Field Y position (meters)
+   * @param pz Field Z position (meters)
+   * @return distance to the tag (meters)
+   */
+  double distance(int id, double px, double py, double pz) {
+    double dx = x[id] - px;
+    double dy = y[id] - py;
+    double dz = z[id] - pz;
+    return Math.sqrt(dx * dx + dy * dy + dz * dz);
+  }
+}
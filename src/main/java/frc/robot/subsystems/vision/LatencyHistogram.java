@@ -0,0 +1,81 @@
+package frc.robot.subsystems.vision;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-bucket log-linear histogram of latencies in microseconds, in the style of HdrHistogram.
+ *
+ * <p>Values below {@code 2 * SUB_BUCKETS} get one bucket each. Above that, every power of two is
+ * split into {@link #SUB_BUCKETS} equal buckets, so a bucket is never wider than 1/16 of its value
+ * (about 6% relative error). Values past {@link #MAX_MICROS} land in the last bucket.
+ *
+ * <p>Buckets are atomic counters, so recording is safe from any thread and never allocates.
+ * Percentiles are read from a snapshot that also resets the counts, giving one interval per read.
+ */
+final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  // About 17.9 minutes
+  private static final int MAX_EXPONENT = 30;
+  static final long MAX_MICROS = (1L << MAX_EXPONENT) - 1;
+
+  static final int BUCKET_COUNT = bucketOf(MAX_MICROS) + 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+  /** Records one latency. Negative values are recorded as zero. */
+  void record(long micros) {
+    counts.incrementAndGet(bucketOf(Math.max(0, Math.min(micros, MAX_MICROS))));
+  }
+
+  /**
+   * Moves the counts recorded since the last snapshot into {@code out} and clears them.
+   *
+   * @param out Receives the bucket counts; must hold {@link #BUCKET_COUNT} entries
+   * @return number of values in the snapshot
+   */
+  long snapshotAndReset(long[] out) {
+    long total = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      out[i] = counts.getAndSet(i, 0);
+      total += out[i];
+    }
+    return total;
+  }
+
+  /**
+   * Value at a percentile of a snapshot, taken as the middle of the bucket it falls in.
+   *
+   * @param snapshot Bucket counts from {@link #snapshotAndReset(long[])}
+   * @param total Number of values in the snapshot
+   * @param fraction Percentile as a fraction, e.g. 0.95
+   * @return latency in microseconds, or NaN if the snapshot is empty
+   */
+  static double percentile(long[] snapshot, long total, double fraction) {
+    if (total == 0) return Double.NaN;
+
+    long rank = Math.max(1, (long) Math.ceil(fraction * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) return (lowerBound(i) + lowerBound(i + 1) - 1) / 2.0;
+    }
+    return MAX_MICROS;
+  }
+
+  static int bucketOf(long micros) {
+    int exponent = 63 - Long.numberOfLeadingZeros(micros);
+    if (exponent < SUB_BUCKET_BITS) return (int) micros;
+    int shift = exponent - SUB_BUCKET_BITS;
+    // (micros >> shift) keeps the leading bit, so it is in [SUB_BUCKETS, 2 * SUB_BUCKETS)
+    return shift * SUB_BUCKETS + (int) (micros >> shift);
+  }
+
+  static long lowerBound(int bucket) {
+    if (bucket < 2 * SUB_BUCKETS) return bucket;
+    int shift = bucket / SUB_BUCKETS - 1;
+    return (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+  }
+}
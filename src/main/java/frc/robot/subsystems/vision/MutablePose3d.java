@@ -0,0 +1,186 @@
+package frc.robot.subsystems.vision;
+
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Quaternion;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.geometry.Translation3d;
+
+/**
+ * 3D pose held as a primitive translation and unit quaternion and composed in place.
+ *
+ * <p>Chaining {@link Pose3d#transformBy} and {@link Transform3d#inverse} allocates a translation,
+ * rotation, quaternion and pose at every step. Vision evaluation runs that chain for every result,
+ * so it uses one of these per thread instead. Compositions follow the {@link Pose3d} conventions,
+ * so {@code set(pose).transformBy(transform)} matches {@code pose.transformBy(transform)}.
+ */
+final class MutablePose3d {
+
+  private double x;
+  private double y;
+  private double z;
+  private double qw = 1;
+  private double qx;
+  private double qy;
+  private double qz;
+
+  double getX() {
+    return x;
+  }
+
+  double getY() {
+    return y;
+  }
+
+  double getZ() {
+    return z;
+  }
+
+  /** Rotation about the field Z axis (radians), as from {@link Rotation3d#getZ}. */
+  double getYaw() {
+    return Math.atan2(2 * (qw * qz + qx * qy), 1 - 2 * (qy * qy + qz * qz));
+  }
+
+  MutablePose3d set(Pose3d pose) {
+    return set(pose.getTranslation(), pose.getRotation());
+  }
+
+  MutablePose3d set(Transform3d transform) {
+    return set(transform.getTranslation(), transform.getRotation());
+  }
+
+  private MutablePose3d set(Translation3d translation, Rotation3d rotation) {
+    Quaternion q = rotation.getQuaternion();
+    x = translation.getX();
+    y = translation.getY();
+    z = translation.getZ();
+    qw = q.getW();
+    qx = q.getX();
+    qy = q.getY();
+    qz = q.getZ();
+    return this;
+  }
+
+  /** Inverts this pose in place, as {@link Transform3d#inverse} does. */
+  MutablePose3d invert() {
+    qx = -qx;
+    qy = -qy;
+    qz = -qz;
+    // Rotate the negated translation by the inverse rotation
+    double rx = rotateX(-x, -y, -z);
+    double ry = rotateY(-x, -y, -z);
+    double rz = rotateZ(-x, -y, -z);
+    x = rx;
+    y = ry;
+    z = rz;
+    return this;
+  }
+
+  /** Applies a transform in this pose's frame, as {@link Pose3d#transformBy} does. */
+  MutablePose3d transformBy(MutablePose3d transform) {
+    return transformBy(
+        transform.x,
+        transform.y,
+        transform.z,
+        transform.qw,
+        transform.qx,
+        transform.qy,
+        transform.qz);
+  }
+
+  /** Applies the inverse of a transform, as {@code transformBy(transform.inverse())} does. */
+  MutablePose3d transformByInverse(Transform3d transform) {
+    Translation3d t = transform.getTranslation();
+    Quaternion q = transform.getRotation().getQuaternion();
+    double w = q.getW();
+    double vx = -q.getX();
+    double vy = -q.getY();
+    double vz = -q.getZ();
+
+    // The inverse translation is the negated translation rotated by the inverse rotation
+    double tx = -t.getX();
+    double ty = -t.getY();
+    double tz = -t.getZ();
+    double cx = 2 * (vy * tz - vz * ty);
+    double cy = 2 * (vz * tx - vx * tz);
+    double cz = 2 * (vx * ty - vy * tx);
+    return transformBy(
+        tx + w * cx + (vy * cz - vz * cy),
+        ty + w * cy + (vz * cx - vx * cz),
+        tz + w * cz + (vx * cy - vy * cx),
+        w,
+        vx,
+        vy,
+        vz);
+  }
+
+  /**
+   * Re-expresses this pose relative to an origin, as {@link Pose3d#relativeTo} does.
+   *
+   * @param originInverse The origin, already inverted so repeated calls don't invert it again
+   */
+  MutablePose3d relativeTo(MutablePose3d originInverse) {
+    double tx = originInverse.x + originInverse.rotateX(x, y, z);
+    double ty = originInverse.y + originInverse.rotateY(x, y, z);
+    double tz = originInverse.z + originInverse.rotateZ(x, y, z);
+    multiplyRotation(originInverse.qw, originInverse.qx, originInverse.qy, originInverse.qz, true);
+    x = tx;
+    y = ty;
+    z = tz;
+    return this;
+  }
+
+  private MutablePose3d transformBy(
+      double tx, double ty, double tz, double tw, double tqx, double tqy, double tqz) {
+    double nx = x + rotateX(tx, ty, tz);
+    double ny = y + rotateY(tx, ty, tz);
+    double nz = z + rotateZ(tx, ty, tz);
+    multiplyRotation(tw, tqx, tqy, tqz, false);
+    x = nx;
+    y = ny;
+    z = nz;
+    return this;
+  }
+
+  /** Sets the rotation to {@code this * other}, or {@code other * this} if {@code before}. */
+  private void multiplyRotation(double w2, double x2, double y2, double z2, boolean before) {
+    double w1 = qw;
+    double x1 = qx;
+    double y1 = qy;
+    double z1 = qz;
+    if (before) {
+      w1 = w2;
+      x1 = x2;
+      y1 = y2;
+      z1 = z2;
+      w2 = qw;
+      x2 = qx;
+      y2 = qy;
+      z2 = qz;
+    }
+    qw = w1 * w2 - x1 * x2 - y1 * y2 - z1 * z2;
+    qx = w1 * x2 + x1 * w2 + y1 * z2 - z1 * y2;
+    qy = w1 * y2 - x1 * z2 + y1 * w2 + z1 * x2;
+    qz = w1 * z2 + x1 * y2 - y1 * x2 + z1 * w2;
+  }
+
+  // Components of a vector rotated by this pose's rotation: v + 2w(q x v) + 2q x (q x v)
+
+  private double rotateX(double vx, double vy, double vz) {
+    double cy = 2 * (qz * vx - qx * vz);
+    double cz = 2 * (qx * vy - qy * vx);
+    return vx + qw * 2 * (qy * vz - qz * vy) + (qy * cz - qz * cy);
+  }
+
+  private double rotateY(double vx, double vy, double vz) {
+    double cx = 2 * (qy * vz - qz * vy);
+    double cz = 2 * (qx * vy - qy * vx);
+    return vy + qw * 2 * (qz * vx - qx * vz) + (qz * cx - qx * cz);
+  }
+
+  private double rotateZ(double vx, double vy, double vz) {
+    double cx = 2 * (qy * vz - qz * vy);
+    double cy = 2 * (qz * vx - qx * vz);
+    return vz + qw * 2 * (qx * vy - qy * vx) + (qx * cy - qy * cx);
+  }
+}
@@ -0,0 +1,99 @@
+package frc.robot.subsystems.vision;
+
+/**
+ * Preallocated struct-of-arrays store for the clusters formed from one cycle of estimates.
+ *
+ * <p>Cluster membership is stored as estimate indices in {@link #members}, grouped so that the
+ * members of cluster {@code c} are {@code members[start[c]]} to {@code members[start[c] + size[c] -
+ * 1]}. Cameras that contributed to a cluster are tracked as a bitmask of camera indices. Each
+ * member's fusion residual is stored alongside it in {@link #residual}.
+ */
+final class VisionClusterBuffer {
+
+  final int capacity;
+
+  final int[] members;
+  final int[] start;
+  final int[] size;
+  final int[] cameraMask;
+
+  // Normalized residual of each member against its cluster's fused pose, indexed like members
+  final double[] residual;
+
+  // Fused result for each cluster
+  final double[] fusedX;
+  final double[] fusedY;
+  final double[] fusedTheta;
+  final double[] fusedTimestamp;
+  final double[] fusedXyStdDev;
+  final double[] fusedThetaStdDev;
+
+  // Robust fusion diagnostics: reweighting iterations used and largest member residual
+  final int[] fusedIterations;
+  final double[] fusedMaxResidual;
+
+  int count = 0;
+
+  private int memberCount = 0;
+
+  VisionClusterBuffer(int capacity) {
+    this.capacity = capacity;
+    members = new int[capacity];
+    start = new int[capacity];
+    size = new int[capacity];
+    cameraMask = new int[capacity];
+    residual = new double[capacity];
+    fusedX = new double[capacity];
+    fusedY = new double[capacity];
+    fusedTheta = new double[capacity];
+    fusedTimestamp = new double[capacity];
+    fusedXyStdDev = new double[capacity];
+    fusedThetaStdDev = new double[capacity];
+    fusedIterations = new int[capacity];
+    fusedMaxResidual = new double[capacity];
+  }
+
+  /**
+   * Starts a new cluster seeded with the given estimate. Members must be added to the newest
+   * cluster before the next one is started.
+   *
+   * @return index of the new cluster
+   */
+  int startCluster(int estimate, int camera) {
+    int c = count++;
+    start[c] = memberCount;
+    size[c] = 0;
+    cameraMask[c] = 0;
+    addMember(estimate, camera);
+    return c;
+  }
+
+  /** Adds an estimate to the most recently started cluster. */
+  void addMember(int estimate, int camera) {
+    int c = count - 1;
+    members[memberCount++] = estimate;
+    size[c]++;
+    cameraMask[c] |= 1 << camera;
+  }
+
+  int member(int cluster, int n) {
+    return members[start[cluster] + n];
+  }
+
+  double residual(int cluster, int n) {
+    return residual[start[cluster] + n];
+  }
+
+  void setResidual(int cluster, int n, double value) {
+    residual[start[cluster] + n] = value;
+  }
+
+  int camerasUsed(int cluster) {
+    return Integer.bitCount(cameraMask[cluster]);
+  }
+
+  void clear() {
+    count = 0;
+    memberCount = 0;
+  }
+}
@@ -0,0 +1,221 @@
+package frc.robot.subsystems.vision;
+
+import edu.wpi.first.math.MathUtil;
+
+/**
+ * Fuses the estimates in a cluster into one pose.
+ *
+ * <p>{@link #MEAN} is the inverse-variance weighted mean. The robust modes refine that mean with
+ * iteratively reweighted least squares: each estimate's inverse-variance weight is scaled by an
+ * M-estimator weight of its normalized residual, the pose is recomputed, and this repeats until the
+ * pose moves less than the convergence tolerance or the iteration limit is reached.
+ *
+ * <ul>
+ *   <li>{@link #HUBER}: full weight inside {@code k} standard deviations, {@code k / u} outside.
+ *       Convex, so it always converges to the same answer
+ *   <li>{@link #TUKEY}: biweight, which gives zero weight beyond {@code c} standard deviations.
+ *       Starts from a Huber pose, since it can settle on a bad local solution if it starts near an
+ *       outlier. The Huber stage gets at most half the iteration limit and hands over when it
+ *       converges or its half runs out, so Tukey always gets the rest
+ * </ul>
+ *
+ * <p>The normalized residual of an estimate is its distance from the fused pose in x, y and
+ * heading, each divided by the estimate's own standard deviation. Residuals against the final pose
+ * are written to the cluster store for logging.
+ */
+final class VisionClusterFuser {
+
+  static final int MEAN = 0;
+  static final int HUBER = 1;
+  static final int TUKEY = 2;
+
+  // Per-member inverse-variance and robust weights for the cluster being fused
+  private final double[] xyWeight;
+  private final double[] thetaWeight;
+  private final double[] robustWeight;
+
+  private int mode = MEAN;
+  private int maxIterations = 0;
+  private double tolerance = 0;
+  private double huberK = 0;
+  private double tukeyC = 0;
+  private double trustScalingFactor = 1;
+
+  // Result of the last weighted solve
+  private double poseX;
+  private double poseY;
+  private double poseTheta;
+
+  VisionClusterFuser(int capacity) {
+    xyWeight = new double[capacity];
+    thetaWeight = new double[capacity];
+    robustWeight = new double[capacity];
+  }
+
+  /**
+   * Sets the fusion parameters, normally once per cycle from {@link VisionPreferences}.
+   *
+   * @param mode {@link #MEAN}, {@link #HUBER} or {@link #TUKEY}
+   * @param maxIterations Maximum reweighting iterations for the robust modes
+   * @param tolerance Pose change (meters, radians) below which the robust modes stop
+   * @param huberK Huber threshold (standard deviations)
+   * @param tukeyC Tukey cutoff (standard deviations)
+   * @param trustScalingFactor Multiplier on the fused standard deviations
+   */
+  void configure(
+      int mode,
+      int maxIterations,
+      double tolerance,
+      double huberK,
+      double tukeyC,
+      double trustScalingFactor) {
+    this.mode = mode;
+    this.maxIterations = Math.max(0, maxIterations);
+    this.tolerance = tolerance;
+    this.huberK = huberK;
+    this.tukeyC = tukeyC;
+    this.trustScalingFactor = trustScalingFactor;
+  }
+
+  /**
+   * Fuses one cluster and writes the fused pose, standard deviations, iteration count and member
+   * residuals into the cluster store.
+   *
+   * <p>The fused timestamp is the oldest in the cluster (conservative), and the fused standard
+   * deviations use linear trust scaling: average standard deviation / cluster size. A single
+   * estimate is passed through unchanged.
+   */
+  void fuse(VisionEstimateBuffer estimates, VisionClusterBuffer clusters, int cluster) {
+    int size = clusters.size[cluster];
+
+    if (size == 1) {
+      // No fusion needed for single estimate
+      int e = clusters.member(cluster, 0);
+      clusters.fusedX[cluster] = estimates.x[e];
+      clusters.fusedY[cluster] = estimates.y[e];
+      clusters.fusedTheta[cluster] = estimates.theta[e];
+      clusters.fusedTimestamp[cluster] = estimates.timestamp[e];
+      clusters.fusedXyStdDev[cluster] = estimates.xyStdDev[e];
+      clusters.fusedThetaStdDev[cluster] = estimates.thetaStdDev[e];
+      clusters.fusedIterations[cluster] = 0;
+      clusters.fusedMaxResidual[cluster] = 0;
+      clusters.setResidual(cluster, 0, 0);
+      return;
+    }
+
+    double oldestTimestamp = Double.MAX_VALUE;
+    double sumXyStdDev = 0;
+    double sumThetaStdDev = 0;
+    for (int n = 0; n < size; n++) {
+      int e = clusters.member(cluster, n);
+      double xyStdDev = estimates.xyStdDev[e];
+      double thetaStdDev = estimates.thetaStdDev[e];
+      xyWeight[n] = 1.0 / (xyStdDev * xyStdDev);
+      thetaWeight[n] = 1.0 / (thetaStdDev * thetaStdDev);
+      robustWeight[n] = 1.0;
+
+      sumXyStdDev += xyStdDev;
+      sumThetaStdDev += thetaStdDev;
+      if (estimates.timestamp[e] < oldestTimestamp) oldestTimestamp = estimates.timestamp[e];
+    }
+
+    solve(estimates, clusters, cluster);
+
+    int iterations = 0;
+    if (mode != MEAN) {
+      int huberIterations = mode == TUKEY ? maxIterations / 2 : maxIterations;
+      boolean tukey = mode == TUKEY && huberIterations == 0;
+      while (iterations < maxIterations) {
+        iterations++;
+
+        boolean anyWeight = false;
+        for (int n = 0; n < size; n++) {
+          double u = normalizedResidual(estimates, clusters.member(cluster, n));
+          robustWeight[n] = tukey ? tukeyWeight(u) : huberWeight(u);
+          if (robustWeight[n] > 0) anyWeight = true;
+        }
+        // Every estimate is beyond the Tukey cutoff; keep the Huber pose
+        if (!anyWeight) break;
+
+        double previousX = poseX;
+        double previousY = poseY;
+        double previousTheta = poseTheta;
+        solve(estimates, clusters, cluster);
+
+        boolean converged =
+            Math.hypot(poseX - previousX, poseY - previousY) < tolerance
+                && Math.abs(MathUtil.angleModulus(poseTheta - previousTheta)) < tolerance;
+        if (mode == TUKEY && !tukey && (converged || iterations >= huberIterations)) {
+          tukey = true;
+          continue;
+        }
+        if (converged) break;
+      }
+    }
+
+    clusters.fusedX[cluster] = poseX;
+    clusters.fusedY[cluster] = poseY;
+    clusters.fusedTheta[cluster] = poseTheta;
+    clusters.fusedTimestamp[cluster] = oldestTimestamp;
+    clusters.fusedIterations[cluster] = iterations;
+
+    double maxResidual = 0;
+    for (int n = 0; n < size; n++) {
+      double u = normalizedResidual(estimates, clusters.member(cluster, n));
+      clusters.setResidual(cluster, n, u);
+      if (u > maxResidual) maxResidual = u;
+    }
+    clusters.fusedMaxResidual[cluster] = maxResidual;
+
+    // Apply LINEAR trust scaling
+    clusters.fusedXyStdDev[cluster] = (sumXyStdDev / size / size) * trustScalingFactor;
+    clusters.fusedThetaStdDev[cluster] = (sumThetaStdDev / size / size) * trustScalingFactor;
+  }
+
+  /** Weighted mean of the members with the current weights; heading is averaged on the circle. */
+  private void solve(VisionEstimateBuffer estimates, VisionClusterBuffer clusters, int cluster) {
+    double totalXyWeight = 0;
+    double totalThetaWeight = 0;
+    double weightedX = 0;
+    double weightedY = 0;
+    double weightedSin = 0;
+    double weightedCos = 0;
+
+    for (int n = 0; n < clusters.size[cluster]; n++) {
+      int e = clusters.member(cluster, n);
+      double wXy = xyWeight[n] * robustWeight[n];
+      double wTheta = thetaWeight[n] * robustWeight[n];
+
+      weightedX += estimates.x[e] * wXy;
+      weightedY += estimates.y[e] * wXy;
+      weightedSin += Math.sin(estimates.theta[e]) * wTheta;
+      weightedCos += Math.cos(estimates.theta[e]) * wTheta;
+      totalXyWeight += wXy;
+      totalThetaWeight += wTheta;
+    }
+
+    poseX = weightedX / totalXyWeight;
+    poseY = weightedY / totalXyWeight;
+    poseTheta = Math.atan2(weightedSin / totalThetaWeight, weightedCos / totalThetaWeight);
+  }
+
+  /** Distance of an estimate from the current pose, in units of its own standard deviations. */
+  private double normalizedResidual(VisionEstimateBuffer estimates, int e) {
+    double dx = (estimates.x[e] - poseX) / estimates.xyStdDev[e];
+    double dy = (estimates.y[e] - poseY) / estimates.xyStdDev[e];
+    double dTheta =
+        MathUtil.angleModulus(estimates.theta[e] - poseTheta) / estimates.thetaStdDev[e];
+    return Math.sqrt(dx * dx + dy * dy + dTheta * dTheta);
+  }
+
+  private double huberWeight(double u) {
+    return u <= huberK ? 1.0 : huberK / u;
+  }
+
+  private double tukeyWeight(double u) {
+    if (u >= tukeyC) return 0.0;
+    double r = u / tukeyC;
+    double t = 1 - r * r;
+    return t * t;
+  }
+}
@@ -0,0 +1,275 @@
+package frc.robot.subsystems.vision;
+
+import edu.wpi.first.math.MathUtil;
+import java.util.Arrays;
+
+/**
+ * Groups one cycle of pose estimates into clusters of estimates that agree with each other.
+ *
+ * <p>Two estimates are linked when they are closer than the distance threshold and their headings
+ * differ by less than the angle threshold. Clusters are the connected groups of linked estimates,
+ * found with union-find. Candidate pairs come from a uniform grid with cells one distance threshold
+ * wide, so each estimate is only compared against estimates in its own and the 8 surrounding cells.
+ * This keeps clustering close to linear when a backlog of results arrives at once.
+ *
+ * <p>The result does not depend on the order estimates were added. Members are ordered by capture
+ * time, then camera, then position, and clusters are ordered by their first member.
+ *
+ * <p>All working storage is preallocated for the store capacity, so clustering does not allocate.
+ */
+final class VisionClusterer {
+
+  private static final int EMPTY = -1;
+
+  // Union-find forest over estimate indices
+  private final int[] parent;
+  private final int[] rank;
+
+  // Grid hash: open-addressed table of cell -> first estimate, chained through next
+  private final int tableMask;
+  private final long[] cellKeys;
+  private final int[] cellHeads;
+  private final int[] cellStamp;
+  private final int[] next;
+  private final long[] estimateCell;
+  private int stamp = 0;
+
+  // Estimate order and per-cluster grouping
+  private final int[] order;
+  private final int[] sortScratch;
+  private final int[] clusterOfRoot;
+  private final int[] clusterCount;
+  private final int[] clusterOffset;
+  private final int[] grouped;
+
+  VisionClusterer(int capacity) {
+    parent = new int[capacity];
+    rank = new int[capacity];
+
+    int tableSize = Integer.highestOneBit(Math.max(1, capacity * 2 - 1)) << 1;
+    tableMask = tableSize - 1;
+    cellKeys = new long[tableSize];
+    cellHeads = new int[tableSize];
+    cellStamp = new int[tableSize];
+    next = new int[capacity];
+    estimateCell = new long[capacity];
+
+    order = new int[capacity];
+    sortScratch = new int[capacity];
+    clusterOfRoot = new int[capacity];
+    clusterCount = new int[capacity];
+    clusterOffset = new int[capacity];
+    grouped = new int[capacity];
+  }
+
+  /**
+   * Clusters every estimate in the store.
+   *
+   * @param estimates Estimates to cluster
+   * @param distanceThreshold Maximum translation difference between linked estimates (meters)
+   * @param angleThreshold Maximum heading difference between linked estimates (radians)
+   * @param out Cluster store to write into; it is cleared first
+   */
+  void cluster(
+      VisionEstimateBuffer estimates,
+      double distanceThreshold,
+      double angleThreshold,
+      VisionClusterBuffer out) {
+    int n = estimates.size;
+    out.clear();
+    if (n == 0) return;
+
+    for (int i = 0; i < n; i++) {
+      parent[i] = i;
+      rank[i] = 0;
+    }
+
+    if (distanceThreshold > 0) {
+      linkNeighbors(estimates, distanceThreshold, angleThreshold);
+    }
+
+    sortEstimates(estimates);
+    writeClusters(estimates, out);
+  }
+
+  /** Buckets estimates into grid cells and unions every compatible pair in neighboring cells. */
+  private void linkNeighbors(
+      VisionEstimateBuffer estimates, double distanceThreshold, double angleThreshold) {
+    int n = estimates.size;
+    double distanceThresholdSquared = distanceThreshold * distanceThreshold;
+
+    // A new stamp marks every table slot as empty without clearing the table
+    stamp++;
+    if (stamp == 0) {
+      Arrays.fill(cellStamp, 0);
+      stamp = 1;
+    }
+
+    for (int i = 0; i < n; i++) {
+      int cx = (int) Math.floor(estimates.x[i] / distanceThreshold);
+      int cy = (int) Math.floor(estimates.y[i] / distanceThreshold);
+      long key = cellKey(cx, cy);
+      estimateCell[i] = key;
+
+      int slot = findSlot(key);
+      if (cellStamp[slot] != stamp) {
+        cellStamp[slot] = stamp;
+        cellKeys[slot] = key;
+        cellHeads[slot] = EMPTY;
+      }
+      next[i] = cellHeads[slot];
+      cellHeads[slot] = i;
+    }
+
+    for (int i = 0; i < n; i++) {
+      int cx = (int) (estimateCell[i] >> 32);
+      int cy = (int) estimateCell[i];
+
+      for (int dx = -1; dx <= 1; dx++) {
+        for (int dy = -1; dy <= 1; dy++) {
+          int slot = findSlot(cellKey(cx + dx, cy + dy));
+          if (cellStamp[slot] != stamp) continue;
+
+          // Each pair is visited from both sides, so only link from the lower index
+          for (int j = cellHeads[slot]; j != EMPTY; j = next[j]) {
+            if (j <= i) continue;
+
+            double ex = estimates.x[i] - estimates.x[j];
+            double ey = estimates.y[i] - estimates.y[j];
+            double angleDiff =
+                Math.abs(MathUtil.angleModulus(estimates.theta[i] - estimates.theta[j]));
+            if (ex * ex + ey * ey < distanceThresholdSquared && angleDiff < angleThreshold) {
+              union(i, j);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /** Writes clusters in order of their first member, members in sorted estimate order. */
+  private void writeClusters(VisionEstimateBuffer estimates, VisionClusterBuffer out) {
+    int n = estimates.size;
+    for (int i = 0; i < n; i++) clusterOfRoot[i] = EMPTY;
+
+    // Number clusters by the first time their root is seen in sorted order
+    int clusterTotal = 0;
+    for (int k = 0; k < n; k++) {
+      int root = find(order[k]);
+      if (clusterOfRoot[root] == EMPTY) {
+        clusterOfRoot[root] = clusterTotal;
+        clusterCount[clusterTotal] = 0;
+        clusterTotal++;
+      }
+      clusterCount[clusterOfRoot[root]]++;
+    }
+
+    // Counting sort of the sorted estimates into cluster groups
+    int offset = 0;
+    for (int c = 0; c < clusterTotal; c++) {
+      clusterOffset[c] = offset;
+      offset += clusterCount[c];
+    }
+    for (int k = 0; k < n; k++) {
+      int e = order[k];
+      int c = clusterOfRoot[find(e)];
+      grouped[clusterOffset[c]++] = e;
+    }
+
+    int k = 0;
+    for (int c = 0; c < clusterTotal; c++) {
+      int size = clusterCount[c];
+      out.startCluster(grouped[k], estimates.camera[grouped[k]]);
+      for (int m = 1; m < size; m++) {
+        out.addMember(grouped[k + m], estimates.camera[grouped[k + m]]);
+      }
+      k += size;
+    }
+  }
+
+  /** Sorts estimate indices into {@link #order} with a stable bottom-up merge sort. */
+  private void sortEstimates(VisionEstimateBuffer estimates) {
+    int n = estimates.size;
+    for (int i = 0; i < n; i++) order[i] = i;
+
+    int[] source = order;
+    int[] target = sortScratch;
+    for (int width = 1; width < n; width *= 2) {
+      for (int low = 0; low < n; low += 2 * width) {
+        int mid = Math.min(low + width, n);
+        int high = Math.min(low + 2 * width, n);
+        int a = low;
+        int b = mid;
+        int t = low;
+        while (a < mid && b < high) {
+          if (compare(estimates, source[b], source[a]) < 0) target[t++] = source[b++];
+          else target[t++] = source[a++];
+        }
+        while (a < mid) target[t++] = source[a++];
+        while (b < high) target[t++] = source[b++];
+      }
+      int[] swap = source;
+      source = target;
+      target = swap;
+    }
+
+    if (source != order) System.arraycopy(source, 0, order, 0, n);
+  }
+
+  /** Orders estimates by capture time, then camera, then position. */
+  private static int compare(VisionEstimateBuffer estimates, int e1, int e2) {
+    int result = Double.compare(estimates.timestamp[e1], estimates.timestamp[e2]);
+    if (result != 0) return result;
+    result = Integer.compare(estimates.camera[e1], estimates.camera[e2]);
+    if (result != 0) return result;
+    result = Double.compare(estimates.x[e1], estimates.x[e2]);
+    if (result != 0) return result;
+    result = Double.compare(estimates.y[e1], estimates.y[e2]);
+    if (result != 0) return result;
+    return Double.compare(estimates.theta[e1], estimates.theta[e2]);
+  }
+
+  private int find(int e) {
+    while (parent[e] != e) {
+      // Path halving
+      parent[e] = parent[parent[e]];
+      e = parent[e];
+    }
+    return e;
+  }
+
+  private void union(int e1, int e2) {
+    int root1 = find(e1);
+    int root2 = find(e2);
+    if (root1 == root2) return;
+
+    if (rank[root1] < rank[root2]) {
+      parent[root1] = root2;
+    } else if (rank[root1] > rank[root2]) {
+      parent[root2] = root1;
+    } else {
+      parent[root2] = root1;
+      rank[root1]++;
+    }
+  }
+
+  private static long cellKey(int cx, int cy) {
+    return ((long) cx << 32) | (cy & 0xffffffffL);
+  }
+
+  /** Returns the slot holding the key this cycle, or the empty slot where it would go. */
+  private int findSlot(long key) {
+    int slot = (int) (mix(key) & tableMask);
+    while (cellStamp[slot] == stamp && cellKeys[slot] != key) {
+      slot = (slot + 1) & tableMask;
+    }
+    return slot;
+  }
+
+  private static long mix(long key) {
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    return key;
+  }
+}
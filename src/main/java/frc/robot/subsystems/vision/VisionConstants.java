@@ -5,33 +5,26 @@ import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.math.geometry.Transform3d;
 import edu.wpi.first.math.geometry.Translation3d;
 import frc.robot.Constants;
-import java.util.HashMap;
-import org.photonvision.PhotonCamera;
+import java.util.LinkedHashMap;
 
 public class VisionConstants {
 
   // field layout
   public static final AprilTagFieldLayout FIELD_LAYOUT = Constants.FieldConstants.layout;
 
-  // Front Camera
+  // Camera names (must match the PhotonVision camera names)
   public static final String photonCameraName_Front = "FRONT-CAMERA";
-  public static final PhotonCamera photonCamera_Front = new PhotonCamera(photonCameraName_Front);
-
-  // Left camera
   public static final String photonCameraName_Left = "LEFT-CAMERA";
-  public static final PhotonCamera photonCamera_Left = new PhotonCamera(photonCameraName_Left);
-
-  // Right camera
   public static final String photonCameraName_Right = "RIGHT-CAMERA";
-  public static final PhotonCamera photonCamera_Right = new PhotonCamera(photonCameraName_Right);
 
   // TODO: TUNE
   public static final double XY_STD_DEV_COEFFICIENT = 0.01;
   public static final double THETA_STD_DEV_COEFFICIENT = 0.03;
 
-  // Center of Robot to Camera Transform
-  public static final HashMap<String, Transform3d> cameraTransformMap =
-      new HashMap<String, Transform3d>() {
+  // Center of Robot to Camera Transform. VisionSubsystem reads every camera listed here, indexed in
+  // insertion order, so adding a camera only needs a new entry.
+  public static final LinkedHashMap<String, Transform3d> cameraTransformMap =
+      new LinkedHashMap<String, Transform3d>() {
         {
           put(
               photonCameraName_Front,
@@ -62,4 +55,34 @@ public class VisionConstants {
       0.3; // meters (0 = disable direction check)
   public static final double DRIFT_MINIMUM_DISTANCE = 0.2; // meters
   public static final double DRIFT_CONVERGENCE_THRESHOLD = 0.1; // meters
+
+  // Cluster fusion mode (0 = weighted mean, 1 = Huber, 2 = Tukey) and robust fusion tuning. The
+  // thresholds are in standard deviations of each estimate's own uncertainty.
+  public static final int FUSION_MODE = 0;
+  public static final int ROBUST_MAX_ITERATIONS = 10;
+  public static final double ROBUST_CONVERGENCE_TOLERANCE = 1e-4; // meters and radians
+  public static final double HUBER_THRESHOLD = 1.345;
+  public static final double TUKEY_CUTOFF = 4.685;
+
+  // Size of the preallocated per-cycle estimate store. Estimates beyond this are dropped.
+  public static final int MAX_ESTIMATES_PER_CYCLE = 512;
+
+  // Estimates each trust tier can hold while waiting for the drivetrain; several hundred ms of
+  // every camera reporting at 50 Hz. Estimates beyond this are dropped and counted.
+  public static final int VISION_QUEUE_CAPACITY = 64;
+
+  // Evaluate camera results on per-camera background threads as soon as they arrive. Every estimate
+  // is still jump-checked, clustered and submitted once per loop, so none is submitted twice. This
+  // takes work off the loop but does not lower the latency of estimates reaching the drivetrain.
+  public static final boolean ASYNC_INGEST_ENABLED = false;
+  public static final double ASYNC_INGEST_PERIOD = 0.005; // seconds
+
+  // Record every camera result and drive state snapshot to a binary log next to the wpilogs, for
+  // offline replay with VisionReplay. Records are dropped if the writer falls this far behind.
+  public static final boolean RECORDING_ENABLED = false;
+  public static final int RECORDING_QUEUE_SIZE = 4096;
+
+  // Vision loop cycles between publishes of the latency percentiles (~1 s at 50 Hz). Each publish
+  // covers the samples since the previous one.
+  public static final int LATENCY_PUBLISH_CYCLES = 50;
 }
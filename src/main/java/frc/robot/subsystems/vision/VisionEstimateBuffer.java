@@ -0,0 +1,112 @@
+package frc.robot.subsystems.vision;
+
+/**
+ * Preallocated struct-of-arrays store for the pose estimates gathered during one vision cycle.
+ *
+ * <p>Each field of an estimate lives in its own primitive array, so evaluation, clustering and
+ * fusion can work on an estimate by index without creating any objects. The arrays are sized once
+ * at construction. Estimates that arrive after the store is full are counted in {@link #dropped}
+ * instead of growing the arrays.
+ */
+final class VisionEstimateBuffer {
+
+  final int capacity;
+
+  // Robot pose on the field (meters, radians)
+  final double[] x;
+  final double[] y;
+  final double[] theta;
+
+  // Capture time of the frame the estimate came from (FPGA seconds)
+  final double[] timestamp;
+
+  // Kalman filter standard deviations
+  final double[] xyStdDev;
+  final double[] thetaStdDev;
+
+  // Metadata used for logging and best-estimate selection
+  final int[] camera;
+  final int[] tagCount;
+  final double[] averageTagDistance;
+  final double[] ambiguity;
+
+  int size = 0;
+  long dropped = 0;
+
+  VisionEstimateBuffer(int capacity) {
+    this.capacity = capacity;
+    x = new double[capacity];
+    y = new double[capacity];
+    theta = new double[capacity];
+    timestamp = new double[capacity];
+    xyStdDev = new double[capacity];
+    thetaStdDev = new double[capacity];
+    camera = new int[capacity];
+    tagCount = new int[capacity];
+    averageTagDistance = new double[capacity];
+    ambiguity = new double[capacity];
+  }
+
+  /**
+   * Appends an estimate to the store.
+   *
+   * @return index of the new estimate, or -1 if the store is full and the estimate was dropped
+   */
+  int add(
+      double x,
+      double y,
+      double theta,
+      double timestamp,
+      int camera,
+      int tagCount,
+      double xyStdDev,
+      double thetaStdDev,
+      double averageTagDistance,
+      double ambiguity) {
+    if (size >= capacity) {
+      dropped++;
+      return -1;
+    }
+
+    int i = size++;
+    this.x[i] = x;
+    this.y[i] = y;
+    this.theta[i] = theta;
+    this.timestamp[i] = timestamp;
+    this.camera[i] = camera;
+    this.tagCount[i] = tagCount;
+    this.xyStdDev[i] = xyStdDev;
+    this.thetaStdDev[i] = thetaStdDev;
+    this.averageTagDistance[i] = averageTagDistance;
+    this.ambiguity[i] = ambiguity;
+    return i;
+  }
+
+  /**
+   * Appends a copy of an estimate from another store.
+   *
+   * @return index of the new estimate, or -1 if the store is full and the estimate was dropped
+   */
+  int addFrom(VisionEstimateBuffer source, int i) {
+    return add(
+        source.x[i],
+        source.y[i],
+        source.theta[i],
+        source.timestamp[i],
+        source.camera[i],
+        source.tagCount[i],
+        source.xyStdDev[i],
+        source.thetaStdDev[i],
+        source.averageTagDistance[i],
+        source.ambiguity[i]);
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Forgets all stored estimates. The arrays are reused, not cleared. */
+  void clear() {
+    size = 0;
+  }
+}
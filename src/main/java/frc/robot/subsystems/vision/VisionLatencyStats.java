@@ -0,0 +1,100 @@
+package frc.robot.subsystems.vision;
+
+import org.photonvision.targeting.PhotonPipelineResult;
+
+/**
+ * Per-camera latency histograms for each stage between a frame being captured and its pose reaching
+ * the drivetrain's Kalman filter:
+ *
+ * <ul>
+ *   <li>Capture: capture to publish on the coprocessor (pipeline processing)
+ *   <li>Transport: publish on the coprocessor to NetworkTables receive on the robot
+ *   <li>Queue: time the estimate spent in the {@link frc.robot.statemachines.DriveState} queues
+ *   <li>Fusion: total age of the frame when the estimate was added to the pose estimator
+ * </ul>
+ *
+ * <p>Fusion covers everything from capture on, including the wait for the loop to read the result
+ * and vision processing. Fused estimates count towards every camera that contributed to them. All
+ * times are in microseconds; camera and robot clocks are aligned by PhotonVision's time sync.
+ */
+public final class VisionLatencyStats {
+
+  static final int CAPTURE = 0;
+  static final int TRANSPORT = 1;
+  static final int QUEUE = 2;
+  static final int FUSION = 3;
+  static final int STAGE_COUNT = 4;
+
+  private final int cameraCount;
+  private final LatencyHistogram[][] histograms;
+
+  // Main loop only, reused for every percentile read
+  private final long[] snapshot = new long[LatencyHistogram.BUCKET_COUNT];
+
+  public VisionLatencyStats(int cameraCount) {
+    this.cameraCount = cameraCount;
+    histograms = new LatencyHistogram[STAGE_COUNT][cameraCount];
+    for (int stage = 0; stage < STAGE_COUNT; stage++) {
+      for (int camera = 0; camera < cameraCount; camera++) {
+        histograms[stage][camera] = new LatencyHistogram();
+      }
+    }
+  }
+
+  /** Records the capture and transport latency of a result as it is read from a camera. */
+  void recordResult(int camera, PhotonPipelineResult result) {
+    long captureMicros = result.metadata.captureTimestampMicros;
+    long publishMicros = result.metadata.publishTimestampMicros;
+    // getTimestampSeconds() is the NT receive time with the coprocessor latency taken off
+    long receiveMicros =
+        Math.round(result.getTimestampSeconds() * 1e6) + (publishMicros - captureMicros);
+
+    histograms[CAPTURE][camera].record(publishMicros - captureMicros);
+    histograms[TRANSPORT][camera].record(receiveMicros - publishMicros);
+  }
+
+  /**
+   * Records how long an estimate waited between being queued and being taken by the drivetrain.
+   *
+   * @param cameraMask Bitmask of the cameras that contributed to the estimate
+   * @param micros Time spent queued (microseconds)
+   */
+  public void recordQueued(int cameraMask, long micros) {
+    record(QUEUE, cameraMask, micros);
+  }
+
+  /**
+   * Records the age of an estimate's frame when it was added to the pose estimator.
+   *
+   * @param cameraMask Bitmask of the cameras that contributed to the estimate
+   * @param micros Time from frame capture to the Kalman update (microseconds)
+   */
+  public void recordFused(int cameraMask, long micros) {
+    record(FUSION, cameraMask, micros);
+  }
+
+  /**
+   * Reads and resets one stage's histograms, writing the p50, p95 and p99 of the interval for each
+   * camera. Cameras with no samples in the interval get NaN.
+   *
+   * @param stage One of {@link #CAPTURE}, {@link #TRANSPORT}, {@link #QUEUE} or {@link #FUSION}
+   * @param p50 Receives the per-camera median (milliseconds)
+   * @param p95 Receives the per-camera 95th percentile (milliseconds)
+   * @param p99 Receives the per-camera 99th percentile (milliseconds)
+   */
+  void publish(int stage, double[] p50, double[] p95, double[] p99) {
+    for (int camera = 0; camera < cameraCount; camera++) {
+      long total = histograms[stage][camera].snapshotAndReset(snapshot);
+      p50[camera] = LatencyHistogram.percentile(snapshot, total, 0.50) / 1e3;
+      p95[camera] = LatencyHistogram.percentile(snapshot, total, 0.95) / 1e3;
+      p99[camera] = LatencyHistogram.percentile(snapshot, total, 0.99) / 1e3;
+    }
+  }
+
+  private void record(int stage, int cameraMask, long micros) {
+    for (int mask = cameraMask; mask != 0; mask &= mask - 1) {
+      int camera = Integer.numberOfTrailingZeros(mask);
+      if (camera < cameraCount) histograms[stage][camera].record(micros);
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package frc.robot.subsystems.vision;
 
 import frc.robot.preferences.DoublePreference;
+import frc.robot.preferences.IntegerPreference;
 
 final class VisionPreferences {
 
@@ -34,4 +35,17 @@ final class VisionPreferences {
   protected static DoublePreference driftConvergenceThreshold =
       new DoublePreference(
           "Vision/Drift/Convergence Threshold", VisionConstants.DRIFT_CONVERGENCE_THRESHOLD);
+
+  // Cluster fusion: 0 = weighted mean, 1 = Huber, 2 = Tukey (see VisionClusterFuser)
+  protected static IntegerPreference fusionMode =
+      new IntegerPreference("Vision/Fusion/Mode", VisionConstants.FUSION_MODE);
+  protected static IntegerPreference robustMaxIterations =
+      new IntegerPreference("Vision/Fusion/Max Iterations", VisionConstants.ROBUST_MAX_ITERATIONS);
+  protected static DoublePreference robustConvergenceTolerance =
+      new DoublePreference(
+          "Vision/Fusion/Convergence Tolerance", VisionConstants.ROBUST_CONVERGENCE_TOLERANCE);
+  protected static DoublePreference huberThreshold =
+      new DoublePreference("Vision/Fusion/Huber Threshold", VisionConstants.HUBER_THRESHOLD);
+  protected static DoublePreference tukeyCutoff =
+      new DoublePreference("Vision/Fusion/Tukey Cutoff", VisionConstants.TUKEY_CUTOFF);
 }
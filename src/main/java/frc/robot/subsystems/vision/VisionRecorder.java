@@ -0,0 +1,168 @@
+package frc.robot.subsystems.vision;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import frc.robot.statemachines.DriveStateSnapshot;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import org.photonvision.common.dataflow.structures.Packet;
+import org.photonvision.targeting.PhotonPipelineResult;
+
+/**
+ * Records the raw camera results and drivetrain state seen by {@link VisionSubsystem} to a compact
+ * binary log, so a match can be replayed offline with {@link VisionReplay}.
+ *
+ * <p>File layout (big-endian):
+ *
+ * <ul>
+ *   <li>Header: magic, version, camera count, then each camera name
+ *   <li>{@link #CYCLE_RECORD}: written at the start of every vision cycle. Holds the FPGA time, the
+ *       FPGA-to-drivetrain time offset, whether the robot was enabled, and the drivetrain state
+ *       (timestamp, pose, robot-relative speeds, odometry period)
+ *   <li>{@link #RESULT_RECORD}: a camera index, the receive timestamp and a {@link
+ *       PhotonPipelineResult} packed with PhotonVision's packet serde
+ * </ul>
+ *
+ * <p>Results belong to the most recent cycle record before them. Records are handed to a background
+ * thread for writing so file IO never blocks the robot loop; if the writer falls behind, records
+ * are dropped and counted instead.
+ */
+final class VisionRecorder implements AutoCloseable {
+
+  static final int MAGIC = 0x56495352; // "VISR"
+  static final int VERSION = 1;
+
+  static final byte CYCLE_RECORD = 1;
+  static final byte RESULT_RECORD = 2;
+
+  // Written by close() to stop the writer thread
+  private static final byte[] END_OF_LOG = new byte[0];
+
+  private final DataOutputStream out;
+  private final ArrayBlockingQueue<byte[]> queue =
+      new ArrayBlockingQueue<>(VisionConstants.RECORDING_QUEUE_SIZE);
+  private final Thread writer;
+
+  // Guarded by itself; reused for every result
+  private final Packet packet = new Packet(1024);
+
+  private final AtomicLong dropped = new AtomicLong();
+  private volatile boolean closed = false;
+
+  VisionRecorder(OutputStream stream, String[] cameraNames) throws IOException {
+    out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(cameraNames.length);
+    for (String name : cameraNames) out.writeUTF(name);
+
+    writer = new Thread(this::writeLoop, "Vision Recorder");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Opens a new recording next to the robot's data logs.
+   *
+   * @return the recorder, or null if the file could not be created
+   */
+  static VisionRecorder open(String[] cameraNames) {
+    String name = "vision_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".bin";
+    Path path = Path.of(DataLogManager.getLogDir(), name);
+    try {
+      return new VisionRecorder(new FileOutputStream(path.toFile()), cameraNames);
+    } catch (IOException e) {
+      DataLogManager.log("Could not open vision recording " + path + ": " + e.getMessage());
+      return null;
+    }
+  }
+
+  /** Records the start of a vision cycle and the drivetrain state it uses. */
+  void recordCycle(
+      double fpgaTime, double fpgaToDriveTime, boolean enabled, DriveStateSnapshot stats) {
+    ByteBuffer record = ByteBuffer.allocate(1 + 8 + 8 + 1 + 8 * 8);
+    record.put(CYCLE_RECORD);
+    record.putDouble(fpgaTime);
+    record.putDouble(fpgaToDriveTime);
+    record.put((byte) (enabled ? 1 : 0));
+    record.putDouble(stats.getTimestamp());
+    record.putDouble(stats.getX());
+    record.putDouble(stats.getY());
+    record.putDouble(stats.getHeading());
+    record.putDouble(stats.getVx());
+    record.putDouble(stats.getVy());
+    record.putDouble(stats.getOmega());
+    record.putDouble(stats.getOdometryPeriod());
+    enqueue(record.array());
+  }
+
+  /** Records a camera result processed in the cycle last recorded. Main loop only. */
+  void recordResult(int camera, PhotonPipelineResult result) {
+    packet.clear();
+    PhotonPipelineResult.photonStruct.pack(packet, result);
+    byte[] data = packet.getWrittenDataCopy();
+
+    // Receive time as PhotonCamera would have set it, so replayed timestamps match
+    long receiveMicros =
+        Math.round(result.getTimestampSeconds() * 1e6)
+            + (result.metadata.publishTimestampMicros - result.metadata.captureTimestampMicros);
+
+    ByteBuffer record = ByteBuffer.allocate(1 + 4 + 8 + 4 + data.length);
+    record.put(RESULT_RECORD);
+    record.putInt(camera);
+    record.putLong(receiveMicros);
+    record.putInt(data.length);
+    record.put(data);
+    enqueue(record.array());
+  }
+
+  /** Number of records dropped because the writer fell behind. */
+  long dropped() {
+    return dropped.get();
+  }
+
+  /** Flushes queued records and closes the file. */
+  @Override
+  public void close() {
+    if (closed) return;
+    closed = true;
+    try {
+      queue.put(END_OF_LOG);
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void enqueue(byte[] record) {
+    if (closed || !queue.offer(record)) dropped.incrementAndGet();
+  }
+
+  private void writeLoop() {
+    try (out) {
+      while (true) {
+        byte[] record = queue.poll();
+        if (record == null) {
+          // Nothing waiting, so push what we have to disk before blocking
+          out.flush();
+          record = queue.take();
+        }
+        if (record == END_OF_LOG) break;
+        out.write(record);
+      }
+    } catch (IOException e) {
+      DataLogManager.log("Vision recording stopped: " + e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    closed = true;
+  }
+}
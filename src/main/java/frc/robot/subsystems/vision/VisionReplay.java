@@ -0,0 +1,273 @@
+package frc.robot.subsystems.vision;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import frc.robot.statemachines.DriveState;
+import frc.robot.subsystems.vision.VisionSubsystem.VisionMeasurement;
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.photonvision.common.dataflow.structures.Packet;
+import org.photonvision.targeting.PhotonPipelineResult;
+
+/**
+ * Headless replay of a {@link VisionRecorder} log through {@link VisionSubsystem}.
+ *
+ * <p>Each recorded cycle puts its drivetrain state into {@link DriveState}, then runs its camera
+ * results through the same evaluation, clustering and submission path as the robot. Cycles run back
+ * to back as fast as possible, so replay is at or above real time. The current {@link
+ * VisionPreferences} values are used, which makes it possible to compare tuning changes against
+ * real match data.
+ *
+ * <p>Reports accept/reject counts per camera, submitted estimates per trust tier, and the
+ * processing time per cycle. Every submitted estimate can also be written to a CSV file.
+ *
+ * <p>Run with {@code ./gradlew replayVision --args="<recording> [estimates.csv]"}.
+ */
+public final class VisionReplay {
+
+  private final VisionSubsystem vision = new VisionSubsystem(true);
+  private final DriveState driveState = DriveState.getInstance();
+  private final BufferedWriter csv;
+
+  private long cycles = 0;
+  private long results = 0;
+  private long skippedResults = 0;
+  private final long[] submittedByTier = new long[4];
+  private final VisionMeasurement[] drained =
+      VisionMeasurement.buffer(VisionConstants.VISION_QUEUE_CAPACITY);
+  private long[] cycleNanos = new long[1024];
+  private double firstCycleTime = Double.NaN;
+  private double lastCycleTime = Double.NaN;
+
+  private VisionReplay(BufferedWriter csv) throws IOException {
+    this.csv = csv;
+    if (csv != null) {
+      csv.write("cycle,fpga_time,cameras_used,x,y,theta,timestamp,xy_std_dev,theta_std_dev");
+      csv.newLine();
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println("Usage: VisionReplay <recording> [estimates.csv]");
+      System.exit(1);
+    }
+
+    HAL.initialize(500, 0);
+
+    BufferedWriter csv = args.length > 1 ? new BufferedWriter(new FileWriter(args[1])) : null;
+    try (var in = new DataInputStream(new BufferedInputStream(new FileInputStream(args[0])))) {
+      VisionReplay replay = new VisionReplay(csv);
+      long start = System.nanoTime();
+      replay.run(in);
+      replay.printSummary(System.nanoTime() - start);
+    } finally {
+      if (csv != null) csv.close();
+    }
+  }
+
+  private void run(DataInputStream in) throws IOException {
+    if (in.readInt() != VisionRecorder.MAGIC) throw new IOException("Not a vision recording");
+    int version = in.readInt();
+    if (version != VisionRecorder.VERSION) {
+      throw new IOException("Unsupported vision recording version " + version);
+    }
+
+    // Map recorded camera indices onto this build's registry by name
+    int[] cameraMap = new int[in.readInt()];
+    for (int i = 0; i < cameraMap.length; i++) {
+      String name = in.readUTF();
+      cameraMap[i] = vision.cameraIndex(name);
+      if (cameraMap[i] < 0) System.out.println("Recorded camera " + name + " is not registered");
+    }
+
+    List<PhotonPipelineResult> cycleResults = new ArrayList<>();
+    int[] cycleCameras = new int[64];
+
+    boolean haveCycle = false;
+    double fpgaTime = 0;
+    double fpgaToDriveTime = 0;
+    boolean enabled = false;
+    SwerveDriveState stats = null;
+
+    while (true) {
+      try {
+        int type = in.read();
+        if (type == VisionRecorder.CYCLE_RECORD) {
+          double nextFpgaTime = in.readDouble();
+          double nextFpgaToDriveTime = in.readDouble();
+          boolean nextEnabled = in.readByte() != 0;
+          SwerveDriveState nextStats = readDriveState(in);
+
+          if (haveCycle) {
+            runCycle(fpgaTime, fpgaToDriveTime, enabled, stats, cycleResults, cycleCameras);
+          }
+          haveCycle = true;
+          fpgaTime = nextFpgaTime;
+          fpgaToDriveTime = nextFpgaToDriveTime;
+          enabled = nextEnabled;
+          stats = nextStats;
+          cycleResults.clear();
+          continue;
+        }
+        if (type == VisionRecorder.RESULT_RECORD) {
+          int camera = in.readInt();
+          long receiveMicros = in.readLong();
+          byte[] data = new byte[in.readInt()];
+          in.readFully(data);
+
+          int mapped = camera < cameraMap.length ? cameraMap[camera] : -1;
+          if (!haveCycle || mapped < 0) {
+            skippedResults++;
+            continue;
+          }
+
+          PhotonPipelineResult result = PhotonPipelineResult.photonStruct.unpack(new Packet(data));
+          result.setReceiveTimestampMicros(receiveMicros);
+          if (cycleResults.size() == cycleCameras.length) {
+            cycleCameras = Arrays.copyOf(cycleCameras, cycleCameras.length * 2);
+          }
+          cycleCameras[cycleResults.size()] = mapped;
+          cycleResults.add(result);
+          continue;
+        }
+        if (type != -1) throw new IOException("Corrupt vision recording: record type " + type);
+      } catch (EOFException e) {
+        // The robot may have lost power mid-record; replay what was complete
+        System.out.println("Recording ends with a truncated record");
+      }
+
+      if (haveCycle) {
+        runCycle(fpgaTime, fpgaToDriveTime, enabled, stats, cycleResults, cycleCameras);
+      }
+      return;
+    }
+  }
+
+  private static SwerveDriveState readDriveState(DataInputStream in) throws IOException {
+    SwerveDriveState stats = new SwerveDriveState();
+    stats.Timestamp = in.readDouble();
+    double x = in.readDouble();
+    double y = in.readDouble();
+    double theta = in.readDouble();
+    stats.Pose = new Pose2d(x, y, new Rotation2d(theta));
+    double vx = in.readDouble();
+    double vy = in.readDouble();
+    double omega = in.readDouble();
+    stats.Speeds = new ChassisSpeeds(vx, vy, omega);
+    stats.OdometryPeriod = in.readDouble();
+    return stats;
+  }
+
+  private void runCycle(
+      double fpgaTime,
+      double fpgaToDriveTime,
+      boolean enabled,
+      SwerveDriveState stats,
+      List<PhotonPipelineResult> cycleResults,
+      int[] cycleCameras)
+      throws IOException {
+    driveState.publishOdometry(stats);
+    driveState.latchLoopSnapshot();
+
+    long start = System.nanoTime();
+    vision.replayCycle(fpgaTime, fpgaToDriveTime, enabled, cycleResults, cycleCameras);
+    long elapsed = System.nanoTime() - start;
+
+    if (cycles == cycleNanos.length) cycleNanos = Arrays.copyOf(cycleNanos, cycleNanos.length * 2);
+    cycleNanos[(int) cycles] = elapsed;
+    cycles++;
+    results += cycleResults.size();
+    if (Double.isNaN(firstCycleTime)) firstCycleTime = fpgaTime;
+    lastCycleTime = fpgaTime;
+
+    for (int tier = 3; tier >= 1; tier--) {
+      int count = driveState.drainVisionEstimates(tier, drained);
+      submittedByTier[tier] += count;
+      if (csv != null) {
+        for (int i = 0; i < count; i++) writeEstimate(fpgaTime, tier, drained[i]);
+      }
+    }
+  }
+
+  private void writeEstimate(double fpgaTime, int tier, VisionMeasurement estimate)
+      throws IOException {
+    csv.write(
+        cycles
+            + ","
+            + fpgaTime
+            + ","
+            + tier
+            + ","
+            + estimate.getX()
+            + ","
+            + estimate.getY()
+            + ","
+            + estimate.getTheta()
+            + ","
+            + estimate.getTimestamp()
+            + ","
+            + estimate.getXyStdDev()
+            + ","
+            + estimate.getThetaStdDev());
+    csv.newLine();
+  }
+
+  private void printSummary(long wallNanos) {
+    System.out.printf(
+        "Replayed %d cycles, %d results (%d skipped)%n", cycles, results, skippedResults);
+
+    for (int camera = 0; camera < vision.cameraCount(); camera++) {
+      System.out.printf(
+          "  %-16s accepted %6d  rejected ambiguity %6d  jumping %6d%n",
+          vision.cameraName(camera),
+          vision.resultsAccepted(camera),
+          vision.resultsRejectedDueToAmbiguity(camera),
+          vision.resultsRejectedDueToJumping(camera));
+    }
+
+    System.out.printf(
+        "Submitted estimates: 3+ cameras %d, 2 cameras %d, 1 camera %d%n",
+        submittedByTier[3], submittedByTier[2], submittedByTier[1]);
+    System.out.printf(
+        "Multi-camera clusters %d, outliers rejected %d%n",
+        vision.multiCameraClusters(), vision.outliersRejected());
+
+    if (cycles == 0) return;
+
+    long[] sorted = Arrays.copyOf(cycleNanos, (int) cycles);
+    Arrays.sort(sorted);
+    long total = 0;
+    for (long nanos : sorted) total += nanos;
+    System.out.printf(
+        "Cycle time (us): mean %.1f  p50 %.1f  p95 %.1f  p99 %.1f  max %.1f%n",
+        total / 1e3 / cycles,
+        percentile(sorted, 0.50) / 1e3,
+        percentile(sorted, 0.95) / 1e3,
+        percentile(sorted, 0.99) / 1e3,
+        sorted[sorted.length - 1] / 1e3);
+
+    double recordedSeconds = lastCycleTime - firstCycleTime;
+    if (recordedSeconds > 0) {
+      System.out.printf(
+          "Replayed %.1f s of recording in %.2f s (%.0fx real time)%n",
+          recordedSeconds, wallNanos / 1e9, recordedSeconds / (wallNanos / 1e9));
+    }
+  }
+
+  private static long percentile(long[] sorted, double fraction) {
+    int index = (int) Math.ceil(fraction * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+  }
+}
@@ -1,22 +1,22 @@
 package frc.robot.subsystems.vision;
 
-import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+import com.ctre.phoenix6.Utils;
 import edu.wpi.first.epilogue.Logged;
 import edu.wpi.first.epilogue.Logged.Importance;
-import edu.wpi.first.math.VecBuilder;
-import edu.wpi.first.math.Vector;
-import edu.wpi.first.math.geometry.Pose2d;
-import edu.wpi.first.math.geometry.Pose3d;
-import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Translation2d;
-import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
-import edu.wpi.first.wpilibj2.command.button.RobotModeTriggers;
 import frc.robot.statemachines.DriveState;
+import frc.robot.statemachines.DriveStateSnapshot;
+import frc.robot.statemachines.PoseHistory;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import org.photonvision.PhotonCamera;
 import org.photonvision.targeting.MultiTargetPNPResult;
 import org.photonvision.targeting.PhotonPipelineResult;
 import org.photonvision.targeting.PhotonTrackedTarget;
@@ -25,46 +25,98 @@ import org.photonvision.targeting.PhotonTrackedTarget;
 public class VisionSubsystem extends SubsystemBase {
 
   private DriveState driveState = DriveState.getInstance();
-  private SwerveDriveState driveStats;
+  // Drive state read at the start of this cycle; main loop only
+  private final DriveStateSnapshot driveStats = new DriveStateSnapshot();
 
-  @Logged(name = "Front Camera/Results Accepted", importance = Importance.CRITICAL)
-  private long frontCameraResultsAccepted = 0;
+  // Per-camera state, indexed by camera index (the order of VisionConstants.cameraTransformMap)
+  private final int cameraCount;
+  private final PhotonCamera[] cameras;
 
-  @Logged(name = "Front Camera/Results Rejected/Total", importance = Importance.CRITICAL)
-  private long frontCameraResultsRejectedTotal = 0;
+  @Logged(name = "Cameras/Names", importance = Importance.CRITICAL)
+  private final String[] cameraNames;
 
-  @Logged(name = "Front Camera/Results Rejected/Ambiguity", importance = Importance.CRITICAL)
-  private long frontCameraResultsRejectedDueToAmbiguity = 0;
+  // Tag poses indexed by fiducial ID, built once from the field layout
+  private final AprilTagTable tagTable = new AprilTagTable(VisionConstants.FIELD_LAYOUT);
 
-  @Logged(name = "Front Camera/Results Rejected/Jumping", importance = Importance.CRITICAL)
-  private long frontCameraResultsRejectedDueToJumping = 0;
+  // Robot-to-camera transforms and their inverses, computed once
+  private final Transform3d[] robotToCamera;
+  private final MutablePose3d[] cameraToRobot;
 
-  @Logged(name = "Left Camera/Results Accepted", importance = Importance.CRITICAL)
-  private long leftCameraResultsAccepted = 0;
+  // Inverse of the field layout origin, for re-expressing multi-tag poses in field coordinates
+  private final MutablePose3d fieldOriginInverse =
+      new MutablePose3d().set(VisionConstants.FIELD_LAYOUT.getOrigin()).invert();
 
-  @Logged(name = "Left Camera/Results Rejected/Total", importance = Importance.CRITICAL)
-  private long leftCameraResultsRejectedTotal = 0;
+  // Pose chain scratch for evaluation on the main loop
+  private final MutablePose3d evaluationPose = new MutablePose3d();
 
-  @Logged(name = "Left Camera/Results Rejected/Ambiguity", importance = Importance.CRITICAL)
-  private long leftCameraResultsRejectedDueToAmbiguity = 0;
+  @Logged(name = "Cameras/Results Accepted", importance = Importance.CRITICAL)
+  private final long[] resultsAccepted;
 
-  @Logged(name = "Left Camera/Results Rejected/Jumping", importance = Importance.CRITICAL)
-  private long leftCameraResultsRejectedDueToJumping = 0;
+  @Logged(name = "Cameras/Results Rejected/Total", importance = Importance.CRITICAL)
+  private final long[] resultsRejectedTotal;
 
-  @Logged(name = "Right Camera/Results Accepted", importance = Importance.CRITICAL)
-  private long rightCameraResultsAccepted = 0;
+  @Logged(name = "Cameras/Results Rejected/Ambiguity", importance = Importance.CRITICAL)
+  private final long[] resultsRejectedDueToAmbiguity;
 
-  @Logged(name = "Right Camera/Results Rejected/Total", importance = Importance.CRITICAL)
-  private long rightCameraResultsRejectedTotal = 0;
+  @Logged(name = "Cameras/Results Rejected/Jumping", importance = Importance.CRITICAL)
+  private final long[] resultsRejectedDueToJumping;
 
-  @Logged(name = "Right Camera/Results Rejected/Ambiguity", importance = Importance.CRITICAL)
-  private long rightCameraResultsRejectedDueToAmbiguity = 0;
+  // Volatile because the async ingest workers read it
+  @Logged(name = "Resetting", importance = Importance.CRITICAL)
+  private volatile boolean resettingPose = false;
 
-  @Logged(name = "Right Camera/Results Rejected/Jumping", importance = Importance.CRITICAL)
-  private long rightCameraResultsRejectedDueToJumping = 0;
+  @Logged(name = "Async Ingest", importance = Importance.CRITICAL)
+  private final boolean asyncIngest;
 
-  @Logged(name = "Resetting", importance = Importance.CRITICAL)
-  private boolean resettingPose = false;
+  // Whether the robot was enabled at the start of this cycle
+  private boolean robotEnabled = false;
+
+  // Camera result recorder for offline replay, or null when not recording
+  private final VisionRecorder recorder;
+
+  @Logged(name = "Recording/Dropped Records", importance = Importance.CRITICAL)
+  private long recordingDroppedRecords = 0;
+
+  // Frame-to-fusion latency histograms, shared with DriveState which records the queue stages
+  private final VisionLatencyStats latencyStats = driveState.getVisionLatencyStats();
+  private int cyclesSinceLatencyPublish = 0;
+
+  // Per-camera latency percentiles over the last publish interval (milliseconds)
+  @Logged(name = "Latency/Capture/p50", importance = Importance.CRITICAL)
+  private final double[] captureLatencyP50;
+
+  @Logged(name = "Latency/Capture/p95", importance = Importance.CRITICAL)
+  private final double[] captureLatencyP95;
+
+  @Logged(name = "Latency/Capture/p99", importance = Importance.CRITICAL)
+  private final double[] captureLatencyP99;
+
+  @Logged(name = "Latency/Transport/p50", importance = Importance.CRITICAL)
+  private final double[] transportLatencyP50;
+
+  @Logged(name = "Latency/Transport/p95", importance = Importance.CRITICAL)
+  private final double[] transportLatencyP95;
+
+  @Logged(name = "Latency/Transport/p99", importance = Importance.CRITICAL)
+  private final double[] transportLatencyP99;
+
+  @Logged(name = "Latency/Queue/p50", importance = Importance.CRITICAL)
+  private final double[] queueLatencyP50;
+
+  @Logged(name = "Latency/Queue/p95", importance = Importance.CRITICAL)
+  private final double[] queueLatencyP95;
+
+  @Logged(name = "Latency/Queue/p99", importance = Importance.CRITICAL)
+  private final double[] queueLatencyP99;
+
+  @Logged(name = "Latency/Fusion/p50", importance = Importance.CRITICAL)
+  private final double[] fusionLatencyP50;
+
+  @Logged(name = "Latency/Fusion/p95", importance = Importance.CRITICAL)
+  private final double[] fusionLatencyP95;
+
+  @Logged(name = "Latency/Fusion/p99", importance = Importance.CRITICAL)
+  private final double[] fusionLatencyP99;
 
   // Clustering telemetry
   @Logged(name = "Clustering/Total Clusters Formed", importance = Importance.CRITICAL)
@@ -91,6 +143,9 @@ public class VisionSubsystem extends SubsystemBase {
   @Logged(name = "Clustering/Estimates Processed This Cycle", importance = Importance.CRITICAL)
   private int estimatesProcessedThisCycle = 0;
 
+  @Logged(name = "Clustering/Estimates Dropped", importance = Importance.CRITICAL)
+  private long estimatesDropped = 0;
+
   // Cycle correlation
   @Logged(name = "Cycle Info/Cycle Counter", importance = Importance.CRITICAL)
   private long cycleCounter = 0;
@@ -101,93 +156,39 @@ public class VisionSubsystem extends SubsystemBase {
   @Logged(name = "Cycle Info/Active Poses", importance = Importance.CRITICAL)
   private int activePosesThisCycle = 0;
 
-  // Front Camera logging
-  @Logged(name = "Front Camera/Pose", importance = Importance.CRITICAL)
-  private Pose2d frontCameraPose = new Pose2d();
-
-  @Logged(name = "Front Camera/Timestamp", importance = Importance.CRITICAL)
-  private double frontCameraTimestamp = 0;
-
-  @Logged(name = "Front Camera/Tag Count", importance = Importance.CRITICAL)
-  private int frontCameraTagCount = 0;
-
-  @Logged(name = "Front Camera/Ambiguity", importance = Importance.CRITICAL)
-  private double frontCameraAmbiguity = 0;
-
-  @Logged(name = "Front Camera/XY StdDev", importance = Importance.CRITICAL)
-  private double frontCameraXyStdDev = 0;
-
-  @Logged(name = "Front Camera/Theta StdDev", importance = Importance.CRITICAL)
-  private double frontCameraThetaStdDev = 0;
-
-  @Logged(name = "Front Camera/Average Distance", importance = Importance.CRITICAL)
-  private double frontCameraAvgDistance = 0;
-
-  @Logged(name = "Front Camera/Valid This Cycle", importance = Importance.CRITICAL)
-  private boolean frontCameraValidThisCycle = false;
-
-  @Logged(name = "Front Camera/Results This Cycle", importance = Importance.CRITICAL)
-  private int frontCameraResultsThisCycle = 0;
-
-  // Left Camera logging
-  @Logged(name = "Left Camera/Pose", importance = Importance.CRITICAL)
-  private Pose2d leftCameraPose = new Pose2d();
-
-  @Logged(name = "Left Camera/Timestamp", importance = Importance.CRITICAL)
-  private double leftCameraTimestamp = 0;
-
-  @Logged(name = "Left Camera/Tag Count", importance = Importance.CRITICAL)
-  private int leftCameraTagCount = 0;
+  // Per-camera logging; poses are x, y, heading (radians) triples, which AdvantageScope reads as
+  // a Pose2d array, so logging them doesn't allocate
+  @Logged(name = "Cameras/Pose", importance = Importance.CRITICAL)
+  private final double[] cameraPose;
 
-  @Logged(name = "Left Camera/Ambiguity", importance = Importance.CRITICAL)
-  private double leftCameraAmbiguity = 0;
+  @Logged(name = "Cameras/Timestamp", importance = Importance.CRITICAL)
+  private final double[] cameraTimestamp;
 
-  @Logged(name = "Left Camera/XY StdDev", importance = Importance.CRITICAL)
-  private double leftCameraXyStdDev = 0;
+  @Logged(name = "Cameras/Tag Count", importance = Importance.CRITICAL)
+  private final int[] cameraTagCount;
 
-  @Logged(name = "Left Camera/Theta StdDev", importance = Importance.CRITICAL)
-  private double leftCameraThetaStdDev = 0;
+  @Logged(name = "Cameras/Ambiguity", importance = Importance.CRITICAL)
+  private final double[] cameraAmbiguity;
 
-  @Logged(name = "Left Camera/Average Distance", importance = Importance.CRITICAL)
-  private double leftCameraAvgDistance = 0;
+  @Logged(name = "Cameras/XY StdDev", importance = Importance.CRITICAL)
+  private final double[] cameraXyStdDev;
 
-  @Logged(name = "Left Camera/Valid This Cycle", importance = Importance.CRITICAL)
-  private boolean leftCameraValidThisCycle = false;
+  @Logged(name = "Cameras/Theta StdDev", importance = Importance.CRITICAL)
+  private final double[] cameraThetaStdDev;
 
-  @Logged(name = "Left Camera/Results This Cycle", importance = Importance.CRITICAL)
-  private int leftCameraResultsThisCycle = 0;
+  @Logged(name = "Cameras/Average Distance", importance = Importance.CRITICAL)
+  private final double[] cameraAvgDistance;
 
-  // Right Camera logging
-  @Logged(name = "Right Camera/Pose", importance = Importance.CRITICAL)
-  private Pose2d rightCameraPose = new Pose2d();
+  @Logged(name = "Cameras/Valid This Cycle", importance = Importance.CRITICAL)
+  private final boolean[] cameraValidThisCycle;
 
-  @Logged(name = "Right Camera/Timestamp", importance = Importance.CRITICAL)
-  private double rightCameraTimestamp = 0;
-
-  @Logged(name = "Right Camera/Tag Count", importance = Importance.CRITICAL)
-  private int rightCameraTagCount = 0;
-
-  @Logged(name = "Right Camera/Ambiguity", importance = Importance.CRITICAL)
-  private double rightCameraAmbiguity = 0;
-
-  @Logged(name = "Right Camera/XY StdDev", importance = Importance.CRITICAL)
-  private double rightCameraXyStdDev = 0;
-
-  @Logged(name = "Right Camera/Theta StdDev", importance = Importance.CRITICAL)
-  private double rightCameraThetaStdDev = 0;
-
-  @Logged(name = "Right Camera/Average Distance", importance = Importance.CRITICAL)
-  private double rightCameraAvgDistance = 0;
-
-  @Logged(name = "Right Camera/Valid This Cycle", importance = Importance.CRITICAL)
-  private boolean rightCameraValidThisCycle = false;
-
-  @Logged(name = "Right Camera/Results This Cycle", importance = Importance.CRITICAL)
-  private int rightCameraResultsThisCycle = 0;
+  @Logged(name = "Cameras/Results This Cycle", importance = Importance.CRITICAL)
+  private final int[] cameraResultsThisCycle;
 
   // Fused result logging
+  // x, y, heading (radians)
   @Logged(name = "Fused/Pose", importance = Importance.CRITICAL)
-  private Pose2d fusedPose = new Pose2d();
+  private final double[] fusedPose = new double[3];
 
   @Logged(name = "Fused/Timestamp", importance = Importance.CRITICAL)
   private double fusedTimestamp = 0;
@@ -207,127 +208,368 @@ public class VisionSubsystem extends SubsystemBase {
   @Logged(name = "Fused/Drift Detected", importance = Importance.CRITICAL)
   private boolean fusedDriftDetected = false;
 
-  // Pending estimates for clustering
-  private List<PendingEstimate> pendingEstimates = new ArrayList<>();
+  @Logged(name = "Fused/Robust Iterations", importance = Importance.CRITICAL)
+  private int fusedIterations = 0;
+
+  @Logged(name = "Fused/Max Residual", importance = Importance.CRITICAL)
+  private double fusedMaxResidual = 0;
 
-  // Temporary storage for best estimates this cycle (for logging)
-  private PendingEstimate bestFrontEstimate = null;
-  private PendingEstimate bestLeftEstimate = null;
-  private PendingEstimate bestRightEstimate = null;
+  // Largest normalized residual of each camera's estimates in the best fused cluster, or NaN
+  @Logged(name = "Cameras/Fusion Residual", importance = Importance.CRITICAL)
+  private final double[] cameraFusionResidual;
 
-  // Temporary storage for best fused cluster this cycle (for logging)
-  private VisionCluster bestFusedCluster = null;
+  // Camera index used for fused estimates, which have no per-camera counters
+  private static final int FUSED = -1;
+
+  // Rejection reasons for logBadResult
+  private static final int REJECT_AMBIGUITY = 0;
+  private static final int REJECT_JUMPING = 1;
+
+  // Return codes from evaluateResult when no estimate was added
+  private static final int NO_ESTIMATE = -1;
+  private static final int REJECTED_AMBIGUITY = -2;
+
+  // Preallocated stores for this cycle's estimates and clusters
+  private final VisionEstimateBuffer pendingEstimates =
+      new VisionEstimateBuffer(VisionConstants.MAX_ESTIMATES_PER_CYCLE);
+  private final VisionClusterBuffer clusters =
+      new VisionClusterBuffer(VisionConstants.MAX_ESTIMATES_PER_CYCLE);
+  private final VisionClusterer clusterer =
+      new VisionClusterer(VisionConstants.MAX_ESTIMATES_PER_CYCLE);
+  private final VisionClusterFuser fuser =
+      new VisionClusterFuser(VisionConstants.MAX_ESTIMATES_PER_CYCLE);
+
+  // Index of the best estimate for each camera this cycle (for logging), or -1
+  private final int[] bestEstimate;
+
+  // Index of the best fused cluster this cycle (for logging), or -1
+  private int bestFusedCluster = -1;
 
   // Drift detection state
   private DriftDetectionState driftState = new DriftDetectionState();
 
-  public class VisionMeasurement {
-    private Pose2d estimatedPose;
-    private double timestamp;
-    private Vector<N3> trustValues;
+  // Recent odometry, recorded by the odometry thread, for latency-compensated jump detection
+  private final PoseHistory poseHistory = driveState.getPoseHistory();
+  private final double[] historyPose = new double[PoseHistory.SAMPLE_LENGTH];
 
-    public VisionMeasurement(Pose2d pose, double time, Vector<N3> trust) {
-      estimatedPose = pose;
-      timestamp = time;
-      trustValues = trust;
-    }
+  // Offset from FPGA time (camera timestamps) to drivetrain time (pose history), per cycle
+  private double fpgaToDriveTime = 0;
 
-    public Pose2d getEstimatedPose() {
-      return estimatedPose;
-    }
+  // Per-camera ingest workers, only used when async ingest is enabled
+  private final CameraIngestWorker[] ingestWorkers;
 
-    public double getTimestamp() {
-      return timestamp;
-    }
-
-    public Vector<N3> getTrust() {
-      return trustValues;
+  /**
+   * A pose estimate handed to the drivetrain. Instances are preallocated queue slots and caller
+   * buffers that are filled in place, so the hand-off doesn't allocate.
+   */
+  public static final class VisionMeasurement {
+    private double x;
+    private double y;
+    private double theta;
+    private double timestamp;
+    private double xyStdDev;
+    private double thetaStdDev;
+    private int cameraMask;
+    private long queuedTimeMicros;
+
+    /** Creates empty measurements for a caller to drain estimates into. */
+    public static VisionMeasurement[] buffer(int length) {
+      VisionMeasurement[] measurements = new VisionMeasurement[length];
+      for (int i = 0; i < length; i++) measurements[i] = new VisionMeasurement();
+      return measurements;
     }
-  }
 
-  /** Stores a pending vision estimate with all metadata needed for clustering and fusion. */
-  private class PendingEstimate {
-    Pose2d pose;
-    double timestamp;
-    String cameraName;
-    int tagCount;
-    double xyStdDev;
-    double thetaStdDev;
-    double averageTagDistance;
-    double ambiguity;
-
-    PendingEstimate(
-        Pose2d pose,
+    /** Overwrites the estimate; the queued time is left alone. */
+    public void set(
+        double x,
+        double y,
+        double theta,
         double timestamp,
-        String cameraName,
-        int tagCount,
         double xyStdDev,
         double thetaStdDev,
-        double averageTagDistance,
-        double ambiguity) {
-      this.pose = pose;
+        int cameraMask) {
+      this.x = x;
+      this.y = y;
+      this.theta = theta;
       this.timestamp = timestamp;
-      this.cameraName = cameraName;
-      this.tagCount = tagCount;
       this.xyStdDev = xyStdDev;
       this.thetaStdDev = thetaStdDev;
-      this.averageTagDistance = averageTagDistance;
-      this.ambiguity = ambiguity;
+      this.cameraMask = cameraMask;
     }
-  }
 
-  /** Represents a cluster of related vision estimates and their fused result. */
-  private class VisionCluster {
-    List<PendingEstimate> estimates = new ArrayList<>();
-    Pose2d fusedPose;
-    double fusedTimestamp;
-    double fusedXyStdDev;
-    double fusedThetaStdDev;
-    boolean usesFront, usesLeft, usesRight;
-
-    VisionCluster(PendingEstimate initialEstimate) {
-      estimates.add(initialEstimate);
-      if (initialEstimate.cameraName.equals(VisionConstants.photonCameraName_Front))
-        usesFront = true;
-      else usesFront = false;
-      if (initialEstimate.cameraName.equals(VisionConstants.photonCameraName_Left)) usesLeft = true;
-      else usesLeft = false;
-      if (initialEstimate.cameraName.equals(VisionConstants.photonCameraName_Right))
-        usesRight = true;
-      else usesRight = false;
+    public void copyFrom(VisionMeasurement other) {
+      set(
+          other.x,
+          other.y,
+          other.theta,
+          other.timestamp,
+          other.xyStdDev,
+          other.thetaStdDev,
+          other.cameraMask);
+      queuedTimeMicros = other.queuedTimeMicros;
     }
 
-    void addEstimate(PendingEstimate estimate) {
-      estimates.add(estimate);
+    /** Robot X position (meters). */
+    public double getX() {
+      return x;
     }
 
-    int size() {
-      return estimates.size();
+    /** Robot Y position (meters). */
+    public double getY() {
+      return y;
     }
 
-    int camerasUsed() {
-      int count = 0;
-      if (usesFront) count++;
-      if (usesLeft) count++;
-      if (usesRight) count++;
-      return count;
+    /** Robot heading (radians). */
+    public double getTheta() {
+      return theta;
+    }
+
+    /** Capture timestamp (FPGA seconds). */
+    public double getTimestamp() {
+      return timestamp;
+    }
+
+    public double getXyStdDev() {
+      return xyStdDev;
+    }
+
+    public double getThetaStdDev() {
+      return thetaStdDev;
+    }
+
+    /** Bitmask of the indices of the cameras that contributed to this measurement. */
+    public int getCameraMask() {
+      return cameraMask;
+    }
+
+    /** FPGA time this measurement was queued for the drivetrain (microseconds). */
+    public long getQueuedTimeMicros() {
+      return queuedTimeMicros;
+    }
+
+    public void setQueuedTimeMicros(long micros) {
+      queuedTimeMicros = micros;
     }
   }
 
   /** Tracks drift detection state machine for automatic odometry drift detection. */
   private class DriftDetectionState {
     int consecutiveAgreementCycles = 0;
-    Translation2d lastAgreementDirection = null;
+    boolean hasAgreementDirection = false;
+    double lastAgreementDirectionX = 0;
+    double lastAgreementDirectionY = 0;
     boolean driftDetected = false;
 
     void reset() {
       consecutiveAgreementCycles = 0;
-      lastAgreementDirection = null;
+      hasAgreementDirection = false;
       driftDetected = false;
     }
+
+    void setAgreementDirection(double x, double y) {
+      hasAgreementDirection = true;
+      lastAgreementDirectionX = x;
+      lastAgreementDirectionY = y;
+    }
   }
 
-  public VisionSubsystem() {}
+  /**
+   * Background ingest for a single camera, used when async ingest is enabled.
+   *
+   * <p>A {@link Notifier} polls the camera every {@link VisionConstants#ASYNC_INGEST_PERIOD}
+   * seconds and evaluates each result as soon as it arrives, so result decoding and pose math stay
+   * off the main loop. Estimates are only staged, never submitted: any of them may still join a
+   * multi-camera cluster, so the main loop jump-checks, clusters, fuses and submits them all at the
+   * per-cycle barrier, exactly as it does for results it reads itself. Only thread-safe state is
+   * touched from the worker thread; all logged counters are updated by the main loop when it drains
+   * the worker. Results are recorded when they are drained too, so replay feeds each one to the
+   * cycle that used its estimate.
+   *
+   * <p>This only moves work off the loop; it does not get estimates to the drivetrain any sooner.
+   * An estimate still waits for the next cycle either way, so the fusion latency histograms should
+   * read the same with async ingest on or off, while the time {@link #periodic()} takes drops.
+   */
+  private class CameraIngestWorker {
+    private final PhotonCamera camera;
+    private final int cameraIndex;
+    private final Notifier notifier;
+
+    // Worker thread only
+    private final VisionEstimateBuffer scratch =
+        new VisionEstimateBuffer(VisionConstants.MAX_ESTIMATES_PER_CYCLE);
+
+    // Guarded by this; swapped by drainInto()
+    private VisionEstimateBuffer staged =
+        new VisionEstimateBuffer(VisionConstants.MAX_ESTIMATES_PER_CYCLE);
+    private VisionEstimateBuffer drained =
+        new VisionEstimateBuffer(VisionConstants.MAX_ESTIMATES_PER_CYCLE);
+    private int stagedRejectedAmbiguity = 0;
+    // The staged estimates' results, kept for the recorder; empty when not recording
+    private ArrayList<PhotonPipelineResult> stagedResults = new ArrayList<>();
+    private ArrayList<PhotonPipelineResult> drainedResults = new ArrayList<>();
+
+    // Worker thread only
+    private final DriveStateSnapshot stats = new DriveStateSnapshot();
+    private final MutablePose3d pose = new MutablePose3d();
+
+    CameraIngestWorker(PhotonCamera camera, int cameraIndex) {
+      this.camera = camera;
+      this.cameraIndex = cameraIndex;
+      notifier = new Notifier(this::ingest);
+      notifier.setName("Vision Ingest " + cameraNames[cameraIndex]);
+    }
+
+    void start() {
+      notifier.startPeriodic(VisionConstants.ASYNC_INGEST_PERIOD);
+    }
+
+    /** Runs on the notifier thread. */
+    private void ingest() {
+      // Check before reading, so results aren't consumed and then thrown away
+      driveState.readLatest(stats);
+      if (!stats.isValid()) return;
+
+      // This is FIFO, so the oldest is given first and the newest last
+      List<PhotonPipelineResult> results = camera.getAllUnreadResults();
+      if (results.isEmpty()) return;
+
+      int rejectedAmbiguity = 0;
+      scratch.clear();
+      for (int i = 0; i < results.size(); i++) {
+        latencyStats.recordResult(cameraIndex, results.get(i));
+        if (evaluateResult(results.get(i), cameraIndex, stats.getOmega(), pose, scratch)
+            == REJECTED_AMBIGUITY) {
+          rejectedAmbiguity++;
+        }
+      }
+
+      synchronized (this) {
+        for (int e = 0; e < scratch.size; e++) staged.addFrom(scratch, e);
+        staged.dropped += scratch.dropped;
+        stagedRejectedAmbiguity += rejectedAmbiguity;
+        if (recorder != null) {
+          for (int i = 0; i < results.size(); i++) stagedResults.add(results.get(i));
+        }
+      }
+      scratch.dropped = 0;
+    }
+
+    /**
+     * Moves everything staged since the last call into the cycle's estimate store. Runs on the main
+     * loop and acts as the per-cycle barrier for the fused path.
+     */
+    void drainInto(VisionSubsystem vision) {
+      int rejectedAmbiguity;
+      synchronized (this) {
+        VisionEstimateBuffer swap = drained;
+        drained = staged;
+        staged = swap;
+        staged.clear();
+        rejectedAmbiguity = stagedRejectedAmbiguity;
+        stagedRejectedAmbiguity = 0;
+        ArrayList<PhotonPipelineResult> swapResults = drainedResults;
+        drainedResults = stagedResults;
+        stagedResults = swapResults;
+      }
+
+      // After this cycle's record, so replay ingests these results in the cycle that drained them
+      if (recorder != null) {
+        for (int i = 0; i < drainedResults.size(); i++) {
+          recorder.recordResult(cameraIndex, drainedResults.get(i));
+        }
+        drainedResults.clear();
+      }
+
+      for (int i = 0; i < rejectedAmbiguity; i++) {
+        vision.logBadResult(cameraIndex, REJECT_AMBIGUITY);
+      }
+
+      vision.pendingEstimates.dropped += drained.dropped;
+      drained.dropped = 0;
+      for (int e = 0; e < drained.size; e++) {
+        int estimate = vision.pendingEstimates.addFrom(drained, e);
+        if (estimate >= 0) vision.acceptEstimate(estimate);
+      }
+    }
+  }
+
+  /**
+   * Builds the camera registry from {@link VisionConstants#cameraTransformMap}. Each entry becomes
+   * a camera with a dense index in map order, so adding a camera only needs a new map entry.
+   */
+  public VisionSubsystem() {
+    this(false);
+  }
+
+  /**
+   * @param replay true when driven by {@link VisionReplay}: results are fed in through {@link
+   *     #replayCycle}, so no ingest workers or recorder are started
+   */
+  VisionSubsystem(boolean replay) {
+    cameraCount = VisionConstants.cameraTransformMap.size();
+    // Cluster camera sets are tracked as an int bitmask
+    if (cameraCount > Integer.SIZE) {
+      throw new IllegalStateException("At most " + Integer.SIZE + " cameras are supported");
+    }
+
+    cameras = new PhotonCamera[cameraCount];
+    cameraNames = new String[cameraCount];
+    robotToCamera = new Transform3d[cameraCount];
+    cameraToRobot = new MutablePose3d[cameraCount];
+
+    int index = 0;
+    for (Map.Entry<String, Transform3d> entry : VisionConstants.cameraTransformMap.entrySet()) {
+      cameraNames[index] = entry.getKey();
+      cameras[index] = new PhotonCamera(entry.getKey());
+      robotToCamera[index] = entry.getValue();
+      cameraToRobot[index] = new MutablePose3d().set(entry.getValue()).invert();
+      index++;
+    }
+
+    resultsAccepted = new long[cameraCount];
+    resultsRejectedTotal = new long[cameraCount];
+    resultsRejectedDueToAmbiguity = new long[cameraCount];
+    resultsRejectedDueToJumping = new long[cameraCount];
+
+    cameraPose = new double[3 * cameraCount];
+    cameraTimestamp = new double[cameraCount];
+    cameraTagCount = new int[cameraCount];
+    cameraAmbiguity = new double[cameraCount];
+    cameraXyStdDev = new double[cameraCount];
+    cameraThetaStdDev = new double[cameraCount];
+    cameraAvgDistance = new double[cameraCount];
+    cameraValidThisCycle = new boolean[cameraCount];
+    cameraResultsThisCycle = new int[cameraCount];
+    bestEstimate = new int[cameraCount];
+    cameraFusionResidual = nanArray(cameraCount);
+
+    captureLatencyP50 = nanArray(cameraCount);
+    captureLatencyP95 = nanArray(cameraCount);
+    captureLatencyP99 = nanArray(cameraCount);
+    transportLatencyP50 = nanArray(cameraCount);
+    transportLatencyP95 = nanArray(cameraCount);
+    transportLatencyP99 = nanArray(cameraCount);
+    queueLatencyP50 = nanArray(cameraCount);
+    queueLatencyP95 = nanArray(cameraCount);
+    queueLatencyP99 = nanArray(cameraCount);
+    fusionLatencyP50 = nanArray(cameraCount);
+    fusionLatencyP95 = nanArray(cameraCount);
+    fusionLatencyP99 = nanArray(cameraCount);
+
+    asyncIngest = VisionConstants.ASYNC_INGEST_ENABLED && !replay;
+    recorder =
+        VisionConstants.RECORDING_ENABLED && !replay ? VisionRecorder.open(cameraNames) : null;
+
+    if (asyncIngest) {
+      ingestWorkers = new CameraIngestWorker[cameraCount];
+      for (int camera = 0; camera < cameraCount; camera++) {
+        ingestWorkers[camera] = new CameraIngestWorker(cameras[camera], camera);
+        ingestWorkers[camera].start();
+      }
+    } else {
+      ingestWorkers = new CameraIngestWorker[0];
+    }
+  }
 
   /**
    * Periodic method that processes vision measurements from all cameras.
@@ -348,63 +590,160 @@ public class VisionSubsystem extends SubsystemBase {
    * available, ensuring no vision data is lost. When multiple results are processed per camera, the
    * best quality estimate (lowest ambiguity) is logged while all estimates contribute to
    * clustering.
+   *
+   * <p>Estimates and clusters are kept in preallocated struct-of-arrays stores that are reused
+   * every cycle, so evaluation, clustering and fusion do not allocate.
+   *
+   * <p>With async ingest enabled, results are evaluated by the per-camera workers instead, and this
+   * method drains whatever they staged since the last cycle (in camera order) before clustering, so
+   * the fused path sees a deterministic set of estimates each cycle.
    */
   @Override
   public void periodic() {
     if (driveState.hasDriveStats()) {
-      // Clear pending estimates from previous cycle
-      pendingEstimates.clear();
-
-      // Increment cycle counter and update timestamp
-      cycleCounter++;
-      cycleTimestamp = Timer.getFPGATimestamp();
-
-      // Reset per-Cycle flags
-      frontCameraValidThisCycle = false;
-      leftCameraValidThisCycle = false;
-      rightCameraValidThisCycle = false;
-      wasFusedThisCycle = false;
-      activePosesThisCycle = 0;
-
-      // Reset result counters
-      frontCameraResultsThisCycle = 0;
-      leftCameraResultsThisCycle = 0;
-      rightCameraResultsThisCycle = 0;
-
-      // Reset best estimate tracking
-      bestFrontEstimate = null;
-      bestLeftEstimate = null;
-      bestRightEstimate = null;
-      bestFusedCluster = null;
-
-      // this makes sure that the different parts of the periodic use different stats
-      driveStats = driveState.getCurrentDriveStats();
-
-      // Front Camera
-      // This is FIFO, so the oldest is given first and the newest last'
-      var frontCameraResults = VisionConstants.photonCamera_Front.getAllUnreadResults();
-      for (var result : frontCameraResults)
-        evaluateResult(result, VisionConstants.photonCameraName_Front);
-
-      // Left Camera
-      var leftCameraResults = VisionConstants.photonCamera_Left.getAllUnreadResults();
-      for (var result : leftCameraResults)
-        evaluateResult(result, VisionConstants.photonCameraName_Left);
-
-      // Right Camera
-      var rightCameraResults = VisionConstants.photonCamera_Right.getAllUnreadResults();
-      for (var result : rightCameraResults)
-        evaluateResult(result, VisionConstants.photonCameraName_Right);
-
-      // Perform clustering and submit estimates
-      performClustering();
-
-      // Finalize per-camera and fused logging with best estimates
-      finalizePerCameraLogging();
-      finalizeFusedLogging();
+      double fpgaTime = Timer.getFPGATimestamp();
+      beginCycle(fpgaTime, Utils.getCurrentTimeSeconds() - fpgaTime, !DriverStation.isDisabled());
+
+      if (recorder != null) {
+        recorder.recordCycle(cycleTimestamp, fpgaToDriveTime, robotEnabled, driveStats);
+        recordingDroppedRecords = recorder.dropped();
+      }
+
+      if (asyncIngest) {
+        // Per-cycle barrier: collect what the workers evaluated since the last cycle
+        for (CameraIngestWorker worker : ingestWorkers) worker.drainInto(this);
+      } else {
+        for (int camera = 0; camera < cameraCount; camera++) {
+          // This is FIFO, so the oldest is given first and the newest last
+          var results = cameras[camera].getAllUnreadResults();
+          for (int i = 0; i < results.size(); i++) {
+            if (recorder != null) recorder.recordResult(camera, results.get(i));
+            ingestResult(results.get(i), camera);
+          }
+        }
+      }
+
+      endCycle();
     }
   }
 
+  /**
+   * Runs one recorded cycle through the same pipeline as {@link #periodic()}. Used by {@link
+   * VisionReplay}; the recorded drive state must already be in {@link DriveState}.
+   *
+   * @param fpgaTime FPGA time at the start of the recorded cycle (seconds)
+   * @param fpgaToDriveTime Recorded offset from FPGA time to drivetrain time (seconds)
+   * @param enabled Whether the robot was enabled during the recorded cycle
+   * @param results Results read during the cycle
+   * @param resultCameras Camera index of each result
+   */
+  void replayCycle(
+      double fpgaTime,
+      double fpgaToDriveTime,
+      boolean enabled,
+      List<PhotonPipelineResult> results,
+      int[] resultCameras) {
+    beginCycle(fpgaTime, fpgaToDriveTime, enabled);
+    for (int i = 0; i < results.size(); i++) ingestResult(results.get(i), resultCameras[i]);
+    endCycle();
+  }
+
+  /** Publishes each camera's latency percentiles for the interval since the last publish. */
+  private void publishLatency() {
+    latencyStats.publish(
+        VisionLatencyStats.CAPTURE, captureLatencyP50, captureLatencyP95, captureLatencyP99);
+    latencyStats.publish(
+        VisionLatencyStats.TRANSPORT,
+        transportLatencyP50,
+        transportLatencyP95,
+        transportLatencyP99);
+    latencyStats.publish(
+        VisionLatencyStats.QUEUE, queueLatencyP50, queueLatencyP95, queueLatencyP99);
+    latencyStats.publish(
+        VisionLatencyStats.FUSION, fusionLatencyP50, fusionLatencyP95, fusionLatencyP99);
+  }
+
+  private static double[] nanArray(int length) {
+    double[] array = new double[length];
+    Arrays.fill(array, Double.NaN);
+    return array;
+  }
+
+  /** Resets per-cycle state and snapshots the drive state for this cycle. */
+  private void beginCycle(double fpgaTime, double fpgaToDriveTime, boolean enabled) {
+    // Clear pending estimates from previous cycle
+    pendingEstimates.clear();
+    clusters.clear();
+
+    // Increment cycle counter and update timestamp
+    cycleCounter++;
+    cycleTimestamp = fpgaTime;
+    robotEnabled = enabled;
+
+    // Reset per-Cycle flags, result counters and best estimate tracking
+    for (int camera = 0; camera < cameraCount; camera++) {
+      cameraValidThisCycle[camera] = false;
+      cameraResultsThisCycle[camera] = 0;
+      bestEstimate[camera] = -1;
+    }
+    wasFusedThisCycle = false;
+    activePosesThisCycle = 0;
+    bestFusedCluster = -1;
+
+    fuser.configure(
+        VisionPreferences.fusionMode.getValue(),
+        VisionPreferences.robustMaxIterations.getValue(),
+        VisionPreferences.robustConvergenceTolerance.getValue(),
+        VisionPreferences.huberThreshold.getValue(),
+        VisionPreferences.tukeyCutoff.getValue(),
+        VisionPreferences.trustScalingFactor.getValue());
+
+    // this makes sure that the different parts of the periodic use different stats
+    driveState.readLatest(driveStats);
+    this.fpgaToDriveTime = fpgaToDriveTime;
+  }
+
+  /** Clusters and submits this cycle's estimates, then publishes the cycle's logging. */
+  private void endCycle() {
+    // Perform clustering and submit estimates
+    performClustering();
+
+    // Finalize per-camera and fused logging with best estimates
+    finalizePerCameraLogging();
+    finalizeFusedLogging();
+
+    if (++cyclesSinceLatencyPublish >= VisionConstants.LATENCY_PUBLISH_CYCLES) {
+      cyclesSinceLatencyPublish = 0;
+      publishLatency();
+    }
+  }
+
+  /**
+   * Evaluates a result on the main loop and records it in this cycle's estimates and telemetry.
+   *
+   * @param result PhotonVision pipeline result containing detected targets
+   * @param camera Index of camera that produced the result
+   */
+  private void ingestResult(PhotonPipelineResult result, int camera) {
+    latencyStats.recordResult(camera, result);
+    int estimate =
+        evaluateResult(result, camera, driveStats.getOmega(), evaluationPose, pendingEstimates);
+    if (estimate == REJECTED_AMBIGUITY) logBadResult(camera, REJECT_AMBIGUITY);
+    else if (estimate >= 0) acceptEstimate(estimate);
+  }
+
+  /**
+   * Records telemetry for an estimate that was added to this cycle's estimates.
+   *
+   * @param estimate Index of the estimate in the pending estimate store
+   */
+  private void acceptEstimate(int estimate) {
+    // Update per-camera logging for AdvantageScope
+    updateCameraLogging(estimate);
+
+    incrementAccepted(pendingEstimates.camera[estimate]);
+  }
+
   /**
    * Evaluates a PhotonVision pipeline result and generates robot pose estimates.
    *
@@ -437,32 +776,45 @@ public class VisionSubsystem extends SubsystemBase {
    *       </ol>
    * </ul>
    *
+   * <p>The pose chain is composed in place in primitives, so evaluation doesn't allocate. This only
+   * reads thread-safe state, so it is also called from the async ingest workers.
+   *
    * @param result PhotonVision pipeline result containing detected targets
-   * @param cameraName Name of camera for transform lookup and logging
+   * @param camera Index of camera for transform lookup
+   * @param omega Robot angular velocity (rad/s) used to penalize heading trust
+   * @param pose Scratch pose owned by the calling thread
+   * @param out Estimate store the resulting estimate is added to
+   * @return index of the added estimate, {@link #REJECTED_AMBIGUITY}, or {@link #NO_ESTIMATE}
    */
-  private void evaluateResult(PhotonPipelineResult result, String cameraName) {
+  private int evaluateResult(
+      PhotonPipelineResult result,
+      int camera,
+      double omega,
+      MutablePose3d pose,
+      VisionEstimateBuffer out) {
 
     if (!result.multitagResult.isEmpty()
         && result.multitagResult.get().estimatedPose.ambiguity
             < VisionConstants.MAXIMUM_ALLOWED_AMBIGUITY) {
       MultiTargetPNPResult multiTargetPNPResult = result.multitagResult.get();
-      Pose3d estimatedPose =
-          Pose3d.kZero
-              .plus(multiTargetPNPResult.estimatedPose.best)
-              .relativeTo(VisionConstants.FIELD_LAYOUT.getOrigin())
-              .plus(VisionConstants.cameraTransformMap.get(cameraName).inverse());
+      pose.set(multiTargetPNPResult.estimatedPose.best)
+          .relativeTo(fieldOriginInverse)
+          .transformBy(cameraToRobot[camera]);
       double ambiguity = multiTargetPNPResult.estimatedPose.ambiguity;
-      evaluateEstimation(
-          estimatedPose,
+      return evaluateEstimation(
+          pose,
           result.getTimestampSeconds(),
           multiTargetPNPResult.fiducialIDsUsed,
-          cameraName,
-          ambiguity);
+          camera,
+          ambiguity,
+          omega,
+          out);
     } else if (result.hasTargets()) {
       PhotonTrackedTarget lowestAmbiguityTarget = null;
       double lowestAmbiguityScore = 10;
 
-      for (PhotonTrackedTarget target : result.targets) {
+      for (int i = 0; i < result.targets.size(); i++) {
+        PhotonTrackedTarget target = result.targets.get(i);
         double targetPoseAmbiguity = target.getPoseAmbiguity();
         // Make sure the target is a Fiducial target.
         if (targetPoseAmbiguity != -1 && targetPoseAmbiguity < lowestAmbiguityScore) {
@@ -474,25 +826,26 @@ public class VisionSubsystem extends SubsystemBase {
       // Although there are confirmed to be targets, none of them may be fiducial
       // targets.
       if (lowestAmbiguityScore > VisionConstants.MAXIMUM_ALLOWED_AMBIGUITY) {
-        logBadResult(cameraName, "AMBIGUITY");
-        return;
+        return REJECTED_AMBIGUITY;
       }
 
       int targetFiducialId = lowestAmbiguityTarget.getFiducialId();
 
-      var targetPoseOptional = VisionConstants.FIELD_LAYOUT.getTagPose(targetFiducialId);
-      if (targetPoseOptional.isEmpty()) return;
-      Pose3d targetPosition = targetPoseOptional.get();
+      if (!tagTable.has(targetFiducialId)) return NO_ESTIMATE;
+      pose.set(tagTable.pose(targetFiducialId))
+          .transformByInverse(lowestAmbiguityTarget.getBestCameraToTarget())
+          .transformBy(cameraToRobot[camera]);
 
-      evaluateEstimation(
-          targetPosition
-              .transformBy(lowestAmbiguityTarget.getBestCameraToTarget().inverse())
-              .transformBy(VisionConstants.cameraTransformMap.get(cameraName).inverse()),
+      return evaluateEstimation(
+          pose,
           result.getTimestampSeconds(),
           targetFiducialId,
-          cameraName,
-          lowestAmbiguityScore);
+          camera,
+          lowestAmbiguityScore,
+          omega,
+          out);
     }
+    return NO_ESTIMATE;
   }
 
   /**
@@ -529,26 +882,36 @@ public class VisionSubsystem extends SubsystemBase {
    * @param pose The estimated robot pose in 3D space
    * @param captureTime Timestamp when the camera captured the image
    * @param targetsUsed List of AprilTag IDs used in the multi-tag estimate
-   * @param cameraName Name of camera for logging purposes
+   * @param camera Index of camera for logging purposes
    * @param ambiguity PhotonVision ambiguity score for this estimate
+   * @param omega Robot angular velocity (rad/s)
+   * @param out Estimate store the estimate is added to
+   * @return index of the added estimate, or {@link #NO_ESTIMATE}
    */
-  private void evaluateEstimation(
-      Pose3d pose,
+  private int evaluateEstimation(
+      MutablePose3d pose,
       double captureTime,
       List<Short> targetsUsed,
-      String cameraName,
-      double ambiguity) {
+      int camera,
+      double ambiguity,
+      double omega,
+      VisionEstimateBuffer out) {
 
     // field constraints
-    if (pose.getX() < 0 || pose.getY() < 0 || pose.getX() > 16.7 || pose.getY() > 8.2) return;
+    if (pose.getX() < 0 || pose.getY() < 0 || pose.getX() > 16.7 || pose.getY() > 8.2)
+      return NO_ESTIMATE;
+
+    double robotX = pose.getX();
+    double robotY = pose.getY();
+    double robotZ = pose.getZ();
 
     double averageRobotToTagDistance = 0;
-    for (int target : targetsUsed)
+    for (int i = 0; i < targetsUsed.size(); i++) {
+      int id = targetsUsed.get(i);
+      if (!tagTable.has(id)) return NO_ESTIMATE;
       averageRobotToTagDistance +=
-          pose.getTranslation()
-                  .getDistance(
-                      VisionConstants.FIELD_LAYOUT.getTagPose(target).get().getTranslation())
-              / targetsUsed.size();
+          tagTable.distance(id, robotX, robotY, robotZ) / targetsUsed.size();
+    }
 
     double xyStdDev =
         VisionPreferences.xyStdDevCoef.getValue()
@@ -557,9 +920,7 @@ public class VisionSubsystem extends SubsystemBase {
 
     double thetaStdDev =
         VisionPreferences.thetaStdDevCoef.getValue()
-            * (1
-                + Math.abs(driveStats.Speeds.omegaRadiansPerSecond)
-                    * VisionPreferences.omegaPenalty.getValue())
+            * (1 + Math.abs(omega) * VisionPreferences.omegaPenalty.getValue())
             * Math.pow(averageRobotToTagDistance, 1.2)
             / targetsUsed.size();
 
@@ -571,22 +932,17 @@ public class VisionSubsystem extends SubsystemBase {
     }
 
     // Add to pending estimates for clustering
-    PendingEstimate estimate =
-        new PendingEstimate(
-            pose.toPose2d(),
-            captureTime,
-            cameraName,
-            targetsUsed.size(),
-            xyStdDev,
-            thetaStdDev,
-            averageRobotToTagDistance,
-            ambiguity);
-    pendingEstimates.add(estimate);
-
-    // Update per-camera logging for AdvantageScope
-    updateCameraLogging(estimate);
-
-    incrementAccepted(cameraName);
+    return out.add(
+        pose.getX(),
+        pose.getY(),
+        pose.getYaw(),
+        captureTime,
+        camera,
+        targetsUsed.size(),
+        xyStdDev,
+        thetaStdDev,
+        averageRobotToTagDistance,
+        ambiguity);
   }
 
   /**
@@ -624,27 +980,33 @@ public class VisionSubsystem extends SubsystemBase {
    * @param pose The estimated robot pose in 3D space
    * @param captureTime Timestamp when the camera captured the image
    * @param targetUsed AprilTag ID used for the single-tag estimate
-   * @param cameraName Name of camera for logging purposes
+   * @param camera Index of camera for logging purposes
    * @param ambiguity PhotonVision ambiguity score for this estimate
+   * @param omega Robot angular velocity (rad/s)
+   * @param out Estimate store the estimate is added to
+   * @return index of the added estimate, or {@link #NO_ESTIMATE}
    */
-  private void evaluateEstimation(
-      Pose3d pose, double captureTime, int targetUsed, String cameraName, double ambiguity) {
+  private int evaluateEstimation(
+      MutablePose3d pose,
+      double captureTime,
+      int targetUsed,
+      int camera,
+      double ambiguity,
+      double omega,
+      VisionEstimateBuffer out) {
 
     // field constraints
-    if (pose.getX() < 0 || pose.getY() < 0 || pose.getX() > 16.7 || pose.getY() > 8.2) return;
+    if (pose.getX() < 0 || pose.getY() < 0 || pose.getX() > 16.7 || pose.getY() > 8.2)
+      return NO_ESTIMATE;
 
     double robotToTagDistance =
-        pose.getTranslation()
-            .getDistance(
-                VisionConstants.FIELD_LAYOUT.getTagPose(targetUsed).get().getTranslation());
+        tagTable.distance(targetUsed, pose.getX(), pose.getY(), pose.getZ());
 
     double xyStdDev = VisionPreferences.xyStdDevCoef.getValue() * Math.pow(robotToTagDistance, 1.2);
 
     double thetaStdDev =
         VisionPreferences.thetaStdDevCoef.getValue()
-            * (1
-                + Math.abs(driveStats.Speeds.omegaRadiansPerSecond)
-                    * VisionPreferences.omegaPenalty.getValue())
+            * (1 + Math.abs(omega) * VisionPreferences.omegaPenalty.getValue())
             * Math.pow(robotToTagDistance, 1.2);
 
     // Use very small epsilon instead of 0 to avoid divide-by-zero in fusion
@@ -654,62 +1016,52 @@ public class VisionSubsystem extends SubsystemBase {
     }
 
     // Add to pending estimates for clustering
-    PendingEstimate estimate =
-        new PendingEstimate(
-            pose.toPose2d(),
-            captureTime,
-            cameraName,
-            1,
-            xyStdDev,
-            thetaStdDev,
-            robotToTagDistance,
-            ambiguity);
-    pendingEstimates.add(estimate);
-
-    // Update per-camera logging for AdvantageScope
-    updateCameraLogging(estimate);
-
-    incrementAccepted(cameraName);
+    return out.add(
+        pose.getX(),
+        pose.getY(),
+        pose.getYaw(),
+        captureTime,
+        camera,
+        1,
+        xyStdDev,
+        thetaStdDev,
+        robotToTagDistance,
+        ambiguity);
   }
 
   /**
    * Increments the accepted result counter for the specified camera. Used for telemetry and
    * monitoring vision system performance.
    *
-   * @param cameraName Name of camera whose counter should be incremented
+   * @param camera Index of camera whose counter should be incremented
    */
-  private void incrementAccepted(String cameraName) {
-    if (cameraName.equals(VisionConstants.photonCameraName_Front)) frontCameraResultsAccepted++;
-    if (cameraName.equals(VisionConstants.photonCameraName_Left)) leftCameraResultsAccepted++;
-    if (cameraName.equals(VisionConstants.photonCameraName_Right)) rightCameraResultsAccepted++;
+  private void incrementAccepted(int camera) {
+    resultsAccepted[camera]++;
   }
 
   /**
    * Logs rejected vision results by camera and rejection reason. Tracks telemetry for monitoring
    * vision system health and tuning filters.
    *
-   * @param cameraName Name of camera that produced the rejected result
-   * @param type Rejection reason: "AMBIGUITY" (uncertain pose) or "JUMPING" (teleportation)
+   * @param camera Index of camera that produced the rejected result, or {@link #FUSED}
+   * @param reason Rejection reason: {@link #REJECT_AMBIGUITY} (uncertain pose) or {@link
+   *     #REJECT_JUMPING} (teleportation)
    */
-  private void logBadResult(String cameraName, String type) {
-    if (cameraName.equals(VisionConstants.photonCameraName_Front)) {
-      frontCameraResultsRejectedTotal++;
-      if (type.equals("AMBIGUITY")) frontCameraResultsRejectedDueToAmbiguity++;
-      else if (type.equals("JUMPING")) frontCameraResultsRejectedDueToJumping++;
-    } else if (cameraName.equals(VisionConstants.photonCameraName_Left)) {
-      leftCameraResultsRejectedTotal++;
-      if (type.equals("AMBIGUITY")) leftCameraResultsRejectedDueToAmbiguity++;
-      else if (type.equals("JUMPING")) leftCameraResultsRejectedDueToJumping++;
-    } else if (cameraName.equals(VisionConstants.photonCameraName_Right)) {
-      rightCameraResultsRejectedTotal++;
-      if (type.equals("AMBIGUITY")) rightCameraResultsRejectedDueToAmbiguity++;
-      else if (type.equals("JUMPING")) rightCameraResultsRejectedDueToJumping++;
-    }
+  private void logBadResult(int camera, int reason) {
+    if (camera == FUSED) return;
+
+    resultsRejectedTotal[camera]++;
+    if (reason == REJECT_AMBIGUITY) resultsRejectedDueToAmbiguity[camera]++;
+    else if (reason == REJECT_JUMPING) resultsRejectedDueToJumping[camera]++;
   }
 
   /**
    * Checks if an estimate should be rejected due to jumping (teleportation).
    *
+   * <p>The estimate is compared against the odometry pose at the time the frame was captured, taken
+   * from the local pose history. If the capture time is older than the history, the current pose
+   * is used instead.
+   *
    * <p>Jump detection is disabled when:
    *
    * <ul>
@@ -717,20 +1069,28 @@ public class VisionSubsystem extends SubsystemBase {
    *   <li>Pose reset is active (intentionally accepting large corrections)
    * </ul>
    *
-   * @param estimatedPose The vision-estimated robot pose
-   * @param cameraName Name of camera for logging
+   * @param x Vision-estimated robot X position (meters)
+   * @param y Vision-estimated robot Y position (meters)
+   * @param captureTime Capture timestamp of the estimate (FPGA seconds)
+   * @param camera Index of camera for logging, or {@link #FUSED}
    * @return true if estimate should be rejected due to jumping
    */
-  private boolean shouldRejectForJumping(Pose2d estimatedPose, String cameraName) {
-    if (RobotModeTriggers.disabled().getAsBoolean() || resettingPose) {
+  private boolean shouldRejectForJumping(double x, double y, double captureTime, int camera) {
+    if (!robotEnabled || resettingPose) {
       return false;
     }
 
-    double estimateDistance =
-        driveStats.Pose.getTranslation().getDistance(estimatedPose.getTranslation());
+    double odometryX = driveStats.getX();
+    double odometryY = driveStats.getY();
+    if (poseHistory.sample(captureTime + fpgaToDriveTime, historyPose)) {
+      odometryX = historyPose[PoseHistory.X];
+      odometryY = historyPose[PoseHistory.Y];
+    }
+
+    double estimateDistance = Math.hypot(x - odometryX, y - odometryY);
 
     if (estimateDistance > VisionPreferences.jumpLimit.getValue()) {
-      logBadResult(cameraName, "JUMPING");
+      logBadResult(camera, REJECT_JUMPING);
       return true;
     }
 
@@ -738,71 +1098,25 @@ public class VisionSubsystem extends SubsystemBase {
   }
 
   /**
-   * Checks if two estimates are close enough to be clustered together.
-   *
-   * <p>Uses both distance and angle thresholds to determine clustering eligibility.
-   *
-   * @param e1 First estimate
-   * @param e2 Second estimate
-   * @return true if estimates should be clustered together
-   */
-  private boolean areEstimatesClose(PendingEstimate e1, PendingEstimate e2) {
-    double distance = e1.pose.getTranslation().getDistance(e2.pose.getTranslation());
-    double angleDiff = Math.abs(e1.pose.getRotation().minus(e2.pose.getRotation()).getRadians());
-
-    return distance < VisionPreferences.clusterDistanceThreshold.getValue()
-        && angleDiff < VisionPreferences.clusterAngleThreshold.getValue();
-  }
-
-  /**
-   * Groups pending estimates into clusters using greedy distance-based algorithm.
-   *
-   * <p>Algorithm:
-   *
-   * <ol>
-   *   <li>For each unclustered estimate, create a new cluster
-   *   <li>Find all other unclustered estimates within threshold distance
-   *   <li>Add neighbors to cluster and mark as clustered
-   *   <li>Repeat until all estimates are clustered
-   * </ol>
+   * Groups pending estimates into clusters of estimates that agree on the robot pose.
    *
-   * <p>Complexity: O(n²) where n ≤ 3 cameras, so negligible overhead
+   * <p>Estimates closer than the cluster distance threshold whose headings differ by less than the
+   * cluster angle threshold are linked, and each connected group of linked estimates becomes one
+   * cluster. See {@link VisionClusterer} for the algorithm.
    *
-   * @param estimates List of pending estimates to cluster
-   * @return List of clusters, each containing 1+ estimates
+   * <p>Clusters are written into the preallocated {@link #clusters} store.
    */
-  private List<VisionCluster> findClusters(List<PendingEstimate> estimates) {
-    List<VisionCluster> clusters = new ArrayList<>();
-    boolean[] clustered = new boolean[estimates.size()];
-
-    for (int i = 0; i < estimates.size(); i++) {
-      if (clustered[i]) continue;
-
-      VisionCluster cluster = new VisionCluster(estimates.get(i));
-      clustered[i] = true;
-
-      // Find all neighbors within threshold
-      for (int j = i + 1; j < estimates.size(); j++) {
-        if (!clustered[j] && areEstimatesClose(estimates.get(i), estimates.get(j))) {
-          cluster.addEstimate(estimates.get(j));
-          clustered[j] = true;
-          if (estimates.get(j).cameraName.equals(VisionConstants.photonCameraName_Front))
-            cluster.usesFront = true;
-          if (estimates.get(j).cameraName.equals(VisionConstants.photonCameraName_Left))
-            cluster.usesLeft = true;
-          if (estimates.get(j).cameraName.equals(VisionConstants.photonCameraName_Right))
-            cluster.usesRight = true;
-        }
-      }
-
-      clusters.add(cluster);
-    }
-
-    return clusters;
+  private void findClusters() {
+    clusterer.cluster(
+        pendingEstimates,
+        VisionPreferences.clusterDistanceThreshold.getValue(),
+        VisionPreferences.clusterAngleThreshold.getValue(),
+        clusters);
   }
 
   /**
-   * Fuses multiple pose estimates in a cluster using inverse variance weighting.
+   * Fuses the pose estimates in a cluster with the {@link VisionClusterFuser} mode selected in
+   * {@link VisionPreferences}.
    *
    * <p>Fusion Algorithm:
    *
@@ -810,69 +1124,16 @@ public class VisionSubsystem extends SubsystemBase {
    *   <li>Calculate inverse variance weights: weight = 1/σ²
    *   <li>Compute weighted average of X, Y coordinates
    *   <li>Compute weighted average of rotation using sin/cos (handles wraparound)
+   *   <li>In the Huber and Tukey modes, reweight estimates by their residuals and repeat until the
+   *       pose converges
    *   <li>Use oldest timestamp in cluster (conservative)
    *   <li>Apply LINEAR trust scaling: finalStdDev = avgStdDev / clusterSize
    * </ol>
    *
-   * @param cluster Cluster to fuse
+   * @param cluster Index of cluster to fuse
    */
-  private void fusePosesInCluster(VisionCluster cluster) {
-    if (cluster.size() == 1) {
-      // No fusion needed for single estimate
-      PendingEstimate e = cluster.estimates.get(0);
-      cluster.fusedPose = e.pose;
-      cluster.fusedTimestamp = e.timestamp;
-      cluster.fusedXyStdDev = e.xyStdDev;
-      cluster.fusedThetaStdDev = e.thetaStdDev;
-      return;
-    }
-
-    // Calculate inverse variance weights
-    double totalXyWeight = 0;
-    double totalThetaWeight = 0;
-    double weightedX = 0;
-    double weightedY = 0;
-    double weightedSin = 0;
-    double weightedCos = 0;
-    double oldestTimestamp = Double.MAX_VALUE;
-    double sumXyStdDev = 0;
-    double sumThetaStdDev = 0;
-
-    for (PendingEstimate e : cluster.estimates) {
-      double xyWeight = 1.0 / (e.xyStdDev * e.xyStdDev);
-      double thetaWeight = 1.0 / (e.thetaStdDev * e.thetaStdDev);
-
-      weightedX += e.pose.getX() * xyWeight;
-      weightedY += e.pose.getY() * xyWeight;
-      weightedSin += Math.sin(e.pose.getRotation().getRadians()) * thetaWeight;
-      weightedCos += Math.cos(e.pose.getRotation().getRadians()) * thetaWeight;
-
-      totalXyWeight += xyWeight;
-      totalThetaWeight += thetaWeight;
-      sumXyStdDev += e.xyStdDev;
-      sumThetaStdDev += e.thetaStdDev;
-
-      if (e.timestamp < oldestTimestamp) {
-        oldestTimestamp = e.timestamp;
-      }
-    }
-
-    // Compute fused pose
-    double fusedX = weightedX / totalXyWeight;
-    double fusedY = weightedY / totalXyWeight;
-    double fusedTheta = Math.atan2(weightedSin / totalThetaWeight, weightedCos / totalThetaWeight);
-
-    cluster.fusedPose = new Pose2d(fusedX, fusedY, new Rotation2d(fusedTheta));
-    cluster.fusedTimestamp = oldestTimestamp;
-
-    // Apply LINEAR trust scaling
-    double avgXyStdDev = sumXyStdDev / cluster.size();
-    double avgThetaStdDev = sumThetaStdDev / cluster.size();
-
-    cluster.fusedXyStdDev =
-        (avgXyStdDev / cluster.size()) * VisionPreferences.trustScalingFactor.getValue();
-    cluster.fusedThetaStdDev =
-        (avgThetaStdDev / cluster.size()) * VisionPreferences.trustScalingFactor.getValue();
+  private void fusePosesInCluster(int cluster) {
+    fuser.fuse(pendingEstimates, clusters, cluster);
   }
 
   /**
@@ -891,13 +1152,13 @@ public class VisionSubsystem extends SubsystemBase {
    * <p>Direction checking can be disabled by setting driftDirectionTolerance to 0, which will
    * trigger drift based purely on error magnitude exceeding minimumDistance for N cycles.
    *
-   * @param cluster Vision cluster to check against odometry
+   * @param cluster Index of vision cluster to check against odometry
    * @return true if drift detected (should bypass jump detection)
    */
-  private boolean checkForDrift(VisionCluster cluster) {
-    Translation2d jumpVector =
-        cluster.fusedPose.getTranslation().minus(driveStats.Pose.getTranslation());
-    double jumpDistance = jumpVector.getNorm();
+  private boolean checkForDrift(int cluster) {
+    double jumpX = clusters.fusedX[cluster] - driveStats.getX();
+    double jumpY = clusters.fusedY[cluster] - driveStats.getY();
+    double jumpDistance = Math.hypot(jumpX, jumpY);
 
     // Check for convergence (drift resolved)
     if (jumpDistance < VisionPreferences.driftConvergenceThreshold.getValue()) {
@@ -914,16 +1175,19 @@ public class VisionSubsystem extends SubsystemBase {
     double directionTolerance = VisionPreferences.driftDirectionTolerance.getValue();
     boolean directionCheckEnabled = directionTolerance > 0;
 
-    if (driftState.lastAgreementDirection == null) {
+    if (!driftState.hasAgreementDirection) {
       // First detection
-      driftState.lastAgreementDirection = jumpVector;
+      driftState.setAgreementDirection(jumpX, jumpY);
       driftState.consecutiveAgreementCycles = 1;
     } else {
       boolean directionConsistent = true;
 
       if (directionCheckEnabled) {
         // Check if direction is consistent
-        double directionDiff = jumpVector.minus(driftState.lastAgreementDirection).getNorm();
+        double directionDiff =
+            Math.hypot(
+                jumpX - driftState.lastAgreementDirectionX,
+                jumpY - driftState.lastAgreementDirectionY);
         directionConsistent = directionDiff < directionTolerance;
       }
       // If direction check disabled (tolerance = 0), always consider consistent
@@ -937,7 +1201,7 @@ public class VisionSubsystem extends SubsystemBase {
         }
       } else {
         // Direction changed, reset
-        driftState.lastAgreementDirection = jumpVector;
+        driftState.setAgreementDirection(jumpX, jumpY);
         driftState.consecutiveAgreementCycles = 1;
         driftState.driftDetected = false;
       }
@@ -946,6 +1210,37 @@ public class VisionSubsystem extends SubsystemBase {
     return driftState.driftDetected;
   }
 
+  /**
+   * Submits a pose to the drive state's vision queue for the given trust tier.
+   *
+   * @param x Robot X position (meters)
+   * @param y Robot Y position (meters)
+   * @param theta Robot heading (radians)
+   * @param timestamp Capture timestamp (FPGA seconds)
+   * @param xyStdDev XY standard deviation
+   * @param thetaStdDev Theta standard deviation
+   * @param cameraMask Bitmask of the cameras that agreed on the pose; the tier is the camera count,
+   *     with 3 or more sharing the top tier
+   */
+  private void submitEstimate(
+      double x,
+      double y,
+      double theta,
+      double timestamp,
+      double xyStdDev,
+      double thetaStdDev,
+      int cameraMask) {
+    driveState.addVisionEstimate(
+        x,
+        y,
+        theta,
+        timestamp,
+        xyStdDev,
+        thetaStdDev,
+        cameraMask,
+        Math.min(Integer.bitCount(cameraMask), 3));
+  }
+
   /**
    * Performs clustering on pending estimates and submits fused results to pose estimator.
    *
@@ -977,26 +1272,31 @@ public class VisionSubsystem extends SubsystemBase {
    * estimator, but only the best cluster is logged (updated in finalizeFusedLogging()).
    */
   private void performClustering() {
-    estimatesProcessedThisCycle = pendingEstimates.size();
+    estimatesProcessedThisCycle = pendingEstimates.size;
+    estimatesDropped = pendingEstimates.dropped;
 
     if (pendingEstimates.isEmpty()) {
       return;
     }
 
     // Handle single estimate case
-    if (pendingEstimates.size() == 1) {
-      PendingEstimate estimate = pendingEstimates.get(0);
-
-      if (shouldRejectForJumping(estimate.pose, estimate.cameraName)) {
+    if (pendingEstimates.size == 1) {
+      if (shouldRejectForJumping(
+          pendingEstimates.x[0],
+          pendingEstimates.y[0],
+          pendingEstimates.timestamp[0],
+          pendingEstimates.camera[0])) {
         return;
       }
 
-      driveState.addVisionEstimate(
-          new VisionMeasurement(
-              estimate.pose,
-              estimate.timestamp,
-              VecBuilder.fill(estimate.xyStdDev, estimate.xyStdDev, estimate.thetaStdDev)),
-          1);
+      submitEstimate(
+          pendingEstimates.x[0],
+          pendingEstimates.y[0],
+          pendingEstimates.theta[0],
+          pendingEstimates.timestamp[0],
+          pendingEstimates.xyStdDev[0],
+          pendingEstimates.thetaStdDev[0],
+          1 << pendingEstimates.camera[0]);
 
       singleCameraClusters++;
       totalClustersFormed++;
@@ -1004,32 +1304,40 @@ public class VisionSubsystem extends SubsystemBase {
     }
 
     // Multiple estimates - perform clustering
-    List<VisionCluster> clusters = findClusters(pendingEstimates);
-    totalClustersFormed += clusters.size();
+    findClusters();
+    totalClustersFormed += clusters.count;
 
-    for (VisionCluster cluster : clusters) {
+    for (int cluster = 0; cluster < clusters.count; cluster++) {
       fusePosesInCluster(cluster);
 
+      int size = clusters.size[cluster];
+
       // Update max cluster size
-      if (cluster.size() > maxClusterSize) {
-        maxClusterSize = cluster.size();
+      if (size > maxClusterSize) {
+        maxClusterSize = size;
       }
 
-      if (cluster.size() == 1) {
+      if (size == 1) {
         // Single-camera cluster (outlier)
-        PendingEstimate estimate = cluster.estimates.get(0);
+        int estimate = clusters.member(cluster, 0);
 
-        if (shouldRejectForJumping(estimate.pose, estimate.cameraName)) {
+        if (shouldRejectForJumping(
+            pendingEstimates.x[estimate],
+            pendingEstimates.y[estimate],
+            pendingEstimates.timestamp[estimate],
+            pendingEstimates.camera[estimate])) {
           outliersRejected++;
           continue;
         }
 
-        driveState.addVisionEstimate(
-            new VisionMeasurement(
-                estimate.pose,
-                estimate.timestamp,
-                VecBuilder.fill(estimate.xyStdDev, estimate.xyStdDev, estimate.thetaStdDev)),
-            1);
+        submitEstimate(
+            pendingEstimates.x[estimate],
+            pendingEstimates.y[estimate],
+            pendingEstimates.theta[estimate],
+            pendingEstimates.timestamp[estimate],
+            pendingEstimates.xyStdDev[estimate],
+            pendingEstimates.thetaStdDev[estimate],
+            1 << pendingEstimates.camera[estimate]);
 
         singleCameraClusters++;
       } else {
@@ -1041,26 +1349,32 @@ public class VisionSubsystem extends SubsystemBase {
         driftConsecutiveCycles = driftState.consecutiveAgreementCycles;
 
         // Track best multi-camera cluster (largest, or lowest uncertainty if tied)
-        if (bestFusedCluster == null
-            || cluster.size() > bestFusedCluster.size()
-            || (cluster.size() == bestFusedCluster.size()
-                && cluster.fusedXyStdDev < bestFusedCluster.fusedXyStdDev)) {
+        if (bestFusedCluster < 0
+            || size > clusters.size[bestFusedCluster]
+            || (size == clusters.size[bestFusedCluster]
+                && clusters.fusedXyStdDev[cluster] < clusters.fusedXyStdDev[bestFusedCluster])) {
           bestFusedCluster = cluster;
         }
 
         // Apply jump detection unless drift is detected
-        if (!driftDetected && shouldRejectForJumping(cluster.fusedPose, "FUSED")) {
+        if (!driftDetected
+            && shouldRejectForJumping(
+                clusters.fusedX[cluster],
+                clusters.fusedY[cluster],
+                clusters.fusedTimestamp[cluster],
+                FUSED)) {
           continue;
         }
 
         // Submit fused estimate
-        driveState.addVisionEstimate(
-            new VisionMeasurement(
-                cluster.fusedPose,
-                cluster.fusedTimestamp,
-                VecBuilder.fill(
-                    cluster.fusedXyStdDev, cluster.fusedXyStdDev, cluster.fusedThetaStdDev)),
-            cluster.camerasUsed());
+        submitEstimate(
+            clusters.fusedX[cluster],
+            clusters.fusedY[cluster],
+            clusters.fusedTheta[cluster],
+            clusters.fusedTimestamp[cluster],
+            clusters.fusedXyStdDev[cluster],
+            clusters.fusedThetaStdDev[cluster],
+            clusters.cameraMask[cluster]);
 
         multiCameraClusters++;
       }
@@ -1076,27 +1390,19 @@ public class VisionSubsystem extends SubsystemBase {
    *
    * <p>This prevents data loss when multiple results are processed per camera in a single cycle.
    *
-   * @param estimate The pending estimate to track
+   * @param estimate Index of the pending estimate to track
    */
-  private void updateCameraLogging(PendingEstimate estimate) {
+  private void updateCameraLogging(int estimate) {
     activePosesThisCycle++;
 
-    if (estimate.cameraName.equals(VisionConstants.photonCameraName_Front)) {
-      frontCameraResultsThisCycle++;
-      // Keep estimate with lowest ambiguity
-      if (bestFrontEstimate == null || estimate.ambiguity < bestFrontEstimate.ambiguity) {
-        bestFrontEstimate = estimate;
-      }
-    } else if (estimate.cameraName.equals(VisionConstants.photonCameraName_Left)) {
-      leftCameraResultsThisCycle++;
-      if (bestLeftEstimate == null || estimate.ambiguity < bestLeftEstimate.ambiguity) {
-        bestLeftEstimate = estimate;
-      }
-    } else if (estimate.cameraName.equals(VisionConstants.photonCameraName_Right)) {
-      rightCameraResultsThisCycle++;
-      if (bestRightEstimate == null || estimate.ambiguity < bestRightEstimate.ambiguity) {
-        bestRightEstimate = estimate;
-      }
+    int camera = pendingEstimates.camera[estimate];
+    double ambiguity = pendingEstimates.ambiguity[estimate];
+
+    cameraResultsThisCycle[camera]++;
+    // Keep estimate with lowest ambiguity
+    int best = bestEstimate[camera];
+    if (best < 0 || ambiguity < pendingEstimates.ambiguity[best]) {
+      bestEstimate[camera] = estimate;
     }
   }
 
@@ -1107,40 +1413,20 @@ public class VisionSubsystem extends SubsystemBase {
    * fields with the estimate that had the lowest ambiguity (highest quality) for each camera.
    */
   private void finalizePerCameraLogging() {
-    // Front camera
-    if (bestFrontEstimate != null) {
-      frontCameraPose = bestFrontEstimate.pose;
-      frontCameraTimestamp = bestFrontEstimate.timestamp;
-      frontCameraTagCount = bestFrontEstimate.tagCount;
-      frontCameraAmbiguity = bestFrontEstimate.ambiguity;
-      frontCameraXyStdDev = bestFrontEstimate.xyStdDev;
-      frontCameraThetaStdDev = bestFrontEstimate.thetaStdDev;
-      frontCameraAvgDistance = bestFrontEstimate.averageTagDistance;
-      frontCameraValidThisCycle = true;
-    }
-
-    // Left camera
-    if (bestLeftEstimate != null) {
-      leftCameraPose = bestLeftEstimate.pose;
-      leftCameraTimestamp = bestLeftEstimate.timestamp;
-      leftCameraTagCount = bestLeftEstimate.tagCount;
-      leftCameraAmbiguity = bestLeftEstimate.ambiguity;
-      leftCameraXyStdDev = bestLeftEstimate.xyStdDev;
-      leftCameraThetaStdDev = bestLeftEstimate.thetaStdDev;
-      leftCameraAvgDistance = bestLeftEstimate.averageTagDistance;
-      leftCameraValidThisCycle = true;
-    }
-
-    // Right camera
-    if (bestRightEstimate != null) {
-      rightCameraPose = bestRightEstimate.pose;
-      rightCameraTimestamp = bestRightEstimate.timestamp;
-      rightCameraTagCount = bestRightEstimate.tagCount;
-      rightCameraAmbiguity = bestRightEstimate.ambiguity;
-      rightCameraXyStdDev = bestRightEstimate.xyStdDev;
-      rightCameraThetaStdDev = bestRightEstimate.thetaStdDev;
-      rightCameraAvgDistance = bestRightEstimate.averageTagDistance;
-      rightCameraValidThisCycle = true;
+    for (int camera = 0; camera < cameraCount; camera++) {
+      int e = bestEstimate[camera];
+      if (e < 0) continue;
+
+      cameraPose[3 * camera] = pendingEstimates.x[e];
+      cameraPose[3 * camera + 1] = pendingEstimates.y[e];
+      cameraPose[3 * camera + 2] = pendingEstimates.theta[e];
+      cameraTimestamp[camera] = pendingEstimates.timestamp[e];
+      cameraTagCount[camera] = pendingEstimates.tagCount[e];
+      cameraAmbiguity[camera] = pendingEstimates.ambiguity[e];
+      cameraXyStdDev[camera] = pendingEstimates.xyStdDev[e];
+      cameraThetaStdDev[camera] = pendingEstimates.thetaStdDev[e];
+      cameraAvgDistance[camera] = pendingEstimates.averageTagDistance[e];
+      cameraValidThisCycle[camera] = true;
     }
   }
 
@@ -1151,19 +1437,70 @@ public class VisionSubsystem extends SubsystemBase {
    * multi-camera cluster (or lowest uncertainty if tied).
    */
   private void finalizeFusedLogging() {
-    if (bestFusedCluster != null) {
-      fusedPose = bestFusedCluster.fusedPose;
-      fusedTimestamp = bestFusedCluster.fusedTimestamp;
-      fusedClusterSize = bestFusedCluster.size();
-      fusedXyStdDev = bestFusedCluster.fusedXyStdDev;
-      fusedThetaStdDev = bestFusedCluster.fusedThetaStdDev;
+    if (bestFusedCluster >= 0) {
+      int c = bestFusedCluster;
+      fusedPose[0] = clusters.fusedX[c];
+      fusedPose[1] = clusters.fusedY[c];
+      fusedPose[2] = clusters.fusedTheta[c];
+      fusedTimestamp = clusters.fusedTimestamp[c];
+      fusedClusterSize = clusters.size[c];
+      fusedXyStdDev = clusters.fusedXyStdDev[c];
+      fusedThetaStdDev = clusters.fusedThetaStdDev[c];
+      fusedIterations = clusters.fusedIterations[c];
+      fusedMaxResidual = clusters.fusedMaxResidual[c];
       wasFusedThisCycle = true;
 
+      Arrays.fill(cameraFusionResidual, Double.NaN);
+      for (int n = 0; n < clusters.size[c]; n++) {
+        int camera = pendingEstimates.camera[clusters.member(c, n)];
+        double residual = clusters.residual(c, n);
+        if (Double.isNaN(cameraFusionResidual[camera])
+            || residual > cameraFusionResidual[camera]) {
+          cameraFusionResidual[camera] = residual;
+        }
+      }
+
       // Check drift for best cluster
       fusedDriftDetected = driftState.driftDetected;
     }
   }
 
+  /** Index of the camera with this name, or -1 if it is not in the registry. */
+  int cameraIndex(String name) {
+    for (int camera = 0; camera < cameraCount; camera++) {
+      if (cameraNames[camera].equals(name)) return camera;
+    }
+    return -1;
+  }
+
+  String cameraName(int camera) {
+    return cameraNames[camera];
+  }
+
+  int cameraCount() {
+    return cameraCount;
+  }
+
+  long resultsAccepted(int camera) {
+    return resultsAccepted[camera];
+  }
+
+  long resultsRejectedDueToAmbiguity(int camera) {
+    return resultsRejectedDueToAmbiguity[camera];
+  }
+
+  long resultsRejectedDueToJumping(int camera) {
+    return resultsRejectedDueToJumping[camera];
+  }
+
+  long multiCameraClusters() {
+    return multiCameraClusters;
+  }
+
+  long outliersRejected() {
+    return outliersRejected;
+  }
+
   /**
    * Command to enable pose reset mode.
    *
@@ -1186,6 +1523,11 @@ public class VisionSubsystem extends SubsystemBase {
    * @return Command that sets resettingPose flag to false
    */
   public Command stopResetPose() {
-    return runOnce(() -> this.resettingPose = false);
+    return runOnce(
+        () -> {
+          this.resettingPose = false;
+          // Positions from before the reset are no longer comparable
+          poseHistory.clear();
+        });
   }
 }
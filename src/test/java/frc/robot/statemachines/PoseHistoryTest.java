@@ -0,0 +1,86 @@
+package frc.robot.statemachines;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.interpolation.TimeInterpolatableBuffer;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link PoseHistory} lookups against the drivetrain's {@code samplePoseAt}.
+ *
+ * <p>{@code samplePoseAt} interpolates a {@link TimeInterpolatableBuffer} of poses with {@link
+ * Pose2d#interpolate}. This drives a simulated robot through curves, spins and heading wraps at
+ * 250 Hz with jittered odometry timing, feeds every sample to both, and compares lookups at random
+ * times across the history.
+ */
+class PoseHistoryTest {
+
+  private static final double PERIOD = 0.004;
+  private static final int SAMPLES = 500;
+  private static final int STEPS = 30_000;
+  private static final int QUERIES_PER_STEP = 4;
+
+  private static final double POSITION_TOLERANCE = 1e-3; // meters
+  private static final double HEADING_TOLERANCE = 1e-4; // radians
+
+  @Test
+  void lookupsMatchSamplePoseAt() {
+    Random random = new Random(2026);
+    PoseHistory history = new PoseHistory(SAMPLES);
+    TimeInterpolatableBuffer<Pose2d> reference =
+        TimeInterpolatableBuffer.createBuffer(SAMPLES * PERIOD);
+    double[] out = new double[PoseHistory.SAMPLE_LENGTH];
+
+    double t = 0;
+    double x = 1;
+    double y = 1;
+    double heading = 0;
+    double maxPositionError = 0;
+    double maxHeadingError = 0;
+
+    for (int step = 0; step < STEPS; step++) {
+      // Speeds change smoothly, with fast spins so heading crosses +-pi often
+      double vx = 3.5 * Math.sin(t * 0.7);
+      double vy = 2.0 * Math.cos(t * 1.3);
+      double omega = 9.0 * Math.sin(t * 0.45);
+
+      double dt = PERIOD * (0.9 + 0.2 * random.nextDouble());
+      double cos = Math.cos(heading);
+      double sin = Math.sin(heading);
+      x += (vx * cos - vy * sin) * dt;
+      y += (vx * sin + vy * cos) * dt;
+      heading = MathUtil.angleModulus(heading + omega * dt);
+      t += dt;
+
+      history.add(t, x, y, heading, vx, vy, omega);
+      reference.addSample(t, new Pose2d(x, y, new Rotation2d(heading)));
+
+      // Only query the span both buffers hold; PoseHistory does not clamp to its oldest sample
+      double oldest = Math.max(history.oldestTimestamp(), t - SAMPLES * PERIOD * 0.9);
+      if (step < SAMPLES) continue;
+      for (int q = 0; q < QUERIES_PER_STEP; q++) {
+        double time = oldest + (t - oldest) * random.nextDouble();
+        assertTrue(history.sample(time, out), "no sample inside the history");
+        Pose2d expected = reference.getSample(time).orElseThrow();
+
+        double positionError =
+            Math.hypot(out[PoseHistory.X] - expected.getX(), out[PoseHistory.Y] - expected.getY());
+        double headingError =
+            Math.abs(
+                MathUtil.angleModulus(
+                    out[PoseHistory.HEADING] - expected.getRotation().getRadians()));
+        maxPositionError = Math.max(maxPositionError, positionError);
+        maxHeadingError = Math.max(maxHeadingError, headingError);
+      }
+    }
+
+    assertTrue(
+        maxPositionError <= POSITION_TOLERANCE, "max position error " + maxPositionError + " m");
+    assertTrue(
+        maxHeadingError <= HEADING_TOLERANCE, "max heading error " + maxHeadingError + " rad");
+  }
+}
@@ -0,0 +1,120 @@
+package frc.robot.statemachines;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.math.MathUtil;
+import frc.robot.subsystems.shooter.ShotMap;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.DoubleUnaryOperator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link ShootOnTheMoveTable} lookups against the iterative solver it replaces.
+ *
+ * <p>Builds a table from the built-in hub time of flight map, solves random distances and
+ * velocities both ways, and compares the aim each gives: the lookahead distance and heading,
+ * combined into how far from the target the shot would land, and the time of flight. Queries where
+ * the iterative solver itself does not settle are skipped. Also checks that the table, not the
+ * fallback, answers nearly everywhere the robot shoots from.
+ */
+class ShootOnTheMoveTableTest {
+
+  private static final int QUERIES = 1_000_000;
+
+  // Interpolating across the corners of the piecewise linear map dominates both
+  private static final double MISS_TOLERANCE = 0.05; // meters
+  private static final double TIME_OF_FLIGHT_TOLERANCE = 0.025; // seconds
+
+  // Where the robot shoots from, and how much of it the table must answer
+  private static final double SHOOTING_MIN_DISTANCE = 1.5; // meters
+  private static final double SHOOTING_MAX_DISTANCE = 6.0; // meters
+  private static final double SHOOTING_MAX_SPEED = 3.0; // meters per second
+  private static final double MIN_SHOOTING_COVERAGE = 0.95;
+
+  private final DoubleUnaryOperator timeOfFlight = ShotMap.BUILT_IN::getHubTimeOfFlight;
+  private final ShootOnTheMoveTable table = LaunchCalculator.createTable(timeOfFlight);
+
+  @Test
+  void lookupsMatchIterativeSolver() {
+    Random random = new Random(2026);
+    double[] fromTable = new double[ShootOnTheMoveTable.SOLUTION_LENGTH];
+    double[] iterative = new double[ShootOnTheMoveTable.SOLUTION_LENGTH];
+    int answered = 0;
+    double maxMiss = 0;
+    double maxTimeError = 0;
+
+    for (int q = 0; q < QUERIES; q++) {
+      double distance = 0.5 + 8.5 * random.nextDouble();
+      double radial = -5.0 + 10.0 * random.nextDouble();
+      double tangential = -5.0 + 10.0 * random.nextDouble();
+
+      boolean fromLookup = table.solve(distance, radial, tangential, fromTable);
+      int iterations =
+          ShootOnTheMoveTable.solveIterative(timeOfFlight, distance, radial, tangential, iterative);
+      if (!fromLookup) {
+        assertArrayEquals(iterative, fromTable, "fallback differs from the iterative solver");
+        continue;
+      }
+      if (iterations == ShootOnTheMoveTable.MAX_ITERATIONS) continue;
+      answered++;
+
+      double lookahead = iterative[ShootOnTheMoveTable.LOOKAHEAD_DISTANCE];
+      double distanceError = fromTable[ShootOnTheMoveTable.LOOKAHEAD_DISTANCE] - lookahead;
+      double headingError =
+          MathUtil.angleModulus(
+              fromTable[ShootOnTheMoveTable.HEADING_OFFSET]
+                  - iterative[ShootOnTheMoveTable.HEADING_OFFSET]);
+      maxMiss = Math.max(maxMiss, Math.hypot(distanceError, lookahead * headingError));
+      maxTimeError =
+          Math.max(
+              maxTimeError,
+              Math.abs(
+                  fromTable[ShootOnTheMoveTable.TIME_OF_FLIGHT]
+                      - iterative[ShootOnTheMoveTable.TIME_OF_FLIGHT]));
+    }
+
+    assertTrue(answered > 0, "table answered no queries");
+    assertTrue(maxMiss <= MISS_TOLERANCE, "max miss " + maxMiss + " m");
+    assertTrue(
+        maxTimeError <= TIME_OF_FLIGHT_TOLERANCE,
+        "max time of flight error " + maxTimeError + " s");
+  }
+
+  @Test
+  void tableCoversShootingRange() {
+    Random random = new Random(2026);
+    double[] out = new double[ShootOnTheMoveTable.SOLUTION_LENGTH];
+    int answered = 0;
+
+    for (int q = 0; q < QUERIES; q++) {
+      double distance =
+          SHOOTING_MIN_DISTANCE
+              + (SHOOTING_MAX_DISTANCE - SHOOTING_MIN_DISTANCE) * random.nextDouble();
+      // Uniform over the disc of drive velocities
+      double radial;
+      double tangential;
+      do {
+        radial = SHOOTING_MAX_SPEED * (2 * random.nextDouble() - 1);
+        tangential = SHOOTING_MAX_SPEED * (2 * random.nextDouble() - 1);
+      } while (Math.hypot(radial, tangential) > SHOOTING_MAX_SPEED);
+
+      if (table.lookup(distance, radial, tangential, out)) answered++;
+    }
+
+    double coverage = (double) answered / QUERIES;
+    assertTrue(coverage >= MIN_SHOOTING_COVERAGE, "table answered " + coverage + " of queries");
+  }
+
+  @Test
+  void lookupOutsideTableFails() {
+    double[] out = new double[ShootOnTheMoveTable.SOLUTION_LENGTH];
+    // Just outside each edge of the table
+    double[][] outside = {{0.4, 1.0, 1.0}, {9.1, -2.0, 0.5}, {3.0, 5.1, 0.0}, {3.0, 0.0, -5.1}};
+    for (double[] query : outside) {
+      assertFalse(table.lookup(query[0], query[1], query[2], out), Arrays.toString(query));
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package frc.robot.subsystems.shooter;
+
+import static edu.wpi.first.units.Units.Degrees;
+import static edu.wpi.first.units.Units.Meters;
+import static edu.wpi.first.units.Units.Rotations;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link ParabolicLaunchSolver} against a brute force search over entry slopes.
+ *
+ * <p>For hub shots across the field, sweeps the entry slope finely for one that clears the wall
+ * with the hood at or above its minimum. The solver must not call a distance infeasible when the
+ * sweep finds such a slope. A feasible solution must meet both constraints itself: the trajectory
+ * is rebuilt from its hood angle and flywheel speed and checked at the wall and the target. Also
+ * checks the memo table against exact solves.
+ */
+class ParabolicLaunchSolverTest {
+
+  // Closer than this the robot would be inside the hub
+  private static final double MIN_DISTANCE = 1.0; // meters
+  private static final double MAX_DISTANCE = 12.0; // meters
+  private static final double DISTANCE_STEP = 0.005; // meters
+  private static final double SLOPE_STEP = 1e-3;
+
+  private static final double GRAVITY = 9.8; // meters per second squared
+  private static final double TOLERANCE = 1e-6;
+  // Largest memo error allowed, from quantizing the distance to the memo resolution
+  private static final double MEMO_HOOD_TOLERANCE = 0.05; // rotations
+  private static final double MEMO_FLYWHEEL_TOLERANCE = 0.5; // rotations per second
+
+  private final double launchHeight = ShooterConstants.SHOOTER_HEIGHT.in(Meters);
+  private final double hubHeight = ShooterConstants.HUB_HEIGHT.in(Meters);
+  private final double wallOffset = ShooterConstants.FROM_HUB_CENTER_TO_WALL.in(Meters);
+  private final double wallHeight = hubHeight + ShooterConstants.WALL_CLEARANCE.in(Meters);
+  private final double rotationsPerDegree =
+      ShooterConstants.ROTATIONS_PER_LAUNCH_DEGREE.in(Rotations);
+  private final double flywheelCircumference =
+      2 * Math.PI * ShooterConstants.FLYWHEEL_RADIUS.in(Meters);
+  private final double minHood = ShooterConstants.MIN_HOOD_ANGLE.in(Degrees) * rotationsPerDegree;
+  private final double rise = hubHeight - launchHeight;
+
+  private final ParabolicLaunchSolver solver =
+      new ParabolicLaunchSolver(hubHeight, ShooterConstants.OPTIMAL_HUB_ENTRY_SLOPE, true);
+  private final LaunchRequest exact = new LaunchRequest();
+
+  @Test
+  void infeasibleOnlyWhenNoShotExists() {
+    for (double distance = MIN_DISTANCE; distance <= MAX_DISTANCE; distance += DISTANCE_STEP) {
+      if (solver.solveExact(distance, exact)) continue;
+
+      // Any entry slope that clears the wall with the hood at or above its minimum
+      for (double slope = -30; slope <= 0; slope += SLOPE_STEP) {
+        double a = (slope * distance - rise) / (distance * distance);
+        double b = 2 * rise / distance - slope;
+        if (!(a < 0 && b > 0)) continue;
+        double hood = (90 - Math.toDegrees(Math.atan(b))) * rotationsPerDegree;
+        assertTrue(
+            hood < minHood || wallHeight(a, b, distance) < wallHeight,
+            String.format("%.3f m: infeasible, but entry slope %.3f is a shot", distance, slope));
+      }
+    }
+  }
+
+  @Test
+  void feasibleSolutionsMeetConstraints() {
+    int feasibleCount = 0;
+    for (double distance = MIN_DISTANCE; distance <= MAX_DISTANCE; distance += DISTANCE_STEP) {
+      if (!solver.solveExact(distance, exact)) continue;
+      feasibleCount++;
+
+      // Rebuild the trajectory from the launch angle and speed the solver asked for
+      double hood = exact.getHoodRotations();
+      double velocity = exact.getFlywheelRotationsPerSecond() * flywheelCircumference;
+      double b = Math.tan(Math.toRadians(90 - hood / rotationsPerDegree));
+      // The solver's speed relation, v^2 = -g (1 + b^2) / a
+      double a = -GRAVITY * (1 + b * b) / (velocity * velocity);
+      double landing = a * distance * distance + b * distance + launchHeight;
+
+      String at = String.format("%.3f m", distance);
+      assertTrue(hood >= minHood - TOLERANCE, at + ": hood below minimum");
+      assertTrue(wallHeight(a, b, distance) >= wallHeight - TOLERANCE, at + ": hits the wall");
+      assertEquals(hubHeight, landing, TOLERANCE, at + ": misses the target height");
+    }
+    assertTrue(feasibleCount > 0, "no feasible distances");
+  }
+
+  @Test
+  void memoMatchesExactSolves() {
+    LaunchRequest memo = new LaunchRequest();
+    for (double distance = MIN_DISTANCE; distance <= MAX_DISTANCE; distance += DISTANCE_STEP) {
+      boolean feasible = solver.solveExact(distance, exact);
+      // Near the feasibility boundary the memo bucket can fall on the other side
+      if (solver.solve(distance, memo) != feasible) continue;
+
+      String at = String.format("%.3f m", distance);
+      assertEquals(
+          exact.getHoodRotations(), memo.getHoodRotations(), MEMO_HOOD_TOLERANCE, at + ": hood");
+      assertEquals(
+          exact.getFlywheelRotationsPerSecond(),
+          memo.getFlywheelRotationsPerSecond(),
+          MEMO_FLYWHEEL_TOLERANCE,
+          at + ": flywheel");
+    }
+  }
+
+  /** Trajectory height above the wall, or infinity if the launcher is inside the wall. */
+  private double wallHeight(double a, double b, double distance) {
+    double wallX = distance - wallOffset;
+    if (wallX <= 0) return Double.POSITIVE_INFINITY;
+    return a * wallX * wallX + b * wallX + launchHeight;
+  }
+}
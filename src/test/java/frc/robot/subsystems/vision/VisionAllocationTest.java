@@ -0,0 +1,131 @@
+package frc.robot.subsystems.vision;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+import edu.wpi.first.apriltag.AprilTag;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import frc.robot.statemachines.DriveState;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.photonvision.targeting.MultiTargetPNPResult;
+import org.photonvision.targeting.PhotonPipelineResult;
+import org.photonvision.targeting.PnpResult;
+
+/**
+ * Checks that a steady-state vision cycle allocates nothing: evaluation, jump detection,
+ * clustering, fusion, submission to {@link DriveState}, latency publishing and the drivetrain's
+ * drain, with every camera reporting a multi-tag result of the same robot pose.
+ *
+ * <p>The cycle is driven through {@link VisionSubsystem#replayCycle}, which is {@link
+ * VisionSubsystem#periodic} without the camera reads and the recorder. Those are left out because
+ * {@code PhotonCamera.getAllUnreadResults} decodes a new list of new results from NetworkTables on
+ * every call, which is outside this code's control, and the recorder is off on the robot.
+ */
+class VisionAllocationTest {
+
+  private static final double CYCLE_TIME = 100.0;
+  private static final int RESULTS_PER_CAMERA = 2;
+
+  // Enough to load and initialize everything the cycle touches before measuring
+  private static final int WARMUP_CYCLES = 500;
+  // Spans many latency publishes, every VisionConstants.LATENCY_PUBLISH_CYCLES cycles
+  private static final int MEASURED_CYCLES = 1000;
+
+  // Total bytes allowed over all measured cycles. Leaves room for a one-off allocation such as the
+  // JIT swapping in compiled code mid-run; allocating anything every cycle would take at least 16
+  // bytes per cycle, 16000 in total, far over it
+  private static final long ALLOCATION_ALLOWANCE = 256;
+
+  private final Pose2d robotPose = new Pose2d(4.0, 3.0, Rotation2d.fromDegrees(30));
+  private final DriveState driveState = DriveState.getInstance();
+  private final VisionSubsystem.VisionMeasurement[] drained =
+      VisionSubsystem.VisionMeasurement.buffer(VisionConstants.VISION_QUEUE_CAPACITY);
+
+  @BeforeAll
+  static void initializeHal() {
+    assertTrue(HAL.initialize(500, 0));
+  }
+
+  @Test
+  void steadyStateCycleDoesNotAllocate() {
+    VisionSubsystem vision = new VisionSubsystem(true);
+
+    // Fill the pose history so jump detection interpolates instead of falling back
+    for (int i = 50; i >= 0; i--) {
+      double time = CYCLE_TIME - i * 0.02;
+      SwerveDriveState state = new SwerveDriveState();
+      state.Timestamp = time;
+      state.Pose = robotPose;
+      state.Speeds = new ChassisSpeeds();
+      state.OdometryPeriod = 0.004;
+      driveState.publishOdometry(state);
+      driveState.latchLoopSnapshot();
+    }
+
+    List<Short> tags = new ArrayList<>();
+    for (AprilTag tag : VisionConstants.FIELD_LAYOUT.getTags()) {
+      if (tags.size() < 3) tags.add((short) tag.ID);
+    }
+
+    List<PhotonPipelineResult> results = new ArrayList<>();
+    int[] resultCameras = new int[vision.cameraCount() * RESULTS_PER_CAMERA];
+    Pose3d robot = new Pose3d(robotPose);
+    for (int camera = 0; camera < vision.cameraCount(); camera++) {
+      Transform3d robotToCamera = VisionConstants.cameraTransformMap.get(vision.cameraName(camera));
+      Pose3d cameraPose = robot.transformBy(robotToCamera);
+      Transform3d fieldToCamera =
+          new Transform3d(cameraPose.getTranslation(), cameraPose.getRotation());
+
+      for (int k = 0; k < RESULTS_PER_CAMERA; k++) {
+        long captureMicros = (long) ((CYCLE_TIME - 0.05 + k * 0.01) * 1e6);
+        PnpResult pnp = new PnpResult(fieldToCamera, fieldToCamera, 0.05, 0.1, 0.2);
+        PhotonPipelineResult result =
+            new PhotonPipelineResult(
+                k,
+                captureMicros,
+                captureMicros + 5000,
+                0,
+                List.of(),
+                Optional.of(new MultiTargetPNPResult(pnp, tags)));
+        result.setReceiveTimestampMicros(captureMicros + 10000);
+        resultCameras[results.size()] = camera;
+        results.add(result);
+      }
+    }
+
+    for (int i = 0; i < WARMUP_CYCLES; i++) cycle(vision, results, resultCameras);
+    assertTrue(cycle(vision, results, resultCameras) > 0, "no estimates reached the drivetrain");
+
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long thread = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(thread);
+    for (int i = 0; i < MEASURED_CYCLES; i++) cycle(vision, results, resultCameras);
+    long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+    assertTrue(
+        allocated <= ALLOCATION_ALLOWANCE,
+        allocated + " bytes allocated over " + MEASURED_CYCLES + " cycles");
+  }
+
+  /** Runs one cycle and drains it as the drivetrain would, returning the estimates drained. */
+  private int cycle(
+      VisionSubsystem vision, List<PhotonPipelineResult> results, int[] resultCameras) {
+    vision.replayCycle(CYCLE_TIME, 0, true, results, resultCameras);
+    int count = 0;
+    for (int tier = 1; tier <= 3; tier++) {
+      count += driveState.drainVisionEstimates(tier, drained);
+    }
+    return count;
+  }
+}